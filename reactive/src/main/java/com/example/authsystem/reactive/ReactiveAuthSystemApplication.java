@@ -0,0 +1,21 @@
+package com.example.authsystem.reactive;
+
+import com.example.authsystem.service.PasswordResetThrottle;
+import com.example.authsystem.util.PasswordResetTokenUtils;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The WebFlux and R2DBC build of the auth API. The two components it shares with the servlet build
+ * live outside this package, so they are imported rather than scanned.
+ */
+@SpringBootApplication
+@Import({PasswordResetTokenUtils.class, PasswordResetThrottle.class})
+public class ReactiveAuthSystemApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveAuthSystemApplication.class, args);
+    }
+
+}
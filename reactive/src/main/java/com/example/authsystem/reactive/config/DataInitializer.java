@@ -0,0 +1,63 @@
+package com.example.authsystem.reactive.config;
+
+import com.example.authsystem.reactive.entity.RoleName;
+import com.example.authsystem.reactive.entity.User;
+import com.example.authsystem.reactive.repository.UserRepository;
+import com.example.authsystem.reactive.security.PasswordHasher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Seeds the demo accounts. Roles are seeded by {@code schema.sql}. Blocks, since it runs once at
+ * startup before the server accepts requests.
+ */
+@Component
+public class DataInitializer implements CommandLineRunner {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
+    @Value("${data-initializer.seed-users:true}")
+    private boolean seedUsers;
+    
+    @Override
+    public void run(String... args) {
+        // The demo accounts are development only; every seeded password also costs a bcrypt hash at startup
+        if (!seedUsers) {
+            return;
+        }
+        
+        // Create default admin user if it doesn't exist
+        createUserIfMissing("admin", "admin@example.com", "admin123", "Admin",
+                RoleName.ROLE_ADMIN, RoleName.ROLE_USER)
+                // Create default user if it doesn't exist
+                .then(createUserIfMissing("user", "user@example.com", "user123", "Regular",
+                        RoleName.ROLE_USER))
+                .block();
+    }
+    
+    private Mono<Void> createUserIfMissing(String username, String email, String password, String firstName,
+                                           RoleName... roleNames) {
+        return userRepository.existsByUsername(username)
+                .filter(exists -> !exists)
+                .flatMap(missing -> passwordHasher.encode(password))
+                .flatMap(passwordHash -> {
+                    User user = new User(username, email, passwordHash);
+                    user.setFirstName(firstName);
+                    user.setLastName("User");
+                    return userRepository.save(user);
+                })
+                .flatMap(user -> userRepository.insertRolesByUserIds(List.of(user.getId()),
+                        Arrays.stream(roleNames).map(RoleName::name).toList()))
+                .then();
+    }
+}
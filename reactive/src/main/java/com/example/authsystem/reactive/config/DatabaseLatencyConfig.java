@@ -0,0 +1,225 @@
+package com.example.authsystem.reactive.config;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Simulated network latency in front of the database, the counterpart of the servlet build's
+ * {@code DatabaseLatencyConfig}: every statement, commit and rollback waits
+ * {@code datasource.latency.round-trip-ms} before it runs. The wait is a timer rather than a sleep,
+ * so an event loop thread is free during it, as it would be while waiting on a socket. Never enable
+ * it in production.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.latency.enabled", havingValue = "true")
+public class DatabaseLatencyConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseLatencyConfig.class);
+    
+    @Bean
+    public static BeanPostProcessor databaseLatencyPostProcessor(
+            @Value("${datasource.latency.round-trip-ms:2}") long roundTripMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof ConnectionFactory connectionFactory) || !"connectionFactory".equals(beanName)) {
+                    return bean;
+                }
+                logger.warn("Simulated database latency enabled: roundTripMs={}", roundTripMs);
+                return new LatencyConnectionFactory(connectionFactory, Duration.ofMillis(roundTripMs));
+            }
+        };
+    }
+    
+    private record LatencyConnectionFactory(ConnectionFactory delegate, Duration roundTrip) implements ConnectionFactory, Wrapped<ConnectionFactory> {
+        
+        @Override
+        public Publisher<? extends Connection> create() {
+            return Mono.from(delegate.create()).map(connection -> new LatencyConnection(connection, roundTrip));
+        }
+        
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+        
+        // Lets Boot find the pool's options, and the database type, behind this wrapper
+        @Override
+        public ConnectionFactory unwrap() {
+            return delegate;
+        }
+    }
+    
+    private record LatencyConnection(Connection delegate, Duration roundTrip) implements Connection, Wrapped<Connection> {
+        
+        @Override
+        public Connection unwrap() {
+            return delegate;
+        }
+        
+        private Mono<Void> afterRoundTrip(Publisher<Void> action) {
+            return Mono.delay(roundTrip).then(Mono.from(action));
+        }
+        
+        @Override
+        public Publisher<Void> commitTransaction() {
+            return afterRoundTrip(delegate.commitTransaction());
+        }
+        
+        @Override
+        public Publisher<Void> rollbackTransaction() {
+            return afterRoundTrip(delegate.rollbackTransaction());
+        }
+        
+        @Override
+        public Statement createStatement(String sql) {
+            return new LatencyStatement(delegate.createStatement(sql), roundTrip);
+        }
+        
+        @Override
+        public Publisher<Void> beginTransaction() {
+            return delegate.beginTransaction();
+        }
+        
+        @Override
+        public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+            return delegate.beginTransaction(definition);
+        }
+        
+        @Override
+        public Publisher<Void> close() {
+            return delegate.close();
+        }
+        
+        @Override
+        public Batch createBatch() {
+            return delegate.createBatch();
+        }
+        
+        @Override
+        public Publisher<Void> createSavepoint(String name) {
+            return delegate.createSavepoint(name);
+        }
+        
+        @Override
+        public boolean isAutoCommit() {
+            return delegate.isAutoCommit();
+        }
+        
+        @Override
+        public ConnectionMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+        
+        @Override
+        public IsolationLevel getTransactionIsolationLevel() {
+            return delegate.getTransactionIsolationLevel();
+        }
+        
+        @Override
+        public Publisher<Void> releaseSavepoint(String name) {
+            return delegate.releaseSavepoint(name);
+        }
+        
+        @Override
+        public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+            return delegate.rollbackTransactionToSavepoint(name);
+        }
+        
+        @Override
+        public Publisher<Void> setAutoCommit(boolean autoCommit) {
+            return delegate.setAutoCommit(autoCommit);
+        }
+        
+        @Override
+        public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+            return delegate.setLockWaitTimeout(timeout);
+        }
+        
+        @Override
+        public Publisher<Void> setStatementTimeout(Duration timeout) {
+            return delegate.setStatementTimeout(timeout);
+        }
+        
+        @Override
+        public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+            return delegate.setTransactionIsolationLevel(isolationLevel);
+        }
+        
+        @Override
+        public Publisher<Boolean> validate(ValidationDepth depth) {
+            return delegate.validate(depth);
+        }
+    }
+    
+    private record LatencyStatement(Statement delegate, Duration roundTrip) implements Statement {
+        
+        @Override
+        public Publisher<? extends Result> execute() {
+            return Flux.from(delegate.execute()).delaySubscription(roundTrip);
+        }
+        
+        @Override
+        public Statement add() {
+            delegate.add();
+            return this;
+        }
+        
+        @Override
+        public Statement bind(int index, Object value) {
+            delegate.bind(index, value);
+            return this;
+        }
+        
+        @Override
+        public Statement bind(String name, Object value) {
+            delegate.bind(name, value);
+            return this;
+        }
+        
+        @Override
+        public Statement bindNull(int index, Class<?> type) {
+            delegate.bindNull(index, type);
+            return this;
+        }
+        
+        @Override
+        public Statement bindNull(String name, Class<?> type) {
+            delegate.bindNull(name, type);
+            return this;
+        }
+        
+        @Override
+        public Statement returnGeneratedValues(String... columns) {
+            delegate.returnGeneratedValues(columns);
+            return this;
+        }
+        
+        @Override
+        public Statement fetchSize(int rows) {
+            delegate.fetchSize(rows);
+            return this;
+        }
+    }
+}
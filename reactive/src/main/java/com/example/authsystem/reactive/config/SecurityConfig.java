@@ -0,0 +1,71 @@
+package com.example.authsystem.reactive.config;
+
+import com.example.authsystem.reactive.exception.ErrorResponseWriter;
+import com.example.authsystem.reactive.repository.UserRepository;
+import com.example.authsystem.reactive.security.JwtAuthenticationWebFilter;
+import com.example.authsystem.reactive.security.RateLimitWebFilter;
+import com.example.authsystem.reactive.util.JwtUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import java.util.Arrays;
+
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class SecurityConfig {
+    
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        // Only allow specific origins in production
+        configuration.setAllowedOriginPatterns(Arrays.asList("http://localhost:3000", "http://localhost:4200", "https://yourdomain.com"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setAllowCredentials(true);
+        
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+    
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtils jwtUtils,
+                                                         UserRepository userRepository,
+                                                         ErrorResponseWriter errorResponseWriter) {
+        http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .logout(ServerHttpSecurity.LogoutSpec::disable)
+            // Stateless: every request authenticates from its own bearer token
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .exceptionHandling(exception -> exception
+                    .authenticationEntryPoint((exchange, e) -> errorResponseWriter.writeAuthenticationRequired(exchange))
+                    .accessDeniedHandler((exchange, e) ->
+                            errorResponseWriter.write(exchange, HttpStatus.FORBIDDEN, ErrorResponseWriter.ACCESS_DENIED)))
+            .authorizeExchange(auth ->
+                auth.pathMatchers("/auth/**").permitAll()
+                    .pathMatchers("/test/public").permitAll() // Allow public test endpoint
+                    .pathMatchers("/actuator/health", "/actuator/health/liveness",
+                            "/actuator/health/readiness").permitAll() // Health checks and probes
+                    .pathMatchers("/actuator/**").hasRole("ADMIN") // Secure other actuator endpoints
+                    .anyExchange().authenticated()
+            );
+        
+        http.addFilterBefore(new RateLimitWebFilter(errorResponseWriter), SecurityWebFiltersOrder.AUTHENTICATION);
+        http.addFilterAt(new JwtAuthenticationWebFilter(jwtUtils, userRepository), SecurityWebFiltersOrder.AUTHENTICATION);
+        
+        return http.build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.authsystem.reactive.config;
+
+import com.example.authsystem.reactive.entity.User;
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * The R2DBC counterpart of the JPA entity's {@code @PrePersist} and {@code @PreUpdate} hooks:
+ * every insert or update of a {@link User} through a repository stamps {@code updated_at}, and the
+ * first one {@code created_at}.
+ */
+@Component
+public class UserTimestampsCallback implements BeforeConvertCallback<User> {
+    
+    @Override
+    public Publisher<User> onBeforeConvert(User user, SqlIdentifier table) {
+        LocalDateTime now = LocalDateTime.now();
+        if (user.getCreatedAt() == null) {
+            user.setCreatedAt(now);
+        }
+        user.setUpdatedAt(now);
+        return Mono.just(user);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.authsystem.reactive.controller;
+
+import com.example.authsystem.dto.request.LoginRequest;
+import com.example.authsystem.dto.request.PasswordResetRequest;
+import com.example.authsystem.dto.request.SignUpRequest;
+import com.example.authsystem.dto.request.TokenRefreshRequest;
+import com.example.authsystem.dto.response.JwtResponse;
+import com.example.authsystem.dto.response.MessageResponse;
+import com.example.authsystem.dto.response.TokenRefreshResponse;
+import com.example.authsystem.exception.BadRequestException;
+import com.example.authsystem.reactive.entity.User;
+import com.example.authsystem.reactive.service.CustomAuthenticationManager;
+import com.example.authsystem.reactive.service.RefreshTokenService;
+import com.example.authsystem.reactive.service.UserService;
+import com.example.authsystem.reactive.util.JwtUtils;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/auth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AuthController {
+    
+    @Autowired
+    private CustomAuthenticationManager authenticationManager;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @PostMapping("/signup")
+    public Mono<MessageResponse> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
+        return userService.createUser(signUpRequest)
+                .thenReturn(new MessageResponse("User registered successfully!"));
+    }
+    
+    @PostMapping("/signin")
+    public Mono<JwtResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                        loginRequest.getUsernameOrEmail(),
+                        loginRequest.getPassword()))
+                .flatMap(authentication -> {
+                    User user = (User) authentication.getPrincipal();
+                    return refreshTokenService.createRefreshToken(user)
+                            .map(refreshToken -> new JwtResponse(jwtUtils.generateToken(user),
+                                    refreshToken.getToken(),
+                                    user.getId(),
+                                    user.getUsername(),
+                                    user.getEmail(),
+                                    authentication.getAuthorities().stream()
+                                            .map(GrantedAuthority::getAuthority)
+                                            .collect(Collectors.toSet())));
+                });
+    }
+    
+    @PostMapping("/refreshtoken")
+    public Mono<TokenRefreshResponse> refreshToken(@Valid @RequestBody TokenRefreshRequest request) {
+        return refreshTokenService.refreshAccessToken(request.getRefreshToken());
+    }
+    
+    @PostMapping("/signout")
+    public Mono<MessageResponse> logoutUser(@Valid @RequestBody TokenRefreshRequest logOutRequest) {
+        return refreshTokenService.deleteByToken(logOutRequest.getRefreshToken())
+                .thenReturn(new MessageResponse("Log out successful!"));
+    }
+    
+    /**
+     * Takes {@code email} from the query string or a form body, as {@code @RequestParam} does in the
+     * servlet build; in WebFlux {@code @RequestParam} only sees the query string.
+     */
+    @PostMapping("/forgot-password")
+    public Mono<MessageResponse> forgotPassword(ServerWebExchange exchange) {
+        String queryEmail = exchange.getRequest().getQueryParams().getFirst("email");
+        return exchange.getFormData()
+                .mapNotNull(form -> queryEmail != null ? queryEmail : form.getFirst("email"))
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Required parameter 'email' is not present")))
+                .flatMap(userService::generatePasswordResetToken)
+                .thenReturn(new MessageResponse("Password reset email sent!"));
+    }
+    
+    @PostMapping("/reset-password")
+    public Mono<MessageResponse> resetPassword(@Valid @RequestBody PasswordResetRequest resetRequest) {
+        return userService.resetPassword(resetRequest.getToken(), resetRequest.getNewPassword())
+                .thenReturn(new MessageResponse("Password reset successfully!"));
+    }
+}
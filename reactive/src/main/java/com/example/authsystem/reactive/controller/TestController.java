@@ -0,0 +1,31 @@
+package com.example.authsystem.reactive.controller;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/test")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class TestController {
+    
+    @GetMapping("/public")
+    public Mono<String> publicAccess() {
+        return Mono.just("Public Content - Accessible to everyone!");
+    }
+    
+    @GetMapping("/user")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<String> userAccess() {
+        return Mono.just("User Content - Accessible to users with USER or ADMIN role!");
+    }
+    
+    @GetMapping("/admin")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<String> adminAccess() {
+        return Mono.just("Admin Content - Accessible to users with ADMIN role only!");
+    }
+}
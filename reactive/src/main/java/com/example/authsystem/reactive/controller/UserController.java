@@ -0,0 +1,140 @@
+package com.example.authsystem.reactive.controller;
+
+import com.example.authsystem.dto.request.UpdateUserRequest;
+import com.example.authsystem.dto.request.UserBatchRequest;
+import com.example.authsystem.dto.response.MessageResponse;
+import com.example.authsystem.dto.response.UserBatchResponse;
+import com.example.authsystem.dto.response.UserImportResponse;
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.dto.response.UserPageResponse;
+import com.example.authsystem.dto.response.UserSearchResponse;
+import com.example.authsystem.reactive.entity.RoleName;
+import com.example.authsystem.reactive.entity.User;
+import com.example.authsystem.reactive.service.UserBatchService;
+import com.example.authsystem.reactive.service.UserExportService;
+import com.example.authsystem.reactive.service.UserImportService;
+import com.example.authsystem.reactive.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/users")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class UserController {
+    
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserBatchService userBatchService;
+    
+    @Autowired
+    private UserExportService userExportService;
+    
+    @Autowired
+    private UserImportService userImportService;
+    
+    @GetMapping("/me")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<UserInfoResponse> getCurrentUser(@AuthenticationPrincipal User user) {
+        return Mono.just(userService.convertToUserInfoResponse(user));
+    }
+    
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<UserPageResponse> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) RoleName role,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        return userService.getUsersPage(cursor, size, role, enabled, createdFrom, createdTo);
+    }
+    
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<UserSearchResponse> searchUsers(@RequestParam String q,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size) {
+        return userService.searchUsers(q, page, size);
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportUsers(
+            @RequestParam(defaultValue = "NDJSON") UserExportService.Format format, ServerHttpResponse response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (format == UserExportService.Format.CSV) {
+            builder.contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"");
+        } else {
+            builder.contentType(MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"");
+        }
+        
+        return Mono.just(builder.body(userExportService.export(format, response.bufferFactory())));
+    }
+    
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<UserImportResponse> importUsers(ServerHttpRequest request) {
+        UserImportService.Format format = CSV.isCompatibleWith(request.getHeaders().getContentType())
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+        
+        return userImportService.importUsers(format, request.getBody());
+    }
+    
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<UserInfoResponse> getUserById(@PathVariable Long id) {
+        return userService.getUserById(id)
+                .map(userService::convertToUserInfoResponse);
+    }
+    
+    @PutMapping("/me")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public Mono<UserInfoResponse> updateCurrentUser(@AuthenticationPrincipal User currentUser,
+                                                    @Valid @RequestBody UpdateUserRequest updateRequest) {
+        return userService.updateUser(currentUser.getId(), updateRequest)
+                .map(userService::convertToUserInfoResponse);
+    }
+    
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<UserInfoResponse> updateUser(@PathVariable Long id,
+                                             @Valid @RequestBody UpdateUserRequest updateRequest) {
+        return userService.updateUser(id, updateRequest)
+                .map(userService::convertToUserInfoResponse);
+    }
+    
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<MessageResponse> deleteUser(@PathVariable Long id) {
+        return userService.deleteUser(id)
+                .thenReturn(new MessageResponse("User deleted successfully!"));
+    }
+    
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<UserBatchResponse> batchUpdateUsers(@Valid @RequestBody UserBatchRequest batchRequest) {
+        return userBatchService.apply(batchRequest);
+    }
+}
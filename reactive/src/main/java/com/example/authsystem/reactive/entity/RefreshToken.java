@@ -0,0 +1,83 @@
+package com.example.authsystem.reactive.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+@Table("refresh_tokens")
+public class RefreshToken {
+    
+    @Id
+    private Long id;
+    
+    private String token;
+    
+    private LocalDateTime expiryDate;
+    
+    private LocalDateTime createdAt;
+    
+    @Column("is_revoked")
+    private boolean revoked = false;
+    
+    private Long userId;
+    
+    public RefreshToken() {}
+    
+    public RefreshToken(String token, Long userId, LocalDateTime expiryDate) {
+        this.token = token;
+        this.userId = userId;
+        this.expiryDate = expiryDate;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public LocalDateTime getExpiryDate() {
+        return expiryDate;
+    }
+    
+    public void setExpiryDate(LocalDateTime expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public boolean isRevoked() {
+        return revoked;
+    }
+    
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+}
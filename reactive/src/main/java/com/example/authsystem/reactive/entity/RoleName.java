@@ -0,0 +1,23 @@
+package com.example.authsystem.reactive.entity;
+
+import java.util.Locale;
+
+/**
+ * The names stored in {@code roles.name}. Roles have no entity of their own here: every statement
+ * that needs a role id looks it up by name in the same statement.
+ */
+public enum RoleName {
+    ROLE_USER,
+    ROLE_ADMIN;
+    
+    /**
+     * Accepts {@code ROLE_ADMIN}, {@code admin} and anything in between, like the servlet build does.
+     */
+    public static RoleName parse(String name) {
+        String normalized = name.trim().toUpperCase(Locale.ROOT);
+        if (!normalized.startsWith("ROLE_")) {
+            normalized = "ROLE_" + normalized;
+        }
+        return valueOf(normalized);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.authsystem.reactive.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Table("users")
+public class User implements UserDetails {
+    
+    @Id
+    private Long id;
+    
+    private String username;
+    
+    private String email;
+    
+    private String password;
+    
+    private String firstName;
+    
+    private String lastName;
+    
+    private String phoneNumber;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Optimistic lock: an update matches {@code WHERE id = ? AND version = ?} and fails with
+     * {@code OptimisticLockingFailureException} when another request got there first.
+     */
+    @Version
+    private Long version;
+    
+    @Column("is_enabled")
+    private boolean enabled = true;
+    
+    @Column("is_account_non_expired")
+    private boolean accountNonExpired = true;
+    
+    @Column("is_account_non_locked")
+    private boolean accountNonLocked = true;
+    
+    @Column("is_credentials_non_expired")
+    private boolean credentialsNonExpired = true;
+    
+    /**
+     * Comma-separated role names, aggregated by the queries in {@code UserRepository} in the same
+     * statement as the user. Never written; the {@code user_roles} rows are managed explicitly.
+     */
+    @ReadOnlyProperty
+    @Column("role_names")
+    private String roleNames;
+    
+    public User() {}
+    
+    public User(String username, String email, String password) {
+        this.username = username;
+        this.email = email;
+        this.password = password;
+    }
+    
+    public Set<String> getRoles() {
+        if (roleNames == null || roleNames.isEmpty()) {
+            return Set.of();
+        }
+        return Arrays.stream(roleNames.split(",")).collect(Collectors.toSet());
+    }
+    
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return getRoles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    @Override
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    @Override
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+    
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+    
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    @Override
+    public boolean isAccountNonExpired() {
+        return accountNonExpired;
+    }
+    
+    public void setAccountNonExpired(boolean accountNonExpired) {
+        this.accountNonExpired = accountNonExpired;
+    }
+    
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+    
+    public void setAccountNonLocked(boolean accountNonLocked) {
+        this.accountNonLocked = accountNonLocked;
+    }
+    
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return credentialsNonExpired;
+    }
+    
+    public void setCredentialsNonExpired(boolean credentialsNonExpired) {
+        this.credentialsNonExpired = credentialsNonExpired;
+    }
+    
+    public String getRoleNames() {
+        return roleNames;
+    }
+    
+    public void setRoleNames(String roleNames) {
+        this.roleNames = roleNames;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.authsystem.reactive.exception;
+
+import java.time.LocalDateTime;
+
+/**
+ * The error body of the servlet build's {@code GlobalExceptionHandler.ErrorResponse}, field for field.
+ */
+public record ErrorResponse(LocalDateTime timestamp, int status, String error, String message, String path) {
+    
+    public ErrorResponse(int status, String error, String message, String path) {
+        this(LocalDateTime.now(), status, error, message, path);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.authsystem.reactive.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes error bodies from web filters and security handlers, which run before any controller advice.
+ * The shapes and paths are the servlet build's: filters and method security report the full request
+ * path, the authentication entry point the path within the application and an epoch-millis timestamp.
+ */
+@Component
+public class ErrorResponseWriter {
+    
+    public static final String AUTHENTICATION_REQUIRED = "Full authentication is required to access this resource";
+    public static final String ACCESS_DENIED = "Access is denied";
+    public static final String TOO_MANY_REQUESTS = "Too many requests. Please try again later.";
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    public Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String message) {
+        return write(exchange, status, new ErrorResponse(status.value(), status.getReasonPhrase(), message,
+                exchange.getRequest().getPath().value()));
+    }
+    
+    public Mono<Void> writeAuthenticationRequired(ServerWebExchange exchange) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.UNAUTHORIZED.value());
+        body.put("error", HttpStatus.UNAUTHORIZED.getReasonPhrase());
+        body.put("message", AUTHENTICATION_REQUIRED);
+        body.put("path", exchange.getRequest().getPath().pathWithinApplication().value());
+        return write(exchange, HttpStatus.UNAUTHORIZED, body);
+    }
+    
+    private Mono<Void> write(ServerWebExchange exchange, HttpStatus status, Object body) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (response.isCommitted()) {
+            return Mono.empty();
+        }
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(bytes.length);
+        response.getHeaders().remove(HttpHeaders.WWW_AUTHENTICATE);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+}
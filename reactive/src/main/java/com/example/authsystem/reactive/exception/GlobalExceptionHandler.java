@@ -0,0 +1,140 @@
+package com.example.authsystem.reactive.exception;
+
+import com.example.authsystem.exception.BadRequestException;
+import com.example.authsystem.exception.ResourceNotFoundException;
+import com.example.authsystem.exception.TokenRefreshException;
+import com.example.authsystem.exception.UserAlreadyExistsException;
+import com.example.authsystem.exception.VersionConflictException;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The servlet build's error responses. Its handlers describe the request as {@code uri=<path>}, except
+ * for bad credentials and denied access, which carry the bare path; both are kept.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+    
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(ResourceNotFoundException ex,
+                                                                         ServerHttpRequest request) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage(), describe(request));
+    }
+    
+    @ExceptionHandler({UserAlreadyExistsException.class, VersionConflictException.class})
+    public ResponseEntity<ErrorResponse> handleConflict(RuntimeException ex, ServerHttpRequest request) {
+        return error(HttpStatus.CONFLICT, ex.getMessage(), describe(request));
+    }
+    
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex,
+                                                                                 ServerHttpRequest request) {
+        // Raised when the version checked by the UPDATE no longer matches
+        return error(HttpStatus.CONFLICT, "The resource was modified concurrently. Reload it and try again.",
+                describe(request));
+    }
+    
+    @ExceptionHandler(TokenRefreshException.class)
+    public ResponseEntity<ErrorResponse> handleTokenRefreshException(TokenRefreshException ex,
+                                                                     ServerHttpRequest request) {
+        return error(HttpStatus.FORBIDDEN, ex.getMessage(), describe(request));
+    }
+    
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequestException(BadRequestException ex, ServerHttpRequest request) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage(), describe(request));
+    }
+    
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<ErrorResponse> handleBadCredentialsException(BadCredentialsException ex,
+                                                                       ServerHttpRequest request) {
+        // Disabled, locked and expired accounts get the same answer as a wrong password
+        return error(HttpStatus.UNAUTHORIZED, "Invalid username or password", request.getPath().value());
+    }
+    
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAccessDeniedException(AccessDeniedException ex,
+                                                                     ServerHttpRequest request) {
+        // Method security (@PreAuthorize) failures
+        return error(HttpStatus.FORBIDDEN, ErrorResponseWriter.ACCESS_DENIED, request.getPath().value());
+    }
+    
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecutionException(RejectedExecutionException ex,
+                                                                          ServerHttpRequest request) {
+        // The password hashing queue is full
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+                        "Server is busy. Please try again shortly.", request.getPath().value()));
+    }
+    
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, String>> handleValidationExceptions(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errors.put(fieldName, errorMessage);
+        });
+        return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
+    }
+    
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInputException(ServerWebInputException ex,
+                                                                       ServerHttpRequest request) {
+        String message = ex.getReason();
+        if (ex.getCause() instanceof TypeMismatchException mismatch) {
+            message = "Invalid value '" + mismatch.getValue() + "' for parameter '" + mismatch.getPropertyName() + "'";
+            Class<?> requiredType = mismatch.getRequiredType();
+            if (requiredType != null && requiredType.isEnum()) {
+                message += "; expected one of " + Arrays.toString(requiredType.getEnumConstants());
+            }
+        }
+        return error(HttpStatus.BAD_REQUEST, message, describe(request));
+    }
+    
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex,
+                                                                       ServerHttpRequest request) {
+        HttpStatusCode status = ex.getStatusCode();
+        HttpStatus resolved = HttpStatus.resolve(status.value());
+        return ResponseEntity.status(status)
+                .headers(ex.getHeaders())
+                .body(new ErrorResponse(status.value(), resolved == null ? "" : resolved.getReasonPhrase(),
+                        ex.getReason(), describe(request)));
+    }
+    
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(Exception ex, ServerHttpRequest request) {
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), describe(request));
+    }
+    
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String message, String path) {
+        return ResponseEntity.status(status)
+                .body(new ErrorResponse(status.value(), status.getReasonPhrase(), message, path));
+    }
+    
+    /** What the servlet build's {@code WebRequest.getDescription(false)} returns. */
+    private static String describe(ServerHttpRequest request) {
+        return "uri=" + request.getPath().value();
+    }
+}
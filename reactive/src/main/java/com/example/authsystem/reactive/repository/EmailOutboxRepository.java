@@ -0,0 +1,9 @@
+package com.example.authsystem.reactive.repository;
+
+import com.example.authsystem.reactive.entity.EmailOutboxMessage;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailOutboxRepository extends ReactiveCrudRepository<EmailOutboxMessage, Long> {
+}
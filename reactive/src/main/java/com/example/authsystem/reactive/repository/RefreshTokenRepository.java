@@ -0,0 +1,26 @@
+package com.example.authsystem.reactive.repository;
+
+import com.example.authsystem.reactive.entity.RefreshToken;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+public interface RefreshTokenRepository extends ReactiveCrudRepository<RefreshToken, Long> {
+    
+    @Modifying
+    @Query("DELETE FROM refresh_tokens WHERE token = :token")
+    Mono<Integer> deleteByToken(String token);
+    
+    @Modifying
+    @Query("UPDATE refresh_tokens SET is_revoked = TRUE WHERE user_id IN (:userIds) AND is_revoked = FALSE")
+    Mono<Integer> revokeAllByUserIds(Collection<Long> userIds);
+    
+    @Modifying
+    @Query("DELETE FROM refresh_tokens WHERE user_id IN (:userIds)")
+    Mono<Integer> deleteAllByUserIds(Collection<Long> userIds);
+}
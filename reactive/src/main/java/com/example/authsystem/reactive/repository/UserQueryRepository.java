@@ -0,0 +1,37 @@
+package com.example.authsystem.reactive.repository;
+
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.reactive.entity.RoleName;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * User queries whose SQL depends on the arguments, implemented on {@code DatabaseClient} in
+ * {@link UserQueryRepositoryImpl}. All of them project straight into DTOs with the role names
+ * aggregated in the same statement.
+ */
+public interface UserQueryRepository {
+    
+    /**
+     * Keyset page of users ordered by id. Null filters are left out of the statement.
+     */
+    Flux<UserInfoResponse> findUserPage(long after, RoleName role, Boolean enabled,
+                                        LocalDateTime createdFrom, LocalDateTime createdTo, int limit);
+    
+    /**
+     * Users matching every term as a prefix of their username, email, first or last name, best match
+     * first. The terms must already be lower case.
+     */
+    Flux<UserInfoResponse> searchUsers(List<String> terms, int offset, int limit);
+    
+    Mono<Long> countSearchMatches(List<String> terms);
+    
+    /**
+     * Every user in id order, emitted as rows arrive; the subscriber's demand limits how many are
+     * fetched ahead.
+     */
+    Flux<UserInfoResponse> streamAllUserInfo();
+}
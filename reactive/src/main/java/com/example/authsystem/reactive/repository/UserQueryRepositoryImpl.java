@@ -0,0 +1,130 @@
+package com.example.authsystem.reactive.repository;
+
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.reactive.entity.RoleName;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class UserQueryRepositoryImpl implements UserQueryRepository {
+    
+    private static final String USER_INFO_COLUMNS = "SELECT u.id, u.username, u.email, u.first_name, u.last_name, " +
+            "u.phone_number, u.created_at, u.updated_at, " +
+            "(SELECT LISTAGG(r.name, ',') WITHIN GROUP (ORDER BY r.name) " +
+            "FROM user_roles ur JOIN roles r ON r.id = ur.role_id WHERE ur.user_id = u.id) AS role_names";
+    
+    private static final String SELECT_USER_INFO = USER_INFO_COLUMNS + " FROM users u ";
+    
+    private static final String SEARCH_FIELDS = "LOWER(u.username) LIKE :%1$s OR LOWER(u.email) LIKE :%1$s " +
+            "OR LOWER(u.first_name) LIKE :%1$s OR LOWER(u.last_name) LIKE :%1$s";
+    
+    /** The servlet build's index scores: exact username or email, then username, email and name prefixes. */
+    private static final String TERM_SCORE = "CASE WHEN LOWER(u.username) = :%1$s OR LOWER(u.email) = :%1$s THEN 100 " +
+            "WHEN LOWER(u.username) LIKE :%2$s THEN 80 WHEN LOWER(u.email) LIKE :%2$s THEN 60 ELSE 50 END";
+    
+    private final DatabaseClient databaseClient;
+    
+    UserQueryRepositoryImpl(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+    
+    @Override
+    public Flux<UserInfoResponse> findUserPage(long after, RoleName role, Boolean enabled,
+                                               LocalDateTime createdFrom, LocalDateTime createdTo, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_USER_INFO).append("WHERE u.id > :after");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("after", after);
+        if (enabled != null) {
+            sql.append(" AND u.is_enabled = :enabled");
+            params.put("enabled", enabled);
+        }
+        if (createdFrom != null) {
+            sql.append(" AND u.created_at >= :createdFrom");
+            params.put("createdFrom", createdFrom);
+        }
+        if (createdTo != null) {
+            sql.append(" AND u.created_at < :createdTo");
+            params.put("createdTo", createdTo);
+        }
+        if (role != null) {
+            sql.append(" AND EXISTS (SELECT 1 FROM user_roles fur JOIN roles fr ON fr.id = fur.role_id " +
+                    "WHERE fur.user_id = u.id AND fr.name = :role)");
+            params.put("role", role.name());
+        }
+        sql.append(" ORDER BY u.id LIMIT :limit");
+        params.put("limit", limit);
+        
+        return databaseClient.sql(sql.toString())
+                .bindValues(params)
+                .map(UserQueryRepositoryImpl::toUserInfo)
+                .all();
+    }
+    
+    @Override
+    public Flux<UserInfoResponse> searchUsers(List<String> terms, int offset, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder score = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            params.put("exact" + i, terms.get(i));
+            score.append(i == 0 ? "" : " + ").append(String.format(TERM_SCORE, "exact" + i, "prefix" + i));
+        }
+        String sql = USER_INFO_COLUMNS + ", " + score + " AS score FROM users u " + searchCondition(terms, params)
+                + " ORDER BY score DESC, u.username LIMIT :limit OFFSET :offset";
+        params.put("limit", limit);
+        params.put("offset", offset);
+        
+        return databaseClient.sql(sql)
+                .bindValues(params)
+                .map(UserQueryRepositoryImpl::toUserInfo)
+                .all();
+    }
+    
+    @Override
+    public Mono<Long> countSearchMatches(List<String> terms) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        return databaseClient.sql("SELECT COUNT(*) FROM users u " + searchCondition(terms, params))
+                .bindValues(params)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+    
+    @Override
+    public Flux<UserInfoResponse> streamAllUserInfo() {
+        return databaseClient.sql(SELECT_USER_INFO + "ORDER BY u.id")
+                .map(UserQueryRepositoryImpl::toUserInfo)
+                .all();
+    }
+    
+    private static String searchCondition(List<String> terms, Map<String, Object> params) {
+        StringBuilder where = new StringBuilder("WHERE ");
+        for (int i = 0; i < terms.size(); i++) {
+            params.put("prefix" + i, escapeLike(terms.get(i)) + "%");
+            where.append(i == 0 ? "(" : " AND (").append(String.format(SEARCH_FIELDS, "prefix" + i)).append(')');
+        }
+        return where.toString();
+    }
+    
+    private static String escapeLike(String term) {
+        // H2's default LIKE escape character is the backslash
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private static UserInfoResponse toUserInfo(Readable row) {
+        return new UserInfoResponse(
+                row.get("id", Long.class),
+                row.get("username", String.class),
+                row.get("email", String.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("phone_number", String.class),
+                row.get("role_names", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.authsystem.reactive.repository;
+
+import com.example.authsystem.reactive.entity.User;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface UserRepository extends ReactiveCrudRepository<User, Long>, UserQueryRepository {
+    
+    /** The user row with its role names aggregated into {@code role_names}, in one statement. */
+    String SELECT_WITH_ROLES = "SELECT u.*, (SELECT LISTAGG(r.name, ',') WITHIN GROUP (ORDER BY r.name) " +
+            "FROM user_roles ur JOIN roles r ON r.id = ur.role_id WHERE ur.user_id = u.id) AS role_names " +
+            "FROM users u ";
+    
+    @Query(SELECT_WITH_ROLES + "WHERE u.id = :id")
+    Mono<User> findByIdWithRoles(Long id);
+    
+    @Query(SELECT_WITH_ROLES + "WHERE u.username = :username")
+    Mono<User> findByUsernameWithRoles(String username);
+    
+    @Query(SELECT_WITH_ROLES + "WHERE u.email = :email")
+    Mono<User> findByEmailWithRoles(String email);
+    
+    @Query(SELECT_WITH_ROLES + "WHERE u.username = :login OR u.email = :login")
+    Mono<User> findByLoginWithRoles(String login);
+    
+    /**
+     * Refresh needs the user and its roles for the new access token, so both are fetched with the token.
+     */
+    @Query(SELECT_WITH_ROLES + "JOIN refresh_tokens rt ON rt.user_id = u.id " +
+           "WHERE rt.token = :token AND rt.is_revoked = FALSE AND rt.expiry_date > :now")
+    Mono<User> findByValidRefreshToken(String token, LocalDateTime now);
+    
+    Mono<Boolean> existsByUsername(String username);
+    
+    Mono<Boolean> existsByEmail(String email);
+    
+    @Query("SELECT password FROM users WHERE id = :id")
+    Mono<String> findPasswordById(Long id);
+    
+    /**
+     * Compare-and-set password change: a single UPDATE that only succeeds while the stored hash
+     * is still {@code currentPassword}, so a concurrent change or a reused reset token updates
+     * nothing. Emits the number of rows changed.
+     */
+    @Modifying
+    @Query("UPDATE users SET password = :newPassword, updated_at = :now, version = version + 1 " +
+           "WHERE id = :id AND password = :currentPassword")
+    Mono<Integer> updatePasswordIfUnchanged(Long id, String currentPassword, String newPassword, LocalDateTime now);
+    
+    @Query("SELECT username FROM users WHERE username IN (:usernames)")
+    Flux<String> findExistingUsernames(Collection<String> usernames);
+    
+    @Query("SELECT email FROM users WHERE email IN (:emails)")
+    Flux<String> findExistingEmails(Collection<String> emails);
+    
+    @Query("SELECT id FROM users WHERE id IN (:ids)")
+    Flux<Long> findExistingIds(Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE users SET is_enabled = :enabled, updated_at = :now, version = version + 1 WHERE id IN (:ids)")
+    Mono<Integer> updateEnabledByIds(Collection<Long> ids, boolean enabled, LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE users SET updated_at = :now, version = version + 1 WHERE id IN (:ids)")
+    Mono<Integer> touchByIds(Collection<Long> ids, LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM users WHERE id IN (:ids)")
+    Mono<Integer> deleteAllByIds(Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM user_roles WHERE user_id IN (:ids)")
+    Mono<Integer> deleteRolesByUserIds(Collection<Long> ids);
+    
+    @Modifying
+    @Query("INSERT INTO user_roles (user_id, role_id) " +
+           "SELECT u.id, r.id FROM users u CROSS JOIN roles r WHERE u.id IN (:ids) AND r.name IN (:roles)")
+    Mono<Integer> insertRolesByUserIds(Collection<Long> ids, Collection<String> roles);
+}
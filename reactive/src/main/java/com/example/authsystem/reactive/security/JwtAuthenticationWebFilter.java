@@ -0,0 +1,73 @@
+package com.example.authsystem.reactive.security;
+
+import com.example.authsystem.reactive.entity.User;
+import com.example.authsystem.reactive.repository.UserRepository;
+import com.example.authsystem.reactive.util.JwtUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Authenticates a request from its bearer token, like the servlet build's {@code AuthTokenFilter}: the
+ * signature and expiry are checked in place, then the user and its roles are loaded without blocking
+ * so that disabling a user or changing its roles takes effect on the next request. Anything that fails
+ * leaves the request anonymous; the authorization rules and the entry point answer it.
+ * <p>
+ * Not a bean: WebFlux would otherwise also run it outside the security chain.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationWebFilter.class);
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    private final JwtUtils jwtUtils;
+    
+    private final UserRepository userRepository;
+    
+    public JwtAuthenticationWebFilter(JwtUtils jwtUtils, UserRepository userRepository) {
+        this.jwtUtils = jwtUtils;
+        this.userRepository = userRepository;
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Optional<String> username = parseJwt(exchange).flatMap(jwtUtils::getValidUsername);
+        if (username.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        
+        return userRepository.findByUsernameWithRoles(username.get())
+                // Disabling a user takes effect immediately, not when their access token expires
+                .filter(User::isEnabled)
+                .map(user -> Optional.<Authentication>of(
+                        new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities())))
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    logger.warn("Authentication failed: username={}, reason=\"{}\"", username.get(), e.getMessage());
+                    return Mono.just(Optional.empty());
+                })
+                .flatMap(authentication -> authentication
+                        .map(value -> chain.filter(exchange)
+                                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(value)))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+    
+    private Optional<String> parseJwt(ServerWebExchange exchange) {
+        String headerAuth = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith(BEARER_PREFIX)) {
+            return Optional.of(headerAuth.substring(BEARER_PREFIX.length()));
+        }
+        return Optional.empty();
+    }
+}
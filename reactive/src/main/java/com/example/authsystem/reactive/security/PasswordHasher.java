@@ -0,0 +1,54 @@
+package com.example.authsystem.reactive.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * bcrypt on its own bounded scheduler.
+ * <p>
+ * A hash takes tens of milliseconds of CPU, so running it on an event loop thread would stall every
+ * other connection that thread serves. Here each hash is a task on a scheduler with at most
+ * {@code password-hashing.threads} workers (one per CPU by default: more threads than cores only
+ * queue inside the OS instead of here). Tasks beyond the workers wait in a queue of
+ * {@code password-hashing.queue-capacity}; once that is full the returned {@code Mono} fails with a
+ * {@link java.util.concurrent.RejectedExecutionException}, answered with 503 by the exception handler.
+ */
+@Component
+public class PasswordHasher implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+    
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    
+    private final Scheduler scheduler;
+    
+    public PasswordHasher(@Value("${password-hashing.threads:0}") int threads,
+                          @Value("${password-hashing.queue-capacity:10000}") int queueCapacity) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.scheduler = Schedulers.newBoundedElastic(workers, queueCapacity, "bcrypt");
+        logger.info("Password hashing scheduler created: threads={}, queueCapacity={}", workers, queueCapacity);
+    }
+    
+    public Mono<String> encode(CharSequence rawPassword) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(rawPassword))
+                .subscribeOn(scheduler);
+    }
+    
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return Mono.fromCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword))
+                .subscribeOn(scheduler);
+    }
+    
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
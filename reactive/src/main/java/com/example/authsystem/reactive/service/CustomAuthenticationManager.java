@@ -0,0 +1,59 @@
+package com.example.authsystem.reactive.service;
+
+import com.example.authsystem.reactive.repository.UserRepository;
+import com.example.authsystem.reactive.security.PasswordHasher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Username-or-email and password sign-in, with the servlet build's {@code CustomAuthenticationProvider}
+ * rules. The lookup is one statement for the user and its roles; the bcrypt comparison runs on the
+ * {@link PasswordHasher}'s scheduler, so the event loop is free while it does.
+ */
+@Component
+public class CustomAuthenticationManager implements ReactiveAuthenticationManager {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String usernameOrEmail = authentication.getName();
+        String password = authentication.getCredentials().toString();
+        
+        return userRepository.findByLoginWithRoles(usernameOrEmail)
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("Invalid username or password")))
+                .flatMap(user -> passwordHasher.matches(password, user.getPassword())
+                        .map(passwordMatches -> {
+                            if (!passwordMatches) {
+                                throw new BadCredentialsException("Invalid username or password");
+                            }
+                            
+                            if (!user.isEnabled()) {
+                                throw new BadCredentialsException("Account is disabled");
+                            }
+                            
+                            if (!user.isAccountNonLocked()) {
+                                throw new BadCredentialsException("Account is locked");
+                            }
+                            
+                            if (!user.isAccountNonExpired()) {
+                                throw new BadCredentialsException("Account has expired");
+                            }
+                            
+                            if (!user.isCredentialsNonExpired()) {
+                                throw new BadCredentialsException("Credentials have expired");
+                            }
+                            
+                            return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                        }));
+    }
+}
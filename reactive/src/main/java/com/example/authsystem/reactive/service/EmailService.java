@@ -0,0 +1,46 @@
+package com.example.authsystem.reactive.service;
+
+import com.example.authsystem.reactive.entity.EmailOutboxMessage;
+import com.example.authsystem.reactive.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Queues outgoing emails in the {@code email_outbox} table, with the servlet build's subjects and
+ * bodies. Delivery is not part of this build: point the servlet build's outbox worker at the same
+ * database to send them.
+ */
+@Service
+public class EmailService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+    
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    
+    public Mono<Void> sendPasswordResetEmail(String toEmail, String resetToken) {
+        return enqueue(toEmail, "Password Reset Request", buildPasswordResetEmailBody(resetToken))
+                // Development aid: the token is only visible when DEBUG is enabled for this logger
+                .doOnNext(message -> logger.debug("Password reset token queued: outboxId={}, to={}, token={}",
+                        message.getId(), toEmail, resetToken))
+                .then();
+    }
+    
+    private Mono<EmailOutboxMessage> enqueue(String toEmail, String subject, String body) {
+        return emailOutboxRepository.save(new EmailOutboxMessage(toEmail, subject, body))
+                .doOnNext(message -> logger.info("Email queued: outboxId={}, subject=\"{}\"", message.getId(), subject));
+    }
+    
+    private String buildPasswordResetEmailBody(String resetToken) {
+        return "Hello,\n\n" +
+               "You have requested to reset your password. Please use the following token to reset your password:\n\n" +
+               "Reset Token: " + resetToken + "\n\n" +
+               "This token will expire within 1 hour.\n\n" +
+               "If you did not request this password reset, please ignore this email.\n\n" +
+               "Best regards,\n" +
+               "Auth System Team";
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.authsystem.reactive.service;
+
+import com.example.authsystem.dto.response.TokenRefreshResponse;
+import com.example.authsystem.exception.TokenRefreshException;
+import com.example.authsystem.reactive.entity.RefreshToken;
+import com.example.authsystem.reactive.entity.User;
+import com.example.authsystem.reactive.repository.RefreshTokenRepository;
+import com.example.authsystem.reactive.repository.UserRepository;
+import com.example.authsystem.reactive.util.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+public class RefreshTokenService {
+    
+    @Value("${jwt.refresh-expiration}")
+    private Long refreshTokenDurationMs;
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    public Mono<RefreshToken> createRefreshToken(User user) {
+        RefreshToken refreshToken = new RefreshToken(UUID.randomUUID().toString(), user.getId(),
+                LocalDateTime.now().plusSeconds(refreshTokenDurationMs / 1000));
+        return refreshTokenRepository.save(refreshToken);
+    }
+    
+    /**
+     * Mints a new access token for a refresh token. The lookup already filters on expiry and
+     * revocation and brings the user's roles along, so it is the only statement.
+     */
+    public Mono<TokenRefreshResponse> refreshAccessToken(String requestToken) {
+        return userRepository.findByValidRefreshToken(requestToken, LocalDateTime.now())
+                .switchIfEmpty(Mono.error(() -> new TokenRefreshException(requestToken,
+                        "Refresh token is invalid, expired or revoked. Please make a new signin request")))
+                .map(user -> new TokenRefreshResponse(jwtUtils.generateToken(user), requestToken));
+    }
+    
+    public Mono<Void> deleteByToken(String token) {
+        return refreshTokenRepository.deleteByToken(token).then();
+    }
+}
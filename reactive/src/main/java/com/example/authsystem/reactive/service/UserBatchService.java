@@ -0,0 +1,136 @@
+package com.example.authsystem.reactive.service;
+
+import com.example.authsystem.dto.request.UserBatchRequest;
+import com.example.authsystem.dto.response.UserBatchResponse;
+import com.example.authsystem.exception.BadRequestException;
+import com.example.authsystem.reactive.entity.RoleName;
+import com.example.authsystem.reactive.repository.RefreshTokenRepository;
+import com.example.authsystem.reactive.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Set-based user mutations for many ids at once, as in the servlet build: a handful of
+ * {@code UPDATE}/{@code DELETE ... WHERE id IN (...)} statements per chunk of ids, all chunks in one
+ * transaction.
+ */
+@Service
+public class UserBatchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+    
+    @Value("${users.batch.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${users.batch.max-ids:10000}")
+    private int maxIds;
+    
+    public Mono<UserBatchResponse> apply(UserBatchRequest request) {
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+        ids.remove(null);
+        if (ids.size() > maxIds) {
+            return Mono.error(new BadRequestException("At most " + maxIds + " ids can be processed per request"));
+        }
+        
+        long startNanos = System.nanoTime();
+        Mono<Integer> affected;
+        try {
+            affected = switch (request.getAction()) {
+                case ENABLE -> setEnabled(ids, true);
+                case DISABLE -> setEnabled(ids, false);
+                case DELETE -> deleteUsers(ids);
+                case SET_ROLES -> setRoles(ids, resolveRoleNames(request.getRoles()));
+            };
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        
+        return affected.map(count -> {
+            logger.info("User batch applied: action={}, requested={}, affected={}, durationMs={}",
+                    request.getAction(), ids.size(), count, (System.nanoTime() - startNanos) / 1_000_000);
+            return new UserBatchResponse(request.getAction().name(), ids.size(), count);
+        });
+    }
+    
+    /**
+     * Deletes the users with their refresh tokens and role links. Emits the number of users deleted.
+     */
+    public Mono<Integer> deleteUsers(Collection<Long> ids) {
+        return forEachChunk(ids, chunk -> userRepository.findExistingIds(chunk)
+                .collectList()
+                .flatMap(existing -> existing.isEmpty()
+                        ? Mono.just(0)
+                        : refreshTokenRepository.deleteAllByUserIds(existing)
+                                .then(userRepository.deleteRolesByUserIds(existing))
+                                .then(userRepository.deleteAllByIds(existing))));
+    }
+    
+    private Mono<Integer> setEnabled(Collection<Long> ids, boolean enabled) {
+        LocalDateTime now = LocalDateTime.now();
+        return forEachChunk(ids, chunk -> userRepository.updateEnabledByIds(chunk, enabled, now)
+                // Disabled users must not be able to mint new access tokens
+                .flatMap(updated -> enabled
+                        ? Mono.just(updated)
+                        : refreshTokenRepository.revokeAllByUserIds(chunk).thenReturn(updated)));
+    }
+    
+    private Mono<Integer> setRoles(Collection<Long> ids, Set<String> roleNames) {
+        LocalDateTime now = LocalDateTime.now();
+        return forEachChunk(ids, chunk -> userRepository.touchByIds(chunk, now)
+                .flatMap(updated -> userRepository.deleteRolesByUserIds(chunk)
+                        .then(userRepository.insertRolesByUserIds(chunk, roleNames))
+                        .thenReturn(updated)));
+    }
+    
+    private Mono<Integer> forEachChunk(Collection<Long> ids, Function<List<Long>, Mono<Integer>> action) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += chunkSize) {
+            chunks.add(all.subList(from, Math.min(from + chunkSize, all.size())));
+        }
+        
+        // One chunk at a time: statements on a transaction's connection cannot overlap
+        return Flux.fromIterable(chunks)
+                .concatMap(action)
+                .reduce(0, Integer::sum)
+                .as(transactionalOperator::transactional);
+    }
+    
+    private Set<String> resolveRoleNames(Set<String> names) {
+        if (names == null || names.isEmpty()) {
+            throw new BadRequestException("roles is required for SET_ROLES");
+        }
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String name : names) {
+            try {
+                resolved.add(RoleName.parse(name).name());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown role: " + name);
+            }
+        }
+        return resolved;
+    }
+}
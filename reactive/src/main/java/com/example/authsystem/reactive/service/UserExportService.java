@@ -0,0 +1,128 @@
+package com.example.authsystem.reactive.service;
+
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.reactive.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams every user as NDJSON or CSV.
+ * <p>
+ * Rows come from the database as the response is written: the flux is pulled by the network
+ * writes, so a slow client slows the query down instead of piling rows up in memory. Rows are
+ * grouped into buffers of {@code users.export.rows-per-buffer} to keep the number of writes down.
+ */
+@Service
+public class UserExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+    
+    private static final String CSV_HEADER = "id,username,email,firstName,lastName,phoneNumber,roles,createdAt,updatedAt\n";
+    
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${users.export.rows-per-buffer:256}")
+    private int rowsPerBuffer;
+    
+    public Flux<DataBuffer> export(Format format, DataBufferFactory bufferFactory) {
+        ObjectWriter writer = objectMapper.writerFor(UserInfoResponse.class);
+        AtomicLong rows = new AtomicLong();
+        long startNanos = System.nanoTime();
+        
+        Flux<DataBuffer> body = userRepository.streamAllUserInfo()
+                .buffer(rowsPerBuffer)
+                .map(users -> {
+                    rows.addAndGet(users.size());
+                    String chunk = format == Format.NDJSON ? toNdjson(writer, users) : toCsv(users);
+                    return bufferFactory.wrap(chunk.getBytes(StandardCharsets.UTF_8));
+                });
+        if (format == Format.CSV) {
+            body = Flux.concat(Flux.defer(() -> Flux.just(bufferFactory.wrap(CSV_HEADER.getBytes(StandardCharsets.UTF_8)))),
+                    body);
+        }
+        return body.doOnComplete(() -> logger.info("User export completed: format={}, rows={}, durationMs={}",
+                format, rows.get(), (System.nanoTime() - startNanos) / 1_000_000));
+    }
+    
+    private String toNdjson(ObjectWriter writer, List<UserInfoResponse> users) {
+        StringBuilder chunk = new StringBuilder();
+        for (UserInfoResponse user : users) {
+            try {
+                chunk.append(writer.writeValueAsString(user)).append('\n');
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize user " + user.getId(), e);
+            }
+        }
+        return chunk.toString();
+    }
+    
+    private String toCsv(List<UserInfoResponse> users) {
+        StringBuilder chunk = new StringBuilder();
+        for (UserInfoResponse user : users) {
+            chunk.append(user.getId());
+            chunk.append(',');
+            appendCsvField(chunk, user.getUsername());
+            chunk.append(',');
+            appendCsvField(chunk, user.getEmail());
+            chunk.append(',');
+            appendCsvField(chunk, user.getFirstName());
+            chunk.append(',');
+            appendCsvField(chunk, user.getLastName());
+            chunk.append(',');
+            appendCsvField(chunk, user.getPhoneNumber());
+            chunk.append(',');
+            appendCsvField(chunk, user.getRoles() == null ? null : String.join(";", user.getRoles()));
+            chunk.append(',');
+            appendCsvField(chunk, format(user.getCreatedAt()));
+            chunk.append(',');
+            appendCsvField(chunk, format(user.getUpdatedAt()));
+            chunk.append('\n');
+        }
+        return chunk.toString();
+    }
+    
+    private void appendCsvField(StringBuilder chunk, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        
+        // Neutralise spreadsheet formulas in user-controlled fields
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            chunk.append('"').append(value.replace("\"", "\"\"")).append('"');
+        } else {
+            chunk.append(value);
+        }
+    }
+    
+    private String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toString();
+    }
+}
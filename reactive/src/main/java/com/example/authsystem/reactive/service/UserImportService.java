@@ -0,0 +1,400 @@
+package com.example.authsystem.reactive.service;
+
+import com.example.authsystem.dto.request.UserImportRecord;
+import com.example.authsystem.dto.response.UserImportResponse;
+import com.example.authsystem.exception.BadRequestException;
+import com.example.authsystem.reactive.entity.RoleName;
+import com.example.authsystem.reactive.entity.User;
+import com.example.authsystem.reactive.repository.UserRepository;
+import com.example.authsystem.reactive.security.PasswordHasher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk user import from a streamed NDJSON or CSV body, with the servlet build's row rules and report.
+ * <p>
+ * The body is decoded line by line as it arrives and processed in chunks: the plain-text passwords of
+ * a chunk are hashed concurrently on the {@link PasswordHasher}'s scheduler, then the chunk is inserted
+ * in its own transaction. The next chunk is not read until the previous one is committed, so a large
+ * upload is held back by the database instead of buffered. Bad rows are reported by line number and
+ * never abort the rest of the import.
+ */
+@Service
+public class UserImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    
+    private static final String BCRYPT_PREFIX = "{bcrypt}";
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+    
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+    
+    @Value("${users.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${users.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+    
+    public Mono<UserImportResponse> importUsers(Format format, Flux<DataBuffer> body) {
+        long startNanos = System.nanoTime();
+        ImportReport report = new ImportReport(maxReportedErrors);
+        ObjectReader ndjsonReader = objectMapper.readerFor(UserImportRecord.class);
+        AtomicLong lineNumber = new AtomicLong();
+        Map<String, Integer> csvColumns = new HashMap<>();
+        
+        // Lines are split and stripped of their delimiters by the decoder; only one is decoded at a time
+        Flux<String> lines = StringDecoder.allMimeTypes()
+                .decode(body, ResolvableType.forClass(String.class), null, null);
+        
+        return lines
+                .<PendingRow>handle((line, sink) -> {
+                    long number = lineNumber.incrementAndGet();
+                    if (line.isBlank()) {
+                        return;
+                    }
+                    if (format == Format.CSV && csvColumns.isEmpty()) {
+                        try {
+                            csvColumns.putAll(parseCsvHeader(line));
+                        } catch (BadRequestException e) {
+                            sink.error(e);
+                        }
+                        return;
+                    }
+                    sink.next(parseRow(number, line, format, ndjsonReader, csvColumns));
+                })
+                .buffer(chunkSize)
+                .concatMap(chunk -> processChunk(chunk, report))
+                .then(Mono.fromSupplier(() -> {
+                    logger.info("User import completed: format={}, imported={}, failed={}, durationMs={}",
+                            format, report.imported, report.failed, (System.nanoTime() - startNanos) / 1_000_000);
+                    return report.toResponse();
+                }));
+    }
+    
+    private PendingRow parseRow(long lineNumber, String line, Format format, ObjectReader ndjsonReader,
+                                Map<String, Integer> csvColumns) {
+        PendingRow row = new PendingRow(lineNumber);
+        try {
+            row.record = format == Format.CSV ? parseCsvRecord(line, csvColumns) : ndjsonReader.readValue(line);
+            if (row.record == null) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            row.roleNames = resolveRoles(row.record.getRoles());
+            validate(row.record);
+        } catch (JsonProcessingException e) {
+            row.error = "Malformed JSON: " + e.getOriginalMessage();
+        } catch (IllegalArgumentException e) {
+            row.error = e.getMessage();
+        }
+        return row;
+    }
+    
+    private Mono<Void> processChunk(List<PendingRow> chunk, ImportReport report) {
+        // bcrypt dominates import cost, so hash the whole chunk concurrently before opening a transaction
+        return Flux.fromIterable(chunk)
+                .filter(row -> row.error == null)
+                .flatMap(this::resolvePasswordHash)
+                .then(Mono.defer(() -> {
+                    List<PendingRow> valid = new ArrayList<>(chunk.size());
+                    for (PendingRow row : chunk) {
+                        if (row.error == null) {
+                            valid.add(row);
+                        } else {
+                            report.fail(row.line, row.error);
+                        }
+                    }
+                    return valid.isEmpty() ? Mono.empty() : persistOrRetry(valid, report);
+                }));
+    }
+    
+    private Mono<Void> persistOrRetry(List<PendingRow> valid, ImportReport report) {
+        return tryPersist(valid).flatMap(error -> {
+            if (error.isEmpty()) {
+                reportPersisted(valid, report);
+                return Mono.empty();
+            }
+            
+            // Usually one bad row (a value the database rejects, or a concurrent insert of the same
+            // username/email) rolled back the whole chunk; retry row by row to isolate it
+            logger.warn("User import chunk rolled back, retrying row by row: firstLine={}, rows={}, error=\"{}\"",
+                    valid.get(0).line, valid.size(), error);
+            return Flux.fromIterable(valid)
+                    .concatMap(row -> {
+                        row.error = null;
+                        return tryPersist(List.of(row)).doOnNext(rowError -> {
+                            if (!rowError.isEmpty()) {
+                                row.error = "Rejected by the database: " + rowError;
+                            }
+                            reportPersisted(List.of(row), report);
+                        });
+                    })
+                    .then();
+        });
+    }
+    
+    /**
+     * Inserts the rows in one transaction and emits an empty string, or the database's error message
+     * if the transaction was rolled back.
+     */
+    private Mono<String> tryPersist(List<PendingRow> rows) {
+        return persistChunk(rows)
+                .as(transactionalOperator::transactional)
+                .thenReturn("")
+                .onErrorResume(DataAccessException.class,
+                        e -> Mono.just(String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage())));
+    }
+    
+    private void reportPersisted(List<PendingRow> rows, ImportReport report) {
+        for (PendingRow row : rows) {
+            if (row.error == null) {
+                report.imported++;
+            } else {
+                report.fail(row.line, row.error);
+            }
+        }
+    }
+    
+    private Mono<Void> persistChunk(List<PendingRow> rows) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (PendingRow row : rows) {
+            usernames.add(row.record.getUsername());
+            emails.add(row.record.getEmail());
+        }
+        
+        return Mono.zip(userRepository.findExistingUsernames(usernames).collect(HashSet<String>::new, Set::add),
+                        userRepository.findExistingEmails(emails).collect(HashSet<String>::new, Set::add))
+                .flatMapMany(existing -> {
+                    List<PendingRow> inserts = new ArrayList<>(rows.size());
+                    for (PendingRow row : rows) {
+                        if (!existing.getT1().add(row.record.getUsername())) {
+                            row.error = "Username is already taken!";
+                        } else if (!existing.getT2().add(row.record.getEmail())) {
+                            row.error = "Email is already in use!";
+                        } else {
+                            inserts.add(row);
+                        }
+                    }
+                    return Flux.fromIterable(inserts);
+                })
+                .concatMap(row -> {
+                    UserImportRecord record = row.record;
+                    User user = new User(record.getUsername(), record.getEmail(), row.passwordHash);
+                    user.setFirstName(record.getFirstName());
+                    user.setLastName(record.getLastName());
+                    user.setPhoneNumber(record.getPhoneNumber());
+                    return userRepository.save(user).map(saved -> Map.entry(saved.getId(), row.roleNames));
+                })
+                // Role links go in with one statement per distinct role set rather than one per user
+                .collect(LinkedHashMap<Set<String>, List<Long>>::new,
+                        (idsByRoles, entry) -> idsByRoles.computeIfAbsent(entry.getValue(), roles -> new ArrayList<>())
+                                .add(entry.getKey()))
+                .flatMapMany(idsByRoles -> Flux.fromIterable(idsByRoles.entrySet()))
+                .concatMap(entry -> userRepository.insertRolesByUserIds(entry.getValue(), entry.getKey()))
+                .then();
+    }
+    
+    private Mono<Void> resolvePasswordHash(PendingRow row) {
+        String password = row.record.getPassword();
+        
+        if (password.startsWith("{")) {
+            if (!password.startsWith(BCRYPT_PREFIX)) {
+                row.error = "Unsupported password encoder; only {bcrypt} hashes can be imported";
+                return Mono.empty();
+            }
+            String hash = password.substring(BCRYPT_PREFIX.length());
+            if (!BCRYPT_HASH.matcher(hash).matches()) {
+                row.error = "Malformed bcrypt hash";
+                return Mono.empty();
+            }
+            row.passwordHash = hash;
+            return Mono.empty();
+        }
+        
+        if (password.length() < 6 || password.length() > 40) {
+            row.error = "password: size must be between 6 and 40";
+            return Mono.empty();
+        }
+        return passwordHasher.encode(password)
+                .doOnNext(hash -> row.passwordHash = hash)
+                .then();
+    }
+    
+    private void validate(UserImportRecord record) {
+        Set<ConstraintViolation<UserImportRecord>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserImportRecord> violation = violations.iterator().next();
+            throw new IllegalArgumentException(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+    }
+    
+    private Set<String> resolveRoles(Set<String> names) {
+        if (names == null || names.isEmpty()) {
+            return Set.of(RoleName.ROLE_USER.name());
+        }
+        
+        // Sorted, so rows naming the same roles share one role-link statement
+        Set<String> resolved = new TreeSet<>();
+        for (String name : names) {
+            try {
+                resolved.add(RoleName.parse(name).name());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown role: " + name);
+            }
+        }
+        return resolved;
+    }
+    
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> columns = parseCsvLine(line);
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            indexes.put(columns.get(i).trim(), i);
+        }
+        if (!indexes.containsKey("username") || !indexes.containsKey("email") || !indexes.containsKey("password")) {
+            throw new BadRequestException("CSV header must contain username, email and password columns");
+        }
+        return indexes;
+    }
+    
+    private UserImportRecord parseCsvRecord(String line, Map<String, Integer> columns) {
+        List<String> values = parseCsvLine(line);
+        
+        UserImportRecord record = new UserImportRecord();
+        record.setUsername(csvValue(values, columns, "username"));
+        record.setEmail(csvValue(values, columns, "email"));
+        record.setPassword(csvValue(values, columns, "password"));
+        record.setFirstName(csvValue(values, columns, "firstName"));
+        record.setLastName(csvValue(values, columns, "lastName"));
+        record.setPhoneNumber(csvValue(values, columns, "phoneNumber"));
+        
+        String roles = csvValue(values, columns, "roles");
+        if (roles != null) {
+            record.setRoles(new HashSet<>(Arrays.asList(roles.split(";"))));
+        }
+        return record;
+    }
+    
+    private String csvValue(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+    
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted CSV field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+    
+    private static class PendingRow {
+        private final long line;
+        private UserImportRecord record;
+        private Set<String> roleNames;
+        private volatile String passwordHash;
+        private volatile String error;
+        
+        PendingRow(long line) {
+            this.line = line;
+        }
+    }
+    
+    private static class ImportReport {
+        private final int maxErrors;
+        private final List<UserImportResponse.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+        
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+        
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportResponse.RowError(line, message));
+            }
+        }
+        
+        UserImportResponse toResponse() {
+            errors.sort(Comparator.comparingLong(UserImportResponse.RowError::getLine));
+            return new UserImportResponse(imported, failed, errors, failed > errors.size());
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.authsystem.reactive.service;
+
+import com.example.authsystem.dto.request.SignUpRequest;
+import com.example.authsystem.dto.request.UpdateUserRequest;
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.dto.response.UserPageResponse;
+import com.example.authsystem.dto.response.UserSearchResponse;
+import com.example.authsystem.exception.BadRequestException;
+import com.example.authsystem.exception.ResourceNotFoundException;
+import com.example.authsystem.exception.UserAlreadyExistsException;
+import com.example.authsystem.exception.VersionConflictException;
+import com.example.authsystem.reactive.entity.RoleName;
+import com.example.authsystem.reactive.entity.User;
+import com.example.authsystem.reactive.repository.UserRepository;
+import com.example.authsystem.reactive.security.PasswordHasher;
+import com.example.authsystem.service.PasswordResetThrottle;
+import com.example.authsystem.util.PasswordResetTokenUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The servlet build's {@code UserService} without blocking. Transactions are demarcated with the
+ * {@link TransactionalOperator} and never span a bcrypt hash: passwords are hashed on the
+ * {@link PasswordHasher}'s scheduler first, and only then is a connection taken.
+ */
+@Service
+public class UserService {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordHasher passwordHasher;
+    
+    @Autowired
+    private EmailService emailService;
+    
+    @Autowired
+    private PasswordResetThrottle passwordResetThrottle;
+    
+    @Autowired
+    private PasswordResetTokenUtils passwordResetTokenUtils;
+    
+    @Autowired
+    private UserBatchService userBatchService;
+    
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+    
+    @Value("${users.search.max-size:100}")
+    private int maxSearchSize;
+    
+    @Value("${users.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${users.page.max-size:500}")
+    private int maxPageSize;
+    
+    public Mono<User> createUser(SignUpRequest signUpRequest) {
+        // Duplicates are turned away before paying for a hash; the unique constraints catch any race after it
+        return ensureAvailable(signUpRequest.getUsername(), signUpRequest.getEmail())
+                .then(passwordHasher.encode(signUpRequest.getPassword()))
+                .flatMap(passwordHash -> {
+                    User user = new User(signUpRequest.getUsername(), signUpRequest.getEmail(), passwordHash);
+                    user.setFirstName(signUpRequest.getFirstName());
+                    user.setLastName(signUpRequest.getLastName());
+                    user.setPhoneNumber(signUpRequest.getPhoneNumber());
+                    
+                    // Set default role
+                    return userRepository.save(user)
+                            .flatMap(saved -> userRepository.insertRolesByUserIds(List.of(saved.getId()),
+                                            List.of(RoleName.ROLE_USER.name()))
+                                    .thenReturn(saved))
+                            .as(transactionalOperator::transactional);
+                })
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new UserAlreadyExistsException("Username or email is already in use!"));
+    }
+    
+    private Mono<Void> ensureAvailable(String username, String email) {
+        return userRepository.existsByUsername(username)
+                .flatMap(usernameTaken -> usernameTaken
+                        ? Mono.error(new UserAlreadyExistsException("Username is already taken!"))
+                        : userRepository.existsByEmail(email))
+                .flatMap(emailTaken -> emailTaken
+                        ? Mono.error(new UserAlreadyExistsException("Email is already in use!"))
+                        : Mono.empty());
+    }
+    
+    public Mono<User> getUserById(Long id) {
+        return userRepository.findByIdWithRoles(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with id: " + id)));
+    }
+    
+    public Mono<UserPageResponse> getUsersPage(String cursor, Integer size, RoleName role, Boolean enabled,
+                                               LocalDateTime createdFrom, LocalDateTime createdTo) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        long after;
+        try {
+            after = decodeCursor(cursor);
+        } catch (BadRequestException e) {
+            return Mono.error(e);
+        }
+        
+        // Fetch one extra row to find out whether another page exists without a count query
+        return userRepository.findUserPage(after, role, enabled, createdFrom, createdTo, pageSize + 1)
+                .collectList()
+                .map(users -> {
+                    String nextCursor = null;
+                    if (users.size() > pageSize) {
+                        users = users.subList(0, pageSize);
+                        nextCursor = encodeCursor(users.get(pageSize - 1).getId());
+                    }
+                    return new UserPageResponse(users, nextCursor);
+                });
+    }
+    
+    /**
+     * Prefix search in SQL. Matches whole field prefixes only; the servlet build's in-memory index
+     * also matches the words inside a field, such as the domain of an email address.
+     */
+    public Mono<UserSearchResponse> searchUsers(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxSearchSize));
+        int pageNumber = Math.max(0, page);
+        
+        List<String> terms = new ArrayList<>();
+        for (String term : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        if (terms.isEmpty()) {
+            return Mono.just(new UserSearchResponse(List.of(), 0, pageNumber, pageSize, false));
+        }
+        
+        return userRepository.countSearchMatches(terms)
+                .flatMap(total -> total == 0
+                        ? Mono.just(new UserSearchResponse(List.of(), 0, pageNumber, pageSize, false))
+                        : userRepository.searchUsers(terms, pageNumber * pageSize, pageSize)
+                                .collectList()
+                                .map(users -> new UserSearchResponse(users, total, pageNumber, pageSize, false)));
+    }
+    
+    public Mono<User> updateUser(Long id, UpdateUserRequest updateRequest) {
+        return getUserById(id)
+                .flatMap(user -> {
+                    // Lost-update check across requests; the version in the UPDATE's WHERE clause covers concurrent ones
+                    if (updateRequest.getVersion() != null && !updateRequest.getVersion().equals(user.getVersion())) {
+                        return Mono.error(new VersionConflictException(
+                                "User was modified by another request. Reload it and try again."));
+                    }
+                    
+                    if (updateRequest.getFirstName() != null) {
+                        user.setFirstName(updateRequest.getFirstName());
+                    }
+                    if (updateRequest.getLastName() != null) {
+                        user.setLastName(updateRequest.getLastName());
+                    }
+                    if (updateRequest.getPhoneNumber() != null) {
+                        user.setPhoneNumber(updateRequest.getPhoneNumber());
+                    }
+                    if (updateRequest.getEmail() == null || updateRequest.getEmail().equals(user.getEmail())) {
+                        return userRepository.save(user);
+                    }
+                    return userRepository.existsByEmail(updateRequest.getEmail())
+                            .flatMap(emailTaken -> {
+                                if (emailTaken) {
+                                    return Mono.error(new UserAlreadyExistsException("Email is already in use!"));
+                                }
+                                user.setEmail(updateRequest.getEmail());
+                                return userRepository.save(user);
+                            });
+                })
+                .onErrorMap(DuplicateKeyException.class, e -> new UserAlreadyExistsException("Email is already in use!"))
+                .as(transactionalOperator::transactional);
+    }
+    
+    public Mono<Void> deleteUser(Long id) {
+        // Set-based: refresh tokens and role links are removed with one statement each
+        return userBatchService.deleteUsers(List.of(id))
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(new ResourceNotFoundException("User not found with id: " + id))
+                        : Mono.empty());
+    }
+    
+    public Mono<Void> generatePasswordResetToken(String email) {
+        // Repeated requests for one address inside the throttle window are dropped before touching the DB
+        if (!passwordResetThrottle.tryAcquire(email)) {
+            return Mono.empty();
+        }
+        
+        // Fix user enumeration - always complete without revealing if email exists
+        return userRepository.findByEmailWithRoles(email)
+                // Tokens are self-contained and signed, so nothing is written to the users table
+                .flatMap(user -> emailService.sendPasswordResetEmail(user.getEmail(),
+                        passwordResetTokenUtils.generateToken(user.getId(), user.getPassword())))
+                // The slot only counts once the reset email is in the outbox
+                .doOnError(e -> passwordResetThrottle.release(email))
+                .doOnCancel(() -> passwordResetThrottle.release(email));
+    }
+    
+    public Mono<Void> resetPassword(String token, String newPassword) {
+        Long userId = passwordResetTokenUtils.getValidUserId(token).orElse(null);
+        if (userId == null) {
+            return Mono.error(new ResourceNotFoundException("Invalid or expired password reset token"));
+        }
+        
+        // Only the hash is read; the user is never loaded
+        return userRepository.findPasswordById(userId)
+                .filter(hash -> passwordResetTokenUtils.isBoundToPassword(token, hash))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Invalid or expired password reset token")))
+                .flatMap(currentHash -> passwordHasher.encode(newPassword)
+                        // Changing the hash also invalidates the token that was just used. The conditional
+                        // UPDATE makes that atomic: of two concurrent resets with one token, only the first matches.
+                        .flatMap(newHash -> userRepository.updatePasswordIfUnchanged(userId, currentHash, newHash,
+                                LocalDateTime.now())))
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new ResourceNotFoundException("Invalid or expired password reset token"))
+                        : Mono.empty());
+    }
+    
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("u:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("u:")) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(2));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+    
+    public UserInfoResponse convertToUserInfoResponse(User user) {
+        UserInfoResponse response = new UserInfoResponse(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getFirstName(),
+                user.getLastName(),
+                user.getPhoneNumber(),
+                user.getRoles(),
+                user.getCreatedAt(),
+                user.getUpdatedAt()
+        );
+        response.setVersion(user.getVersion());
+        return response;
+    }
+}
@@ -0,0 +1,59 @@
+-- The tables of the servlet build as Hibernate generates them, minus the shard directory. User ids come
+-- from an identity column here: rows are inserted one at a time, so a pooled sequence buys nothing.
+CREATE TABLE IF NOT EXISTS roles (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(20) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(20) NOT NULL UNIQUE,
+    email VARCHAR(50) NOT NULL UNIQUE,
+    password VARCHAR(120) NOT NULL,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    phone_number VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    version BIGINT NOT NULL,
+    is_enabled BOOLEAN,
+    is_account_non_expired BOOLEAN,
+    is_account_non_locked BOOLEAN,
+    is_credentials_non_expired BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    role_id BIGINT NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (role_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_roles_user ON user_roles (user_id);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token VARCHAR(255) NOT NULL UNIQUE,
+    expiry_date TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6),
+    is_revoked BOOLEAN,
+    user_id BIGINT NOT NULL REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body CLOB NOT NULL,
+    status VARCHAR(10) NOT NULL,
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    claimed_by VARCHAR(36),
+    claimed_until TIMESTAMP(6),
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6),
+    sent_at TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt_at);
+
+MERGE INTO roles (name) KEY (name) VALUES ('ROLE_USER'), ('ROLE_ADMIN');
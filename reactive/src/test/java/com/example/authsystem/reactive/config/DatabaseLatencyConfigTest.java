@@ -0,0 +1,33 @@
+package com.example.authsystem.reactive.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.r2dbc.url=r2dbc:h2:mem:///latencytest;DB_CLOSE_DELAY=-1",
+        "datasource.latency.enabled=true", "datasource.latency.round-trip-ms=100"})
+class DatabaseLatencyConfigTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Test
+    void statementsAndCommitsEachTakeARoundTrip() {
+        long start = System.nanoTime();
+        databaseClient.sql("SELECT 1").fetch().one()
+                .then(databaseClient.sql("SELECT 2").fetch().one())
+                .as(transactionalOperator::transactional)
+                .block();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Two statements and the commit
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(300);
+    }
+}
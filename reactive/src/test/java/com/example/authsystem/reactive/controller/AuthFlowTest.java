@@ -0,0 +1,204 @@
+package com.example.authsystem.reactive.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The servlet build's /auth contract and error shapes, over HTTP against the WebFlux build.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.r2dbc.url=r2dbc:h2:mem:///authflowtest;DB_CLOSE_DELAY=-1")
+class AuthFlowTest {
+
+    private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void signUpSignInRefreshAndSignOut() throws Exception {
+        post("/auth/signup", "{\"username\":\"flow\",\"email\":\"flow@example.com\",\"password\":\"secret123\"}")
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.message").isEqualTo("User registered successfully!");
+        post("/auth/signup", "{\"username\":\"flow\",\"email\":\"other@example.com\",\"password\":\"secret123\"}")
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.message").isEqualTo("Username is already taken!");
+
+        JsonNode signIn = signIn("flow@example.com", "secret123");
+        assertThat(signIn.get("tokenType").asText()).isEqualTo("Bearer");
+        assertThat(signIn.get("roles").toString()).isEqualTo("[\"ROLE_USER\"]");
+        String refreshToken = signIn.get("refreshToken").asText();
+
+        get("/users/me", signIn.get("accessToken").asText())
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.username").isEqualTo("flow")
+                .jsonPath("$.version").isEqualTo(0);
+
+        JsonNode refreshed = json(post("/auth/refreshtoken", "{\"refreshToken\":\"" + refreshToken + "\"}")
+                .expectStatus().isOk());
+        // The refresh token is not rotated
+        assertThat(refreshed.get("refreshToken").asText()).isEqualTo(refreshToken);
+        get("/users/me", refreshed.get("accessToken").asText()).expectStatus().isOk();
+
+        post("/auth/signout", "{\"refreshToken\":\"" + refreshToken + "\"}").expectStatus().isOk();
+        post("/auth/refreshtoken", "{\"refreshToken\":\"" + refreshToken + "\"}").expectStatus().isForbidden();
+    }
+
+    @Test
+    void errorShapesMatchTheServletBuild() throws Exception {
+        JsonNode badLogin = json(post("/auth/signin", "{\"usernameOrEmail\":\"admin\",\"password\":\"wrong\"}")
+                .expectStatus().isUnauthorized());
+        assertThat(badLogin.get("message").asText()).isEqualTo("Invalid username or password");
+        assertThat(badLogin.get("path").asText()).isEqualTo("/api/auth/signin");
+
+        JsonNode missingToken = json(get("/users/me", null).expectStatus().isUnauthorized());
+        assertThat(missingToken.get("message").asText())
+                .isEqualTo("Full authentication is required to access this resource");
+        assertThat(missingToken.get("path").asText()).isEqualTo("/users/me");
+        assertThat(missingToken.get("timestamp").isIntegralNumber()).isTrue();
+
+        String user = signIn("user", "user123").get("accessToken").asText();
+        JsonNode denied = json(get("/users", user).expectStatus().isForbidden());
+        assertThat(denied.get("message").asText()).isEqualTo("Access is denied");
+        assertThat(denied.get("path").asText()).isEqualTo("/api/users");
+
+        String admin = signIn("admin", "admin123").get("accessToken").asText();
+        JsonNode notFound = json(get("/users/999999", admin).expectStatus().isNotFound());
+        assertThat(notFound.get("path").asText()).isEqualTo("uri=/api/users/999999");
+
+        JsonNode invalid = json(post("/auth/signup", "{\"username\":\"x\"}").expectStatus().isBadRequest());
+        assertThat(invalid.has("username")).isTrue();
+        assertThat(invalid.has("email")).isTrue();
+    }
+
+    @Test
+    void authEndpointsAreRateLimitedPerClient() {
+        String client = nextClient();
+        for (int i = 0; i < 10; i++) {
+            webTestClient.get().uri("/auth/unknown").header("X-Forwarded-For", client)
+                    .exchange().expectStatus().value(status -> assertThat(status).isNotEqualTo(429));
+        }
+        webTestClient.get().uri("/auth/unknown").header("X-Forwarded-For", client)
+                .exchange()
+                .expectStatus().isEqualTo(429)
+                .expectBody().jsonPath("$.message").isEqualTo("Too many requests. Please try again later.");
+
+        // Other clients and other paths are unaffected
+        webTestClient.get().uri("/auth/unknown").header("X-Forwarded-For", nextClient())
+                .exchange().expectStatus().value(status -> assertThat(status).isNotEqualTo(429));
+        webTestClient.get().uri("/test/public").header("X-Forwarded-For", client)
+                .exchange().expectStatus().isOk();
+    }
+
+    @Test
+    void passwordResetThroughTheOutbox() throws Exception {
+        post("/auth/signup", "{\"username\":\"reset\",\"email\":\"reset@example.com\",\"password\":\"secret123\"}")
+                .expectStatus().isOk();
+
+        webTestClient.post().uri("/auth/forgot-password")
+                .header("X-Forwarded-For", nextClient())
+                .body(BodyInserters.fromFormData("email", "reset@example.com"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.message").isEqualTo("Password reset email sent!");
+        // Unknown addresses get the same answer
+        webTestClient.post().uri("/auth/forgot-password?email=nobody@example.com")
+                .header("X-Forwarded-For", nextClient())
+                .exchange()
+                .expectStatus().isOk();
+
+        String token = resetToken("reset@example.com");
+        String reset = "{\"token\":\"" + token + "\",\"newPassword\":\"secret456\"}";
+        post("/auth/reset-password", reset).expectStatus().isOk();
+        // Changing the password invalidated the token
+        post("/auth/reset-password", reset).expectStatus().isNotFound();
+
+        signIn("reset", "secret456");
+        post("/auth/signin", "{\"usernameOrEmail\":\"reset\",\"password\":\"secret123\"}")
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void binaryFormatsAreNegotiated() throws Exception {
+        String user = signIn("user", "user123").get("accessToken").asText();
+
+        byte[] cbor = webTestClient.get().uri("/users/me")
+                .header("X-Forwarded-For", nextClient())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + user)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody().returnResult().getResponseBody();
+        assertThat(new CBORMapper().readTree(cbor).get("username").asText()).isEqualTo("user");
+
+        // A wildcard Accept header keeps getting JSON
+        webTestClient.get().uri("/users/me")
+                .header("X-Forwarded-For", nextClient())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + user)
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+    }
+
+    private String resetToken(String email) {
+        String body = databaseClient.sql("SELECT CAST(body AS VARCHAR) AS body FROM email_outbox " +
+                        "WHERE recipient = :recipient ORDER BY id DESC LIMIT 1")
+                .bind("recipient", email)
+                .map(row -> row.get("body", String.class))
+                .one()
+                .block();
+        assertThat(body).contains("Reset Token: ");
+        return body.substring(body.indexOf("Reset Token: ") + "Reset Token: ".length()).lines().findFirst().orElseThrow();
+    }
+
+    private JsonNode signIn(String usernameOrEmail, String password) throws Exception {
+        return json(post("/auth/signin",
+                "{\"usernameOrEmail\":\"" + usernameOrEmail + "\",\"password\":\"" + password + "\"}")
+                .expectStatus().isOk());
+    }
+
+    private WebTestClient.ResponseSpec post(String uri, String json) {
+        return webTestClient.post().uri(uri)
+                .header("X-Forwarded-For", nextClient())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec get(String uri, String accessToken) {
+        WebTestClient.RequestHeadersSpec<?> request = webTestClient.get().uri(uri).header("X-Forwarded-For", nextClient());
+        if (accessToken != null) {
+            request = request.header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
+        }
+        return request.exchange();
+    }
+
+    private JsonNode json(WebTestClient.ResponseSpec response) throws Exception {
+        return objectMapper.readTree(response.expectBody().returnResult().getResponseBody());
+    }
+
+    private static String nextClient() {
+        return "10.70." + (CLIENTS.get() / 250) + "." + (CLIENTS.incrementAndGet() % 250 + 1);
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.authsystem.reactive.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The admin side of /users against R2DBC and H2: keyset pages, search, streaming import and
+ * export, and the set-based batch actions.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.r2dbc.url=r2dbc:h2:mem:///usermanagementtest;DB_CLOSE_DELAY=-1",
+                "users.import.chunk-size=3", "users.batch.chunk-size=2", "users.export.rows-per-buffer=2"})
+class UserManagementTest {
+
+    private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String admin;
+
+    @BeforeEach
+    void signInAdmin() throws Exception {
+        admin = objectMapper.readTree(webTestClient.post().uri("/auth/signin")
+                        .header("X-Forwarded-For", nextClient())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue("{\"usernameOrEmail\":\"admin\",\"password\":\"admin123\"}")
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBody().returnResult().getResponseBody())
+                .get("accessToken").asText();
+    }
+
+    @Test
+    void importReportsBadRowsAndCommitsTheRest() throws Exception {
+        String ndjson = """
+                {"username":"imp_a","email":"imp_a@example.com","password":"secret123","roles":["admin"]}
+                {"username":"imp_b","email":"imp_b@example.com","password":"short"}
+                not json
+
+                {"username":"imp_c","email":"imp_c@example.com","password":"{bcrypt}$2a$10$abcdefghijklmnopqrstuuJq3mQ4u9Kq4q1mK0n8eYQ0e7b9m2Y6e"}
+                {"username":"imp_a","email":"imp_d@example.com","password":"secret123"}
+                {"username":"imp_e","email":"imp_e@example.com","password":"secret123","roles":["owner"]}
+                """;
+        JsonNode report = importUsers("application/x-ndjson", ndjson);
+
+        assertThat(report.get("imported").asLong()).isEqualTo(2);
+        assertThat(report.get("failed").asLong()).isEqualTo(4);
+        assertThat(report.get("errors").findValues("line").stream().map(JsonNode::asLong).toList())
+                .containsExactly(2L, 3L, 6L, 7L);
+        assertThat(report.get("errors").get(2).get("message").asText()).isEqualTo("Username is already taken!");
+        assertThat(report.get("errors").get(3).get("message").asText()).isEqualTo("Unknown role: owner");
+
+        JsonNode imported = json(get("/users/search?q=imp_a").expectStatus().isOk());
+        assertThat(imported.get("users").get(0).get("roles").toString()).isEqualTo("[\"ROLE_ADMIN\"]");
+
+        JsonNode csv = importUsers("text/csv", "email,username,password\ncsv_a@example.com,csv_a,secret123\n");
+        assertThat(csv.get("imported").asLong()).isEqualTo(1);
+        webTestClient.post().uri("/users/import")
+                .header("X-Forwarded-For", nextClient())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .bodyValue("name,mail\nx,y\n")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void pagesFollowTheCursorToTheEnd() throws Exception {
+        importUsers("application/x-ndjson", ndjsonUsers("page_", 5));
+
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = json(get("/users?size=2" + (cursor == null ? "" : "&cursor=" + cursor)).expectStatus().isOk());
+            page.get("users").forEach(user -> usernames.add(user.get("username").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null && pages < 100);
+
+        long total = databaseClient.sql("SELECT COUNT(*) AS total FROM users")
+                .map(row -> row.get("total", Long.class)).one().block();
+        assertThat(usernames).hasSize((int) total).doesNotHaveDuplicates().contains("page_0", "page_4");
+
+        get("/users?cursor=not-a-cursor").expectStatus().isBadRequest();
+        JsonNode admins = json(get("/users?role=ROLE_ADMIN").expectStatus().isOk());
+        assertThat(admins.get("users").findValues("username").stream().map(JsonNode::asText).toList())
+                .contains("admin").doesNotContain("user");
+    }
+
+    @Test
+    void exportStreamsEveryUser() throws Exception {
+        importUsers("application/x-ndjson", ndjsonUsers("export_", 3)
+                + "{\"username\":\"export_f\",\"email\":\"export_f@example.com\",\"password\":\"secret123\",\"firstName\":\"=1+1\"}\n");
+        long total = databaseClient.sql("SELECT COUNT(*) AS total FROM users")
+                .map(row -> row.get("total", Long.class)).one().block();
+
+        String ndjson = body(get("/users/export").expectStatus().isOk()
+                .expectHeader().contentType("application/x-ndjson;charset=UTF-8"));
+        assertThat(ndjson.lines()).hasSize((int) total);
+        for (String line : ndjson.lines().toList()) {
+            assertThat(objectMapper.readTree(line).has("username")).isTrue();
+        }
+
+        String csv = body(get("/users/export?format=CSV").expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\""));
+        assertThat(csv.lines().findFirst().orElseThrow())
+                .isEqualTo("id,username,email,firstName,lastName,phoneNumber,roles,createdAt,updatedAt");
+        assertThat(csv.lines()).hasSize((int) total + 1);
+        assertThat(csv).contains(",export_f,export_f@example.com,'=1+1,");
+    }
+
+    @Test
+    void batchActionsApplyAcrossChunks() throws Exception {
+        importUsers("application/x-ndjson", ndjsonUsers("batch_", 5));
+        List<Long> ids = databaseClient.sql("SELECT id FROM users WHERE username LIKE 'batch\\_%' ORDER BY id")
+                .map(row -> row.get("id", Long.class)).all().collectList().block();
+        String idList = ids.toString().replace(" ", "");
+
+        JsonNode disabled = json(batch("{\"action\":\"DISABLE\",\"ids\":" + idList + "}").expectStatus().isOk());
+        assertThat(disabled.get("affected").asInt()).isEqualTo(5);
+        webTestClient.post().uri("/auth/signin")
+                .header("X-Forwarded-For", nextClient())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"usernameOrEmail\":\"batch_0\",\"password\":\"secret123\"}")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        batch("{\"action\":\"ENABLE\",\"ids\":" + idList + "}").expectStatus().isOk();
+        JsonNode roles = json(batch("{\"action\":\"SET_ROLES\",\"ids\":" + idList + ",\"roles\":[\"admin\",\"user\"]}")
+                .expectStatus().isOk());
+        assertThat(roles.get("affected").asInt()).isEqualTo(5);
+        JsonNode user = json(get("/users/" + ids.get(4)).expectStatus().isOk());
+        assertThat(user.get("roles").toString()).contains("ROLE_ADMIN").contains("ROLE_USER");
+        batch("{\"action\":\"SET_ROLES\",\"ids\":" + idList + ",\"roles\":[\"owner\"]}").expectStatus().isBadRequest();
+
+        JsonNode deleted = json(batch("{\"action\":\"DELETE\",\"ids\":" + idList.replace("]", ",999999]") + "}")
+                .expectStatus().isOk());
+        assertThat(deleted.get("requested").asInt()).isEqualTo(6);
+        assertThat(deleted.get("affected").asInt()).isEqualTo(5);
+        long links = databaseClient.sql("SELECT COUNT(*) AS links FROM user_roles WHERE user_id IN (:ids)")
+                .bind("ids", ids)
+                .map(row -> row.get("links", Long.class)).one().block();
+        assertThat(links).isZero();
+        get("/users/" + ids.get(0)).expectStatus().isNotFound();
+    }
+
+    @Test
+    void updateChecksTheVersion() throws Exception {
+        importUsers("application/x-ndjson", ndjsonUsers("update_", 1));
+        long id = databaseClient.sql("SELECT id FROM users WHERE username = 'update_0'")
+                .map(row -> row.get("id", Long.class)).one().block();
+
+        JsonNode before = json(get("/users/" + id).expectStatus().isOk());
+        JsonNode after = json(put("/users/" + id, "{\"firstName\":\"Updated\",\"version\":" + before.get("version") + "}")
+                .expectStatus().isOk());
+        assertThat(after.get("firstName").asText()).isEqualTo("Updated");
+        assertThat(after.get("version").asLong()).isEqualTo(before.get("version").asLong() + 1);
+
+        put("/users/" + id, "{\"firstName\":\"Stale\",\"version\":" + before.get("version") + "}")
+                .expectStatus().isEqualTo(409);
+        put("/users/" + id, "{\"email\":\"admin@example.com\"}")
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.message").isEqualTo("Email is already in use!");
+    }
+
+    private JsonNode importUsers(String contentType, String body) throws Exception {
+        return json(webTestClient.post().uri("/users/import")
+                .header("X-Forwarded-For", nextClient())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .contentType(MediaType.parseMediaType(contentType))
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk());
+    }
+
+    private static String ndjsonUsers(String prefix, int count) {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ndjson.append("{\"username\":\"").append(prefix).append(i).append("\",\"email\":\"")
+                    .append(prefix).append(i).append("@example.com\",\"password\":\"secret123\"}\n");
+        }
+        return ndjson.toString();
+    }
+
+    private WebTestClient.ResponseSpec batch(String json) {
+        return webTestClient.post().uri("/users/batch")
+                .header("X-Forwarded-For", nextClient())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec put(String uri, String json) {
+        return webTestClient.put().uri(uri)
+                .header("X-Forwarded-For", nextClient())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(json)
+                .exchange();
+    }
+
+    private WebTestClient.ResponseSpec get(String uri) {
+        return webTestClient.get().uri(uri)
+                .header("X-Forwarded-For", nextClient())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + admin)
+                .exchange();
+    }
+
+    private JsonNode json(WebTestClient.ResponseSpec response) throws Exception {
+        return objectMapper.readTree(response.expectBody().returnResult().getResponseBody());
+    }
+
+    private static String body(WebTestClient.ResponseSpec response) {
+        return new String(response.expectBody().returnResult().getResponseBody(), StandardCharsets.UTF_8);
+    }
+
+    private static String nextClient() {
+        return "10.71." + (CLIENTS.get() / 250) + "." + (CLIENTS.incrementAndGet() % 250 + 1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.authsystem.reactive.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHasherTest {
+
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void dispose() {
+        passwordHasher.destroy();
+    }
+
+    @Test
+    void hashesOnTheBcryptSchedulerNotTheCallersThread() {
+        passwordHasher = new PasswordHasher(1, 10);
+        AtomicReference<String> thread = new AtomicReference<>();
+
+        String hash = passwordHasher.encode("secret123")
+                .doOnNext(value -> thread.set(Thread.currentThread().getName()))
+                .block();
+
+        assertThat(thread.get()).startsWith("bcrypt-");
+        assertThat(passwordHasher.matches("secret123", hash).block()).isTrue();
+        assertThat(passwordHasher.matches("secret124", hash).block()).isFalse();
+    }
+
+    @Test
+    void rejectsHashesBeyondTheQueue() {
+        passwordHasher = new PasswordHasher(1, 1);
+
+        // One hash running and one queued fill the scheduler; the rest are refused rather than piling up
+        StepVerifier.create(Flux.range(0, 4)
+                        .flatMap(i -> passwordHasher.encode("secret123")
+                                .map(hash -> "hashed")
+                                .onErrorResume(RejectedExecutionException.class, e -> Mono.just("rejected"))))
+                .recordWith(ArrayList::new)
+                .expectNextCount(4)
+                .consumeRecordedWith(outcomes -> assertThat(outcomes).contains("hashed", "rejected"))
+                .verifyComplete();
+    }
+}
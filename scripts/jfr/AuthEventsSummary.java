@@ -0,0 +1,87 @@
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Summarises the application's Flight Recorder events in a recording: count, latency percentiles
+ * and distinct users (or clients) per event type and outcome.
+ * <p>
+ * Usage: java scripts/jfr/AuthEventsSummary.java recording.jfr
+ */
+public class AuthEventsSummary {
+    
+    private static final String PREFIX = "com.example.authsystem.";
+    
+    private static final class Group {
+        private final List<Long> durations = new ArrayList<>();
+        private final Set<Long> subjects = new HashSet<>();
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java scripts/jfr/AuthEventsSummary.java <recording.jfr>");
+            System.exit(2);
+        }
+        
+        Map<String, Group> groups = new TreeMap<>();
+        try (RecordingFile recording = new RecordingFile(Path.of(args[0]))) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(PREFIX)) {
+                    continue;
+                }
+                
+                String key = name.substring(PREFIX.length())
+                        + (event.hasField("outcome") ? " " + event.getString("outcome") : "");
+                Group group = groups.computeIfAbsent(key, k -> new Group());
+                group.durations.add(event.getDuration().toNanos());
+                long subject = subjectHash(event);
+                if (subject != 0) {
+                    group.subjects.add(subject);
+                }
+            }
+        }
+        
+        if (groups.isEmpty()) {
+            System.out.println("No " + PREFIX + "* events in " + args[0]
+                    + "; was the recording started with scripts/jfr/auth.jfc?");
+            return;
+        }
+        
+        System.out.printf("%-34s %8s %10s %10s %10s %10s %8s%n",
+                "event / outcome", "count", "p50 ms", "p95 ms", "p99 ms", "max ms", "users");
+        groups.forEach((key, group) -> {
+            long[] sorted = group.durations.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            System.out.printf("%-34s %8d %10.3f %10.3f %10.3f %10.3f %8d%n", key, sorted.length,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]), group.subjects.size());
+        });
+    }
+    
+    private static long subjectHash(RecordedEvent event) {
+        if (event.hasField("userHash")) {
+            return event.getLong("userHash");
+        }
+        return event.hasField("clientHash") ? event.getLong("clientHash") : 0;
+    }
+    
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
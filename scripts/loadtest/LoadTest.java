@@ -0,0 +1,133 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator: a fixed number of clients each send the next request as soon as the
+ * previous one returns, for a warm-up period and then for the measured period. Prints one line with
+ * throughput, latency percentiles and the number of non-2xx responses or failed requests.
+ * <p>
+ * Usage: java scripts/loadtest/LoadTest.java url concurrency seconds [--bearer token] [--post body-file]
+ * <p>
+ * With {@code --post}, every request is a JSON POST; client i sends line i (modulo the line count) of
+ * the body file, so each client can refresh its own token. POSTs go to the rate-limited /auth
+ * endpoints, so every one of them comes from a new client address instead of the client's own.
+ */
+public class LoadTest {
+
+    private static final int WARM_UP_SECONDS = 10;
+
+    private static final String USAGE =
+            "Usage: java scripts/loadtest/LoadTest.java url concurrency seconds [--bearer token] [--post body-file]";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3 || args.length % 2 == 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = Integer.parseInt(args[1]);
+        int seconds = Integer.parseInt(args[2]);
+        String token = null;
+        List<String> bodies = null;
+        for (int i = 3; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--bearer" -> token = args[i + 1];
+                case "--post" -> bodies = Files.readAllLines(Path.of(args[i + 1])).stream()
+                        .filter(line -> !line.isBlank())
+                        .toList();
+                default -> {
+                    System.err.println(USAGE);
+                    System.exit(2);
+                }
+            }
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        run(client, uri, token, bodies, concurrency, WARM_UP_SECONDS, false);
+        run(client, uri, token, bodies, concurrency, seconds, true);
+    }
+
+    private static void run(HttpClient client, URI uri, String token, List<String> bodies, int concurrency,
+                            int seconds, boolean report) throws InterruptedException {
+        List<List<Long>> latencies = new ArrayList<>();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            List<Long> own = new ArrayList<>();
+            latencies.add(own);
+            // A distinct client address each, so the per-IP rate limiter does not throttle the test
+            String forwardedFor = "10.77." + (i / 250) + "." + (i % 250 + 1);
+            String body = bodies == null ? null : bodies.get(i % bodies.size());
+            clients.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                            .timeout(Duration.ofSeconds(30));
+                    if (token != null) {
+                        request.header("Authorization", "Bearer " + token);
+                    }
+                    if (body != null) {
+                        request.header("Content-Type", "application/json")
+                                .header("X-Forwarded-For", randomAddress())
+                                .POST(HttpRequest.BodyPublishers.ofString(body));
+                    } else {
+                        request.header("X-Forwarded-For", forwardedFor);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        int status = client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status >= 300) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    own.add(System.nanoTime() - start);
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        if (!report) {
+            return;
+        }
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+        System.out.printf("%8.0f %8.1f %8.1f %8.1f %8.1f %8d%n",
+                all.size() / (double) seconds, millis(all, 0.50), millis(all, 0.95), millis(all, 0.99),
+                millis(all, 1.0), errors.get());
+    }
+
+    /** An address in 10.128.0.0/9, well clear of the per-client addresses above. */
+    private static String randomAddress() {
+        int address = ThreadLocalRandom.current().nextInt(1 << 23);
+        return "10." + (128 + (address >> 16)) + "." + ((address >> 8) & 0xff) + "." + (address & 0xff);
+    }
+
+    private static double millis(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, index)) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Drives the request paths of a running instance once and fails on the first unexpected status.
+#
+# Usage: scripts/native-smoke.sh [base-url]
+# Meant for the native executable and for the tracing agent run that precedes it (see
+# .github/workflows/native.yml): every path exercised here is one whose reflection, resources and
+# serialization must work in the image. Works with the prod profile, which seeds no users, so it signs
+# up its own.
+set -euo pipefail
+
+BASE=${1:-http://localhost:8081/api}
+CLIENT=0
+RESPONSE=$(mktemp)
+trap 'rm -f "$RESPONSE"' EXIT
+
+# call <expected status> <method> <path> [curl args...]; the body is left in $RESPONSE
+call() {
+    local expected=$1 method=$2 path=$3 status
+    shift 3
+    CLIENT=$((CLIENT + 1))
+    status=$(curl -s -o "$RESPONSE" -w '%{http_code}' -X "$method" -H "X-Forwarded-For: 10.88.0.$CLIENT" \
+        "$@" "$BASE$path")
+    if [ "$status" != "$expected" ]; then
+        echo "FAIL $method $path: expected $expected, got $status: $(head -c 500 "$RESPONSE")" >&2
+        exit 1
+    fi
+    echo "ok   $method $path $status"
+}
+
+field() {
+    sed -E "s/.*\"$1\":\"([^\"]+)\".*/\\1/" "$RESPONSE"
+}
+
+json=(-H 'Content-Type: application/json')
+user="smoke$(date +%s)"
+
+call 200 GET /actuator/health/readiness
+call 200 GET /test/public
+call 401 GET /users/me
+call 200 POST /auth/signup "${json[@]}" \
+    -d "{\"username\":\"$user\",\"email\":\"$user@example.com\",\"password\":\"secret123\",\"firstName\":\"Smoke\"}"
+call 400 POST /auth/signup "${json[@]}" -d '{"username":"x"}'
+call 401 POST /auth/signin "${json[@]}" -d "{\"usernameOrEmail\":\"$user\",\"password\":\"wrong-password\"}"
+call 200 POST /auth/signin "${json[@]}" -d "{\"usernameOrEmail\":\"$user\",\"password\":\"secret123\"}"
+access=$(field accessToken)
+refresh=$(field refreshToken)
+bearer=(-H "Authorization: Bearer $access")
+
+call 200 GET /users/me "${bearer[@]}"
+call 200 GET /users/me "${bearer[@]}" -H 'Accept: application/cbor'
+call 200 GET /users/me "${bearer[@]}" -H 'Accept: application/x-jackson-smile'
+call 200 PUT /users/me "${bearer[@]}" "${json[@]}" -d '{"lastName":"Native"}'
+call 200 GET /test/user "${bearer[@]}"
+call 403 GET /test/admin "${bearer[@]}"
+call 200 POST /auth/refreshtoken "${json[@]}" -d "{\"refreshToken\":\"$refresh\"}"
+call 200 POST /auth/forgot-password --data-urlencode "email=$user@example.com"
+call 404 POST /auth/reset-password "${json[@]}" -d '{"token":"not-a-token","newPassword":"secret456"}'
+call 200 POST /auth/signout "${json[@]}" -d "{\"refreshToken\":\"$refresh\"}"
+call 403 POST /auth/refreshtoken "${json[@]}" -d "{\"refreshToken\":\"$refresh\"}"
+call 401 GET /actuator/prometheus
@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+# Compares the servlet build (Tomcat, JPA) with the WebFlux build in reactive/ (Netty, R2DBC) under load.
+#
+# Usage: [DB_LATENCIES="0 5"] scripts/reactive-comparison.sh [seconds] [concurrency...]
+# Needs a Java 21+ runtime (JAVA_HOME or java on PATH) for the servlet build's virtual-thread variant. Each
+# variant gets a fresh JVM with the in-memory H2 database and is driven by scripts/loadtest/LoadTest.java
+# against a public endpoint, GET /users/me (JWT validation and a database read), POST /auth/refreshtoken
+# (a token lookup and a new JWT; every client refreshes its own token) and POST /auth/signin (a bcrypt
+# comparison). Every variant runs once per simulated database round trip in DB_LATENCIES (milliseconds,
+# see datasource.latency in both builds). The servlet build's adaptive concurrency limiter is switched
+# off so that it does not shed the load being compared. The servlet build hashes on its request threads,
+# the WebFlux build on its bounded bcrypt scheduler; both keep ten database connections.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+SECONDS_PER_RUN=${1:-30}
+shift || true
+if [ $# -gt 0 ]; then CONCURRENCY=("$@"); else CONCURRENCY=(50 400); fi
+read -r -a LATENCIES <<< "${DB_LATENCIES:-0 5}"
+MAX_CONCURRENCY=$(printf '%s\n' "${CONCURRENCY[@]}" | sort -n | tail -1)
+PORT=8081
+BASE="http://localhost:${PORT}/api"
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+SERVLET_JAR=target/auth-system-0.0.1-SNAPSHOT.jar
+REACTIVE_JAR=reactive/target/auth-system-reactive-0.0.1-SNAPSHOT.jar
+REFRESH_BODIES=$(mktemp)
+SIGNIN_BODY=$(mktemp)
+trap 'rm -f "$REFRESH_BODIES" "$SIGNIN_BODY"' EXIT
+echo '{"usernameOrEmail":"user","password":"user123"}' > "$SIGNIN_BODY"
+
+mvn -B -q -DskipTests package
+mvn -B -q -DskipTests -f reactive/pom.xml package
+
+# start_app <servlet|virtual|reactive> <db round trip ms>
+start_app() {
+    local jar=$SERVLET_JAR latency_args=()
+    if [ "$1" = reactive ]; then jar=$REACTIVE_JAR; fi
+    if [ "$2" -gt 0 ]; then latency_args=(--datasource.latency.enabled=true --datasource.latency.round-trip-ms="$2"); fi
+    VIRTUAL_THREADS=$([ "$1" = virtual ] && echo true || echo false) CONCURRENCY_LIMIT_ENABLED=false \
+        "$JAVA" -jar "$jar" --server.port="$PORT" --spring.jpa.show-sql=false \
+        --logging.level.com.example.authsystem=WARN "${latency_args[@]}" >/dev/null 2>&1 &
+    APP_PID=$!
+    # Readiness rather than the first response: the demo users are seeded after the server starts
+    until curl -sf -o /dev/null "$BASE/actuator/health/readiness"; do
+        kill -0 "$APP_PID" 2>/dev/null || { echo "application exited during startup" >&2; exit 1; }
+        sleep 0.2
+    done
+    TOKEN=$(sign_in 1 | sed -E 's/.*"accessToken":"([^"]+)".*/\1/')
+    # One refresh token per client; sign-in is rate limited per address, so each comes from its own
+    : > "$REFRESH_BODIES"
+    for i in $(seq 1 "$MAX_CONCURRENCY"); do
+        sign_in $((i + 1)) | sed -E 's/.*"refreshToken":"([^"]+)".*/{"refreshToken":"\1"}/' >> "$REFRESH_BODIES"
+        echo >> "$REFRESH_BODIES"
+    done
+}
+
+sign_in() {
+    curl -sf -H 'Content-Type: application/json' -H "X-Forwarded-For: 10.77.$(($1 / 250)).$(($1 % 250 + 1))" \
+        -d @"$SIGNIN_BODY" "$BASE/auth/signin"
+}
+
+stop_app() {
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+}
+
+"$JAVA" -version 2>&1 | head -1
+printf '%-9s %-6s %-13s %5s %8s %8s %8s %8s %8s %8s\n' \
+    "variant" "db_ms" "endpoint" "conc" "req_s" "p50_ms" "p95_ms" "p99_ms" "max_ms" "errors"
+for latency in "${LATENCIES[@]}"; do
+    for variant in servlet virtual reactive; do
+        start_app "$variant" "$latency"
+        for concurrency in "${CONCURRENCY[@]}"; do
+            printf '%-9s %-6s %-13s %5d ' "$variant" "$latency" "public" "$concurrency"
+            "$JAVA" scripts/loadtest/LoadTest.java "$BASE/test/public" "$concurrency" "$SECONDS_PER_RUN"
+            printf '%-9s %-6s %-13s %5d ' "$variant" "$latency" "users/me" "$concurrency"
+            "$JAVA" scripts/loadtest/LoadTest.java "$BASE/users/me" "$concurrency" "$SECONDS_PER_RUN" \
+                --bearer "$TOKEN"
+            printf '%-9s %-6s %-13s %5d ' "$variant" "$latency" "refreshtoken" "$concurrency"
+            "$JAVA" scripts/loadtest/LoadTest.java "$BASE/auth/refreshtoken" "$concurrency" "$SECONDS_PER_RUN" \
+                --post "$REFRESH_BODIES"
+            printf '%-9s %-6s %-13s %5d ' "$variant" "$latency" "signin" "$concurrency"
+            "$JAVA" scripts/loadtest/LoadTest.java "$BASE/auth/signin" "$concurrency" "$SECONDS_PER_RUN" \
+                --post "$SIGNIN_BODY"
+        done
+        stop_app
+    done
+done
@@ -0,0 +1,56 @@
+#!/usr/bin/env bash
+# Compares startup time and resident memory of the JVM jar and the native executable.
+#
+# Usage: [SKIP_BUILD=true] scripts/startup-comparison.sh [runs]
+# Needs GraalVM (native-image on PATH) for the native build. Both variants run with the prod profile
+# against the in-memory H2 database; startup is measured until the first successful HTTP response.
+# SKIP_BUILD=true measures target/auth-system-jvm.jar and target/auth-system as already built (CI builds
+# them in earlier steps).
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+PORT=8081
+URL="http://localhost:${PORT}/api/test/public"
+JAR=target/auth-system-jvm.jar
+NATIVE=target/auth-system
+
+if [ "${SKIP_BUILD:-false}" != true ]; then
+    mvn -B -q -DskipTests package
+    cp target/auth-system-0.0.1-SNAPSHOT.jar "$JAR"
+    mvn -B -q -Pnative -DskipTests native:compile
+fi
+
+now_ms() { date +%s%3N; }
+
+# Prints "<ms until first 200> <RSS in MB after the first request>"
+measure() {
+    local start pid rss_kb
+    start=$(now_ms)
+    "$@" --spring.profiles.active=prod --server.port="$PORT" >/dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        kill -0 "$pid" 2>/dev/null || { echo "process exited before serving requests" >&2; exit 1; }
+        sleep 0.02
+    done
+    local ready=$(( $(now_ms) - start ))
+    rss_kb=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$ready $(( rss_kb / 1024 ))"
+}
+
+report() {
+    local label=$1; shift
+    local total_ms=0 total_rss=0 result
+    for _ in $(seq 1 "$RUNS"); do
+        result=$(measure "$@")
+        total_ms=$(( total_ms + ${result% *} ))
+        total_rss=$(( total_rss + ${result#* } ))
+    done
+    printf '%-8s %10d %10d\n' "$label" $(( total_ms / RUNS )) $(( total_rss / RUNS ))
+}
+
+printf '%-8s %10s %10s\n' "variant" "ready_ms" "rss_mb"
+report jvm java -jar "$JAR"
+report native "$NATIVE"
@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+# Compares request handling on Tomcat's platform worker threads with virtual threads under load.
+#
+# Usage: [DB_LATENCIES="0 5"] scripts/virtual-threads-comparison.sh [seconds] [concurrency...]
+# Needs a Java 21+ runtime (JAVA_HOME or java on PATH); on 17 the virtual variant silently runs on platform
+# threads. Each variant gets a fresh JVM with the in-memory H2 database and is driven by
+# scripts/loadtest/LoadTest.java against a public endpoint, GET /users/me (JWT validation and a database
+# read) and POST /auth/refreshtoken (a token lookup and a new JWT; every client refreshes its own token).
+# Every variant runs once per simulated database round trip in DB_LATENCIES (milliseconds, see
+# datasource.latency), 0 being the in-memory database as is. The adaptive concurrency limiter is switched
+# off so that it does not shed the load being compared; Tomcat keeps its default of 200 worker threads.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+SECONDS_PER_RUN=${1:-30}
+shift || true
+if [ $# -gt 0 ]; then CONCURRENCY=("$@"); else CONCURRENCY=(50 400); fi
+read -r -a LATENCIES <<< "${DB_LATENCIES:-0 5}"
+MAX_CONCURRENCY=$(printf '%s\n' "${CONCURRENCY[@]}" | sort -n | tail -1)
+PORT=8081
+BASE="http://localhost:${PORT}/api"
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=target/auth-system-0.0.1-SNAPSHOT.jar
+REFRESH_BODIES=$(mktemp)
+trap 'rm -f "$REFRESH_BODIES"' EXIT
+
+mvn -B -q -DskipTests package
+
+start_app() {
+    local latency_args=()
+    if [ "$2" -gt 0 ]; then latency_args=(--datasource.latency.enabled=true --datasource.latency.round-trip-ms="$2"); fi
+    VIRTUAL_THREADS=$1 CONCURRENCY_LIMIT_ENABLED=false "$JAVA" -jar "$JAR" --server.port="$PORT" \
+        --spring.jpa.show-sql=false --logging.level.com.example.authsystem=WARN "${latency_args[@]}" >/dev/null 2>&1 &
+    APP_PID=$!
+    # Readiness rather than the first response: the demo users are seeded after Tomcat starts
+    until curl -sf -o /dev/null "$BASE/actuator/health/readiness"; do
+        kill -0 "$APP_PID" 2>/dev/null || { echo "application exited during startup" >&2; exit 1; }
+        sleep 0.2
+    done
+    TOKEN=$(sign_in 1 | sed -E 's/.*"accessToken":"([^"]+)".*/\1/')
+    # One refresh token per client; sign-in is rate limited per address, so each comes from its own
+    : > "$REFRESH_BODIES"
+    for i in $(seq 1 "$MAX_CONCURRENCY"); do
+        sign_in $((i + 1)) | sed -E 's/.*"refreshToken":"([^"]+)".*/{"refreshToken":"\1"}/' >> "$REFRESH_BODIES"
+        echo >> "$REFRESH_BODIES"
+    done
+}
+
+sign_in() {
+    curl -sf -H 'Content-Type: application/json' -H "X-Forwarded-For: 10.76.$(($1 / 250)).$(($1 % 250 + 1))" \
+        -d '{"usernameOrEmail":"user","password":"user123"}' "$BASE/auth/signin"
+}
+
+stop_app() {
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+}
+
+"$JAVA" -version 2>&1 | head -1
+printf '%-9s %-6s %-13s %5s %8s %8s %8s %8s %8s %8s\n' \
+    "threads" "db_ms" "endpoint" "conc" "req_s" "p50_ms" "p95_ms" "p99_ms" "max_ms" "errors"
+for latency in "${LATENCIES[@]}"; do
+    for virtual in false true; do
+        label=$([ "$virtual" = true ] && echo virtual || echo platform)
+        start_app "$virtual" "$latency"
+        for concurrency in "${CONCURRENCY[@]}"; do
+            printf '%-9s %-6s %-13s %5d ' "$label" "$latency" "public" "$concurrency"
+            "$JAVA" scripts/loadtest/LoadTest.java "$BASE/test/public" "$concurrency" "$SECONDS_PER_RUN"
+            printf '%-9s %-6s %-13s %5d ' "$label" "$latency" "users/me" "$concurrency"
+            "$JAVA" scripts/loadtest/LoadTest.java "$BASE/users/me" "$concurrency" "$SECONDS_PER_RUN" \
+                --bearer "$TOKEN"
+            printf '%-9s %-6s %-13s %5d ' "$label" "$latency" "refreshtoken" "$concurrency"
+            "$JAVA" scripts/loadtest/LoadTest.java "$BASE/auth/refreshtoken" "$concurrency" "$SECONDS_PER_RUN" \
+                --post "$REFRESH_BODIES"
+        done
+        stop_app
+    done
+done
@@ -0,0 +1,133 @@
+package com.example.authsystem.benchmark;
+
+import com.example.authsystem.dto.request.LoginRequest;
+import com.example.authsystem.dto.response.JwtResponse;
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.dto.response.UserPageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding the hot response bodies and decoding the sign-in request in each negotiated
+ * format, with and without Blackbird. Mappers come from Spring's builder with the settings Boot
+ * applies, and bodies go through writers and readers resolved up front, as in
+ * {@code PreResolvedJacksonConverter}. The encoded size of each payload is printed once per trial.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"true", "false"})
+    private boolean blackbird;
+
+    private ObjectWriter jwtWriter;
+    private ObjectWriter userWriter;
+    private ObjectWriter pageWriter;
+    private ObjectReader loginReader;
+
+    private JwtResponse jwt;
+    private UserInfoResponse user;
+    private UserPageResponse page;
+    private byte[] loginBody;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper mapper = builder.build();
+
+        jwtWriter = mapper.writerFor(JwtResponse.class);
+        userWriter = mapper.writerFor(UserInfoResponse.class);
+        pageWriter = mapper.writerFor(UserPageResponse.class);
+        loginReader = mapper.readerFor(LoginRequest.class);
+
+        // A signed HS512 access token with roles, id and subject is about this long
+        jwt = new JwtResponse("eyJhbGciOiJIUzUxMiJ9." + "x".repeat(160) + "." + "s".repeat(86),
+                "0214fe9d-ea4d-4462-a477-9a5e667be8a4", 2L, "user", "user@example.com", Set.of("ROLE_USER"));
+        user = user(2);
+        List<UserInfoResponse> users = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            users.add(user(id));
+        }
+        page = new UserPageResponse(users, "MjA");
+        loginBody = mapper.writeValueAsBytes(new LoginRequest("user", "user123"));
+
+        System.out.printf("%nbytes: format=%s jwt=%d user=%d page20=%d login=%d%n", format,
+                jwtWriter.writeValueAsBytes(jwt).length, userWriter.writeValueAsBytes(user).length,
+                pageWriter.writeValueAsBytes(page).length, loginBody.length);
+    }
+
+    @Benchmark
+    public int writeJwtResponse() throws IOException {
+        return write(jwtWriter, jwt);
+    }
+
+    @Benchmark
+    public int writeUserInfo() throws IOException {
+        return write(userWriter, user);
+    }
+
+    @Benchmark
+    public int writeUserPage() throws IOException {
+        return write(pageWriter, page);
+    }
+
+    @Benchmark
+    public Object readLoginRequest() throws IOException {
+        return loginReader.readValue(loginBody);
+    }
+
+    private int write(ObjectWriter writer, Object value) throws IOException {
+        buffer.reset();
+        writer.writeValue(buffer, value);
+        return buffer.size();
+    }
+
+    private static UserInfoResponse user(long id) {
+        LocalDateTime created = LocalDateTime.of(2026, 1, 15, 9, 30, 12, 345_000_000);
+        return new UserInfoResponse(id, "user" + id, "user" + id + "@example.com", "First" + id, "Last" + id,
+                "+1555000" + id, Set.of("ROLE_USER"), created, created.plusDays(id));
+    }
+}
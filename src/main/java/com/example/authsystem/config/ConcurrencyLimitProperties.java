@@ -0,0 +1,135 @@
+package com.example.authsystem.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+    
+    /** Reject requests beyond the discovered concurrency limit of their endpoint group with 503. */
+    private boolean enabled = true;
+    
+    /** How far the recent latency may rise above the long-term latency before the limit shrinks. */
+    private double rttTolerance = 1.5;
+    
+    /** Weight of each new limit estimate; lower values change the limit more slowly. */
+    private double smoothing = 0.2;
+    
+    /** Samples in the long-term latency average. */
+    private int longWindow = 600;
+    
+    /** Factor applied to the limit when a request still fails with 503 downstream (e.g. the bcrypt pool is full). */
+    private double backoffRatio = 0.9;
+    
+    /** POST /auth/signin, /auth/signup and /auth/reset-password: dominated by bcrypt. */
+    private Limit credentials = new Limit(8, 1, 64);
+    
+    /** POST /auth/refreshtoken: one query and a JWT signature. */
+    private Limit refresh = new Limit(20, 2, 200);
+    
+    /** Other GET requests, mostly cache and index lookups. */
+    private Limit reads = new Limit(50, 5, 500);
+    
+    /** Path prefixes that are never limited, e.g. health probes and long-running streams. */
+    private List<String> unlimitedPaths = new ArrayList<>(List.of(
+            "/actuator", "/swagger-ui", "/api-docs", "/v3/api-docs", "/h2-console", "/users/export"));
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public double getRttTolerance() {
+        return rttTolerance;
+    }
+    
+    public void setRttTolerance(double rttTolerance) {
+        this.rttTolerance = rttTolerance;
+    }
+    
+    public double getSmoothing() {
+        return smoothing;
+    }
+    
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+    
+    public int getLongWindow() {
+        return longWindow;
+    }
+    
+    public void setLongWindow(int longWindow) {
+        this.longWindow = longWindow;
+    }
+    
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+    
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+    
+    public Limit getCredentials() {
+        return credentials;
+    }
+    
+    public void setCredentials(Limit credentials) {
+        this.credentials = credentials;
+    }
+    
+    public Limit getRefresh() {
+        return refresh;
+    }
+    
+    public void setRefresh(Limit refresh) {
+        this.refresh = refresh;
+    }
+    
+    public Limit getReads() {
+        return reads;
+    }
+    
+    public void setReads(Limit reads) {
+        this.reads = reads;
+    }
+    
+    public List<String> getUnlimitedPaths() {
+        return unlimitedPaths;
+    }
+    
+    public void setUnlimitedPaths(List<String> unlimitedPaths) {
+        this.unlimitedPaths = unlimitedPaths;
+    }
+    
+    public static class Limit {
+        /** Concurrent requests allowed before any latency has been measured. */
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+        
+        public Limit() {
+        }
+        
+        public Limit(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+        
+        public int getInitialLimit() { return initialLimit; }
+        public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+        
+        public int getMinLimit() { return minLimit; }
+        public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+        
+        public int getMaxLimit() { return maxLimit; }
+        public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+    }
+}
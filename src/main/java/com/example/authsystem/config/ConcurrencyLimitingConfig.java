@@ -0,0 +1,139 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.dto.response.ConcurrencyLimitStatsResponse;
+import com.example.authsystem.exception.PreEncodedErrorResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sheds load before queueing in Tomcat makes every request slow. Each endpoint group has its own
+ * {@link GradientConcurrencyLimiter}; a request over its group's limit gets 503 with
+ * {@code Retry-After} at once, so a sign-in burst cannot hold back token refreshes and reads.
+ * Runs right after {@link RateLimitingConfig}, which bounds each client, while this bounds the node.
+ */
+@Component
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitingConfig extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitingConfig.class);
+    
+    public enum Group {
+        CREDENTIALS, REFRESH, READS
+    }
+    
+    @Autowired
+    private ConcurrencyLimitProperties properties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<Group, GradientConcurrencyLimiter> limiters = new EnumMap<>(Group.class);
+    
+    @PostConstruct
+    public void init() {
+        limiters.put(Group.CREDENTIALS, new GradientConcurrencyLimiter(properties.getCredentials(), properties));
+        limiters.put(Group.REFRESH, new GradientConcurrencyLimiter(properties.getRefresh(), properties));
+        limiters.put(Group.READS, new GradientConcurrencyLimiter(properties.getReads(), properties));
+        limiters.forEach(this::registerMeters);
+    }
+    
+    private void registerMeters(Group group, GradientConcurrencyLimiter limiter) {
+        String tag = group.name().toLowerCase(Locale.ROOT);
+        Gauge.builder("auth.concurrency.limit", limiter, GradientConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", tag)
+                .register(meterRegistry);
+        Gauge.builder("auth.concurrency.in_flight", limiter, GradientConcurrencyLimiter::getInFlight)
+                .tag("group", tag)
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.concurrency.rejected", limiter, GradientConcurrencyLimiter::getRejectedCount)
+                .description("Requests shed because the group was at its limit")
+                .tag("group", tag)
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.concurrency.dropped", limiter, GradientConcurrencyLimiter::getDroppedCount)
+                .description("Admitted requests that still ended in 503")
+                .tag("group", tag)
+                .register(meterRegistry);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        Group group = properties.isEnabled() ? classify(request) : null;
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        GradientConcurrencyLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire()) {
+            logger.debug("Request shed: group={}, limit={}, uri={}", group, limiter.getLimit(), request.getRequestURI());
+            PreEncodedErrorResponse.SERVER_BUSY.write(response, request.getRequestURI());
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            limiter.release(System.nanoTime() - start,
+                    response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value(), completed);
+        }
+    }
+    
+    private Group classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        
+        if ("POST".equals(method)) {
+            switch (path) {
+                case "/auth/signin", "/auth/signup", "/auth/reset-password":
+                    return Group.CREDENTIALS;
+                case "/auth/refreshtoken":
+                    return Group.REFRESH;
+                default:
+                    return null;
+            }
+        }
+        
+        if ("GET".equals(method) && !path.startsWith("/auth/")) {
+            for (String prefix : properties.getUnlimitedPaths()) {
+                if (path.startsWith(prefix)) {
+                    return null;
+                }
+            }
+            return Group.READS;
+        }
+        return null;
+    }
+    
+    public List<ConcurrencyLimitStatsResponse> getStatistics() {
+        List<ConcurrencyLimitStatsResponse> statistics = new ArrayList<>();
+        limiters.forEach((group, limiter) -> statistics.add(new ConcurrencyLimitStatsResponse(
+                group.name(), limiter.getLimit(), limiter.getInFlight(), limiter.getRejectedCount(),
+                limiter.getDroppedCount(), limiter.getShortRttMillis(), limiter.getLongRttMillis())));
+        return statistics;
+    }
+}
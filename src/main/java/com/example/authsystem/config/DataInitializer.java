@@ -4,7 +4,10 @@ import com.example.authsystem.entity.Role;
 import com.example.authsystem.entity.User;
 import com.example.authsystem.repository.RoleRepository;
 import com.example.authsystem.repository.UserRepository;
+import com.example.authsystem.service.UserDirectoryService;
+import com.example.authsystem.service.UserShardRouter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -24,42 +27,66 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+    
+    @Value("${data-initializer.seed-users:true}")
+    private boolean seedUsers;
+    
     @Override
     public void run(String... args) throws Exception {
-        // Initialize roles if they don't exist
-        if (roleRepository.count() == 0) {
-            Role userRole = new Role(Role.RoleName.ROLE_USER);
-            Role adminRole = new Role(Role.RoleName.ROLE_ADMIN);
-            
-            roleRepository.save(userRole);
-            roleRepository.save(adminRole);
+        // Initialize roles if they don't exist. Roles are reference data seeded identically on every shard.
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.runInShard(shard, false, () -> {
+                if (roleRepository.count() == 0) {
+                    Role userRole = new Role(Role.RoleName.ROLE_USER);
+                    Role adminRole = new Role(Role.RoleName.ROLE_ADMIN);
+                    
+                    roleRepository.save(userRole);
+                    roleRepository.save(adminRole);
+                }
+            });
         }
         
-        // Create default admin user if it doesn't exist
-        if (!userRepository.existsByUsername("admin")) {
-            User admin = new User("admin", "admin@example.com", passwordEncoder.encode("admin123"));
-            admin.setFirstName("Admin");
-            admin.setLastName("User");
-            
-            Set<Role> adminRoles = new HashSet<>();
-            adminRoles.add(roleRepository.findByName(Role.RoleName.ROLE_ADMIN).get());
-            adminRoles.add(roleRepository.findByName(Role.RoleName.ROLE_USER).get());
-            admin.setRoles(adminRoles);
-            
-            userRepository.save(admin);
+        // The demo accounts are development only; every seeded password also costs a bcrypt hash at startup
+        if (!seedUsers) {
+            return;
         }
         
+        // Create default admin user if it doesn't exist
+        createUserIfMissing("admin", "admin@example.com", "admin123", "Admin",
+                Role.RoleName.ROLE_ADMIN, Role.RoleName.ROLE_USER);
+        
         // Create default user if it doesn't exist
-        if (!userRepository.existsByUsername("user")) {
-            User user = new User("user", "user@example.com", passwordEncoder.encode("user123"));
-            user.setFirstName("Regular");
+        createUserIfMissing("user", "user@example.com", "user123", "Regular",
+                Role.RoleName.ROLE_USER);
+    }
+    
+    private void createUserIfMissing(String username, String email, String password, String firstName,
+                                     Role.RoleName... roleNames) {
+        // A seeded user placed under an earlier shard set stays where the directory says it is
+        int shard = userDirectoryService.findShard(username)
+                .orElseGet(() -> shardRouter.shardForNewUser(username));
+        shardRouter.runInShard(shard, false, () -> {
+            if (userRepository.existsByUsername(username)) {
+                return;
+            }
+            userDirectoryService.register(username, email, shard);
+            
+            User user = new User(username, email, passwordEncoder.encode(password));
+            user.setFirstName(firstName);
             user.setLastName("User");
             
-            Set<Role> userRoles = new HashSet<>();
-            userRoles.add(roleRepository.findByName(Role.RoleName.ROLE_USER).get());
-            user.setRoles(userRoles);
+            Set<Role> roles = new HashSet<>();
+            for (Role.RoleName roleName : roleNames) {
+                roles.add(roleRepository.findByName(roleName).get());
+            }
+            user.setRoles(roles);
             
             userRepository.save(user);
-        }
+        });
     }
-}
\ No newline at end of file
+}
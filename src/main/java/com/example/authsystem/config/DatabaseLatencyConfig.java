@@ -0,0 +1,62 @@
+package com.example.authsystem.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated network latency in front of the database, for load tests against the in-memory H2
+ * database. Every statement, commit and rollback on the {@code dataSource} bean waits
+ * {@code datasource.latency.round-trip-ms} before it runs, as it would for a round trip to a database
+ * on another host. Wraps whatever the routing or sharding configuration registered under that name,
+ * so every pool behind it is delayed alike. Never enable it in production.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.latency.enabled", havingValue = "true")
+public class DatabaseLatencyConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseLatencyConfig.class);
+    
+    private static final Set<String> ROUND_TRIP_METHODS = Set.of("commit", "rollback");
+    
+    @Bean
+    public static BeanPostProcessor databaseLatencyPostProcessor(
+            @Value("${datasource.latency.round-trip-ms:2}") long roundTripMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                logger.warn("Simulated database latency enabled: roundTripMs={}", roundTripMs);
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name("latency")
+                        .beforeQuery((execution, queries) -> roundTrip(roundTripMs))
+                        .beforeMethod(method -> {
+                            if (ROUND_TRIP_METHODS.contains(method.getMethod().getName())) {
+                                roundTrip(roundTripMs);
+                            }
+                        })
+                        .build();
+            }
+        };
+    }
+    
+    private static void roundTrip(long roundTripMs) {
+        try {
+            // A sleeping virtual thread leaves its carrier, like one blocked on a socket read
+            TimeUnit.MILLISECONDS.sleep(roundTripMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.authsystem.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one endpoint group, discovered from the latency of its requests.
+ * <p>
+ * A short and a long exponential moving average of the response time are kept. While the recent
+ * latency stays within {@code rttTolerance} of the long-term one the limit grows by about its
+ * square root per sample; once requests start queueing and the recent latency rises, the ratio
+ * of the two averages (at least 0.5) shrinks the limit. A request that still fails with 503
+ * downstream cuts the limit by {@code backoffRatio}. The limit only grows while at least half of
+ * it is in use, so a quiet period does not inflate it.
+ */
+public class GradientConcurrencyLimiter {
+    
+    private static final int SHORT_WINDOW = 10;
+    
+    private final ConcurrencyLimitProperties.Limit bounds;
+    
+    private final ConcurrencyLimitProperties properties;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private final LongAdder rejected = new LongAdder();
+    
+    private final LongAdder dropped = new LongAdder();
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private volatile int limit;
+    
+    // Guarded by lock
+    private double estimatedLimit;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long samples;
+    
+    public GradientConcurrencyLimiter(ConcurrencyLimitProperties.Limit bounds, ConcurrencyLimitProperties properties) {
+        this.bounds = bounds;
+        this.properties = properties;
+        this.estimatedLimit = bounds.getInitialLimit();
+        this.limit = bounds.getInitialLimit();
+    }
+    
+    /**
+     * Takes a slot if fewer than {@code limit} requests of this group are in flight. A caller that
+     * gets {@code true} must call {@link #release} exactly once.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+    
+    /**
+     * Returns the slot and feeds the request's latency into the limit. Pass {@code sample = false}
+     * for requests whose latency says nothing about load, e.g. ones that ended with an exception.
+     */
+    public void release(long rttNanos, boolean droppedDownstream, boolean sample) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        if (!sample && !droppedDownstream) {
+            return;
+        }
+        
+        lock.lock();
+        try {
+            if (droppedDownstream) {
+                dropped.increment();
+                estimatedLimit = Math.max(bounds.getMinLimit(), estimatedLimit * properties.getBackoffRatio());
+            } else {
+                update(rttNanos, inFlightBeforeRelease);
+            }
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void update(long rttNanos, int inFlightBeforeRelease) {
+        samples++;
+        if (samples == 1) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+        } else {
+            shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+            longRttNanos += (rttNanos - longRttNanos) / Math.min(samples, properties.getLongWindow());
+        }
+        
+        // After a lasting latency drop let the baseline catch up quickly instead of over several hundred samples
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        
+        if (inFlightBeforeRelease < estimatedLimit / 2) {
+            return;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, properties.getRttTolerance() * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - properties.getSmoothing()) + newLimit * properties.getSmoothing();
+        estimatedLimit = Math.max(bounds.getMinLimit(), Math.min(bounds.getMaxLimit(), newLimit));
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+    
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+    
+    public double getShortRttMillis() {
+        lock.lock();
+        try {
+            return shortRttNanos / 1_000_000;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public double getLongRttMillis() {
+        lock.lock();
+        try {
+            return longRttNanos / 1_000_000;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.dto.request.LoginRequest;
+import com.example.authsystem.dto.request.TokenRefreshRequest;
+import com.example.authsystem.dto.response.JwtResponse;
+import com.example.authsystem.dto.response.TokenRefreshResponse;
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serialization for the hot endpoints. Blackbird replaces Jackson's reflective getter and
+ * constructor calls with generated lambdas. Sign-in, token refresh and the user reads use
+ * pre-resolved writers and readers ({@link PreResolvedJacksonConverter}). Service-to-service
+ * callers can ask for CBOR ({@code application/cbor}) or Smile ({@code application/x-jackson-smile})
+ * through the Accept and Content-Type headers; everyone else keeps getting JSON.
+ */
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /** Response bodies of sign-in, token refresh and the user endpoints. */
+    private static final Set<Class<?>> HOT_RESPONSE_TYPES =
+            Set.of(JwtResponse.class, TokenRefreshResponse.class, UserInfoResponse.class);
+
+    private static final Set<Class<?>> HOT_REQUEST_TYPES = Set.of(LoginRequest.class, TokenRefreshRequest.class);
+
+    @Value("${serialization.blackbird.enabled:true}")
+    private boolean blackbirdEnabled;
+
+    @Value("${serialization.binary-formats.enabled:true}")
+    private boolean binaryFormatsEnabled;
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer blackbirdCustomizer() {
+        return builder -> {
+            // Blackbird defines classes at runtime, which a native image cannot do
+            if (blackbirdEnabled && !NativeDetector.inNativeImage()) {
+                builder.postConfigurer(mapper -> mapper.registerModule(new BlackbirdModule()));
+            }
+        };
+    }
+
+    /** Ahead of the other converters so JSON stays the answer to a missing or wildcard Accept header. */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public PreResolvedJacksonConverter preResolvedJsonConverter(ObjectMapper objectMapper) {
+        return new PreResolvedJacksonConverter(objectMapper, MediaType.APPLICATION_JSON,
+                HOT_RESPONSE_TYPES, HOT_REQUEST_TYPES);
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (!binaryFormatsEnabled) {
+            // Spring MVC adds both by default as soon as the dataformat modules are on the classpath
+            converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                    || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        }
+    }
+
+    /**
+     * Replaces Spring MVC's default CBOR and Smile converters, whose mappers are built without the
+     * application's Jackson settings and modules, with ones from Boot's configured builder.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "serialization.binary-formats.enabled", havingValue = "true", matchIfMissing = true)
+    static class BinaryFormatsConfig {
+
+        @Bean
+        public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+        }
+
+        @Bean
+        public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+            return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+        }
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+        public PreResolvedJacksonConverter preResolvedCborConverter(MappingJackson2CborHttpMessageConverter cbor) {
+            return new PreResolvedJacksonConverter(cbor.getObjectMapper(), MediaType.APPLICATION_CBOR,
+                    HOT_RESPONSE_TYPES, HOT_REQUEST_TYPES);
+        }
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE + 2)
+        public PreResolvedJacksonConverter preResolvedSmileConverter(MappingJackson2SmileHttpMessageConverter smile) {
+            return new PreResolvedJacksonConverter(smile.getObjectMapper(), APPLICATION_SMILE,
+                    HOT_RESPONSE_TYPES, HOT_REQUEST_TYPES);
+        }
+    }
+}
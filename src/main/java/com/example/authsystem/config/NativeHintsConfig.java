@@ -0,0 +1,151 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.dto.request.LoginRequest;
+import com.example.authsystem.dto.request.PasswordResetRequest;
+import com.example.authsystem.dto.request.SignUpRequest;
+import com.example.authsystem.dto.request.TokenRefreshRequest;
+import com.example.authsystem.dto.request.UpdateUserRequest;
+import com.example.authsystem.dto.request.UserBatchRequest;
+import com.example.authsystem.dto.request.UserImportRecord;
+import com.example.authsystem.dto.response.CacheRegionStatsResponse;
+import com.example.authsystem.dto.response.ConcurrencyLimitStatsResponse;
+import com.example.authsystem.dto.response.JwtResponse;
+import com.example.authsystem.dto.response.MessageResponse;
+import com.example.authsystem.dto.response.TokenRefreshResponse;
+import com.example.authsystem.dto.response.UserBatchResponse;
+import com.example.authsystem.dto.response.UserImportResponse;
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.dto.response.UserPageResponse;
+import com.example.authsystem.dto.response.UserSearchResponse;
+import com.example.authsystem.exception.GlobalExceptionHandler;
+import com.example.authsystem.jfr.PasswordHashEvent;
+import com.example.authsystem.jfr.RateLimitEvent;
+import com.example.authsystem.jfr.TokenRefreshEvent;
+import com.example.authsystem.jfr.TokenVerificationEvent;
+import com.example.authsystem.jfr.UserLoadEvent;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hints for the native image ({@code mvn -Pnative native:compile}). Spring AOT already covers
+ * beans, entities, repositories and controller payloads; this adds what is only reached by
+ * class name or through a manually configured ObjectMapper. Bucket4j needs none: its local
+ * buckets use no reflection.
+ * <p>
+ * The native build runs in the "Native image" workflow; what its tracing-agent run reports that is
+ * missing here belongs in this class. See the README before relying on the image.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.AuthSystemRuntimeHints.class)
+@RegisterReflectionForBinding({
+    LoginRequest.class, PasswordResetRequest.class, SignUpRequest.class, TokenRefreshRequest.class,
+    UpdateUserRequest.class, UserBatchRequest.class, UserImportRecord.class,
+    CacheRegionStatsResponse.class, ConcurrencyLimitStatsResponse.class, JwtResponse.class, MessageResponse.class, TokenRefreshResponse.class,
+    UserBatchResponse.class, UserImportResponse.class, UserInfoResponse.class, UserPageResponse.class,
+    UserSearchResponse.class, GlobalExceptionHandler.ErrorResponse.class
+})
+public class NativeHintsConfig {
+    
+    static class AuthSystemRuntimeHints implements RuntimeHintsRegistrar {
+        
+        /** jjwt-api creates its implementation classes by name (io.jsonwebtoken.lang.Classes). */
+        private static final String[] JJWT_IMPLEMENTATIONS = {
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer"
+        };
+        
+        /**
+         * Created by name: the JCache provider from {@code hibernate.javax.cache.provider}, and the
+         * region factory Hibernate's strategy selector resolves for {@code factory_class: jcache}.
+         */
+        private static final String[] SECOND_LEVEL_CACHE_TYPES = {
+            "org.ehcache.jsr107.EhcacheCachingProvider",
+            "org.hibernate.cache.jcache.internal.JCacheRegionFactory",
+            "org.hibernate.cache.jcache.internal.StrategyRegistrationProviderImpl"
+        };
+        
+        /** Bound reflectively by JAXB when Ehcache parses ehcache.xml. */
+        private static final String EHCACHE_XML_MODEL = "classpath*:org/ehcache/xml/model/*.class";
+        
+        
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_IMPLEMENTATIONS) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            // jjwt finds its JSON serializer through ServiceLoader
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+            
+            // Instantiated by Hibernate from class names in mappings and settings
+            hints.reflection().registerType(ShardSequenceGenerator.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(QueryCountingSessionListener.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            // Target of the JPQL "SELECT new ...UserInfoResponse(...)" projections
+            hints.reflection().registerType(UserInfoResponse.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            
+            hints.resources().registerPattern("ehcache.xml");
+            for (String type : SECOND_LEVEL_CACHE_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+            for (String type : ehcacheXmlModelTypes(classLoader)) {
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.values());
+            }
+            // ehcache.xml is validated against the schemas in the Ehcache jar
+            hints.resources().registerPattern("ehcache-core.xsd");
+            hints.resources().registerPattern("ehcache-107-ext.xsd");
+            
+            // Flight Recorder reads the fields of an event class for its metadata (build with JFR enabled, see pom.xml)
+            for (Class<?> event : new Class<?>[] {PasswordHashEvent.class, RateLimitEvent.class, TokenRefreshEvent.class,
+                    TokenVerificationEvent.class, UserLoadEvent.class}) {
+                hints.reflection().registerType(event, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+        }
+        
+        private static List<String> ehcacheXmlModelTypes(ClassLoader classLoader) {
+            try {
+                List<String> types = new ArrayList<>();
+                for (Resource resource : new PathMatchingResourcePatternResolver(classLoader).getResources(EHCACHE_XML_MODEL)) {
+                    String fileName = resource.getFilename();
+                    if (fileName != null && !fileName.equals("package-info.class")) {
+                        types.add("org.ehcache.xml.model." + fileName.substring(0, fileName.length() - ".class".length()));
+                    }
+                }
+                return types;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
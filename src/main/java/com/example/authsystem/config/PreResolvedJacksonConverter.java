@@ -0,0 +1,81 @@
+package com.example.authsystem.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes a fixed set of hot-path DTOs with {@link ObjectReader}/{@link ObjectWriter}
+ * instances resolved once at startup. The generic Jackson converters build a writer or reader,
+ * resolve the Java type and look up the root (de)serializer on every call; here all of that has
+ * already happened, so a request only pays for the encoding itself.
+ * <p>
+ * One instance per media type; the mapper decides the encoding (JSON, CBOR or Smile). Any other
+ * type falls through to the regular converters.
+ */
+public class PreResolvedJacksonConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final Map<Class<?>, ObjectWriter> writers = new HashMap<>();
+    private final Map<Class<?>, ObjectReader> readers = new HashMap<>();
+
+    public PreResolvedJacksonConverter(ObjectMapper objectMapper, MediaType mediaType,
+                                       Set<Class<?>> responseTypes, Set<Class<?>> requestTypes) {
+        super(mediaType);
+        // writerFor/readerFor fetch the root serializer/deserializer eagerly
+        for (Class<?> type : responseTypes) {
+            writers.put(type, objectMapper.writerFor(type));
+        }
+        for (Class<?> type : requestTypes) {
+            readers.put(type, objectMapper.readerFor(type));
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return writers.containsKey(clazz) || readers.containsKey(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return readers.containsKey(clazz) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return writers.containsKey(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return readers.get(clazz).readValue(inputMessage.getBody());
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotReadableException("Could not read " + clazz.getSimpleName() + ": "
+                    + ex.getOriginalMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        try {
+            // The container closes the stream; closing it here would commit the response early
+            writers.get(value.getClass()).writeValue(StreamUtils.nonClosing(outputMessage.getBody()), value);
+        } catch (JsonProcessingException ex) {
+            throw new HttpMessageNotWritableException("Could not write " + value.getClass().getSimpleName()
+                    + ": " + ex.getOriginalMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.authsystem.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-endpoint budget of SQL statements and JDBC connections. Open-in-view is off, so every
+ * endpoint must load what it renders in its own fetch plan; a lazy association touched later
+ * either fails or, inside a transaction, shows up here as extra statements. Each request logs
+ * its counts at DEBUG and warns when it exceeds its budget. With {@code fail-on-exceed} the
+ * offending statement fails instead, so an N+1 regression breaks the request that introduced it.
+ * <p>
+ * Off unless {@code jpa.query-budget.enabled} is set. The budgets are enforced by
+ * {@code QueryBudgetTest} in the build; turn this on in a running environment only to find out
+ * which endpoint a production query pattern comes from.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+@ConditionalOnProperty(name = "jpa.query-budget.enabled", havingValue = "true")
+public class QueryBudgetConfig implements WebMvcConfigurer {
+    
+    @Autowired
+    private QueryBudgetProperties properties;
+    
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                QueryCountingSessionListener.class.getName());
+    }
+    
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter() {
+        FilterRegistrationBean<QueryBudgetFilter> registration =
+                new FilterRegistrationBean<>(new QueryBudgetFilter(properties));
+        // Outside the security chain, so the token's user lookup is counted as part of the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                QueryCounter counter = QueryCounter.current();
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                if (counter != null && pattern != null) {
+                    String endpoint = request.getMethod() + " " + pattern;
+                    counter.assign(endpoint, properties.budgetFor(endpoint));
+                }
+                return true;
+            }
+        });
+    }
+}
\ No newline at end of file
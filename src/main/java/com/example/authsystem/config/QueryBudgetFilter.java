@@ -0,0 +1,54 @@
+package com.example.authsystem.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements and connections of each request and reports them against the
+ * endpoint's budget. Registered by {@link QueryBudgetConfig}.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+    
+    /** Request attribute holding the request's {@link QueryCounter} once the request is done. */
+    public static final String COUNTER_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".counter";
+    
+    private final QueryBudgetProperties properties;
+    
+    public QueryBudgetFilter(QueryBudgetProperties properties) {
+        this.properties = properties;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+        QueryCounter counter = QueryCounter.start(endpoint, properties.getDefaults(), properties.isFailOnExceed());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter.stop();
+            request.setAttribute(COUNTER_ATTRIBUTE, counter);
+            report(counter);
+        }
+    }
+    
+    private void report(QueryCounter counter) {
+        if (counter.isExceeded()) {
+            logger.warn("Query budget exceeded: endpoint={}, statements={}/{}, connections={}/{}",
+                    counter.getEndpoint(), counter.getStatements(), counter.getBudget().getStatements(),
+                    counter.getConnections(), counter.getBudget().getConnections());
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Request SQL: endpoint={}, statements={}, connections={}",
+                    counter.getEndpoint(), counter.getStatements(), counter.getConnections());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.authsystem.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "jpa.query-budget")
+public class QueryBudgetProperties {
+    
+    /** Count the SQL statements and connections of every request and compare them with the budgets below. */
+    private boolean enabled = false;
+    
+    /** Fail the statement that exceeds the budget instead of logging a warning (development and CI). */
+    private boolean failOnExceed = false;
+    
+    /** Budget for endpoints that are not listed under endpoints. */
+    private Budget defaults = new Budget();
+    
+    /** Budgets keyed by "METHOD /path/pattern", as mapped in the controllers (e.g. "GET /users/{id}"). */
+    private Map<String, Budget> endpoints = new LinkedHashMap<>();
+    
+    public Budget budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaults);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public boolean isFailOnExceed() {
+        return failOnExceed;
+    }
+    
+    public void setFailOnExceed(boolean failOnExceed) {
+        this.failOnExceed = failOnExceed;
+    }
+    
+    public Budget getDefaults() {
+        return defaults;
+    }
+    
+    public void setDefaults(Budget defaults) {
+        this.defaults = defaults;
+    }
+    
+    public Map<String, Budget> getEndpoints() {
+        return endpoints;
+    }
+    
+    public void setEndpoints(Map<String, Budget> endpoints) {
+        this.endpoints = endpoints;
+    }
+    
+    public static class Budget {
+        /** Statements sent to the database, counting a JDBC batch once. Second-level cache hits are free. */
+        private int statements = 10;
+        /** JDBC connections acquired; every transaction and every shard visited takes one. */
+        private int connections = 4;
+        
+        public int getStatements() { return statements; }
+        public void setStatements(int statements) { this.statements = statements; }
+        
+        public int getConnections() { return connections; }
+        public void setConnections(int connections) { this.connections = connections; }
+    }
+}
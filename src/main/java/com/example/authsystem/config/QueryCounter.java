@@ -0,0 +1,93 @@
+package com.example.authsystem.config;
+
+/**
+ * SQL statements and connections used by the current request, fed by
+ * {@link QueryCountingSessionListener}. Work on threads without a started counter, such as the
+ * outbox worker, is not counted.
+ */
+public final class QueryCounter {
+    
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+    
+    private final boolean failOnExceed;
+    
+    private String endpoint;
+    
+    private QueryBudgetProperties.Budget budget;
+    
+    private int statements;
+    
+    private int connections;
+    
+    private QueryCounter(String endpoint, QueryBudgetProperties.Budget budget, boolean failOnExceed) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+        this.failOnExceed = failOnExceed;
+    }
+    
+    static QueryCounter start(String endpoint, QueryBudgetProperties.Budget budget, boolean failOnExceed) {
+        QueryCounter counter = new QueryCounter(endpoint, budget, failOnExceed);
+        CURRENT.set(counter);
+        return counter;
+    }
+    
+    static QueryCounter current() {
+        return CURRENT.get();
+    }
+    
+    static void stop() {
+        CURRENT.remove();
+    }
+    
+    static void statementExecuted() {
+        QueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.statements++;
+            counter.checkBudget();
+        }
+    }
+    
+    static void connectionAcquired() {
+        QueryCounter counter = CURRENT.get();
+        if (counter != null) {
+            counter.connections++;
+            counter.checkBudget();
+        }
+    }
+    
+    /**
+     * Switches to the budget of the handler once it is known; statements run by the security
+     * filters before that count against it too.
+     */
+    void assign(String endpoint, QueryBudgetProperties.Budget budget) {
+        this.endpoint = endpoint;
+        this.budget = budget;
+    }
+    
+    boolean isExceeded() {
+        return statements > budget.getStatements() || connections > budget.getConnections();
+    }
+    
+    private void checkBudget() {
+        if (failOnExceed && isExceeded()) {
+            throw new IllegalStateException("Query budget exceeded for " + endpoint + ": statements=" + statements
+                    + "/" + budget.getStatements() + ", connections=" + connections + "/" + budget.getConnections());
+        }
+    }
+    
+    public String getEndpoint() {
+        return endpoint;
+    }
+    
+    public QueryBudgetProperties.Budget getBudget() {
+        return budget;
+    }
+    
+    public int getStatements() {
+        return statements;
+    }
+    
+    public int getConnections() {
+        return connections;
+    }
+}
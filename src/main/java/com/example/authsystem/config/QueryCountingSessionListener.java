@@ -0,0 +1,24 @@
+package com.example.authsystem.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Registered through {@code hibernate.session.events.auto}, so Hibernate creates one per session.
+ */
+public class QueryCountingSessionListener implements SessionEventListener {
+    
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        QueryCounter.connectionAcquired();
+    }
+    
+    @Override
+    public void jdbcExecuteStatementStart() {
+        QueryCounter.statementExecuted();
+    }
+    
+    @Override
+    public void jdbcExecuteBatchStart() {
+        QueryCounter.statementExecuted();
+    }
+}
@@ -1,14 +1,21 @@
 package com.example.authsystem.config;
 
+import com.example.authsystem.exception.PreEncodedErrorResponse;
+import com.example.authsystem.jfr.AuthEvents;
+import com.example.authsystem.jfr.RateLimitEvent;
+import com.example.authsystem.util.ServerTiming;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.Bucket4j;
 import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.http.HttpStatus;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -20,8 +27,31 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class RateLimitingConfig extends OncePerRequestFilter {
     
+    private static final String AUTH_POLICY = "auth-per-client";
+    
     private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Counter allowedCounter;
+    
+    private Counter rejectedCounter;
+    
+    @PostConstruct
+    void registerMeters() {
+        allowedCounter = requestCounter("allowed");
+        rejectedCounter = requestCounter("rejected");
+    }
+    
+    private Counter requestCounter(String outcome) {
+        return Counter.builder("auth.rate_limit.requests")
+                .description("Requests checked against a rate limit policy")
+                .tag("policy", AUTH_POLICY)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
@@ -31,14 +61,26 @@ public class RateLimitingConfig extends OncePerRequestFilter {
         
         // Apply rate limiting only to auth endpoints
         if (requestURI.startsWith("/api/auth/")) {
+            RateLimitEvent event = new RateLimitEvent();
+            event.begin();
+            long start = System.nanoTime();
             Bucket bucket = getBucket(clientId);
+            boolean allowed = bucket.tryConsume(1);
+            ServerTiming.record(ServerTiming.from(request), ServerTiming.RATE_LIMIT, start);
+            if (event.shouldCommit()) {
+                event.policy = AUTH_POLICY;
+                event.outcome = allowed ? "allowed" : "rejected";
+                event.clientHash = AuthEvents.hash(clientId);
+                event.remainingTokens = bucket.getAvailableTokens();
+                event.commit();
+            }
             
-            if (bucket.tryConsume(1)) {
+            if (allowed) {
+                allowedCounter.increment();
                 filterChain.doFilter(request, response);
             } else {
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\":\"Too many requests. Please try again later.\"}");
+                rejectedCounter.increment();
+                PreEncodedErrorResponse.TOO_MANY_REQUESTS.write(response, request.getRequestURI());
                 return;
             }
         } else {
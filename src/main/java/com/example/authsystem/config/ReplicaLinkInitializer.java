@@ -0,0 +1,70 @@
+package com.example.authsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Development helper for the local replica demo: each H2 replica is its own in-memory database,
+ * and this exposes the primary's tables in it as read-only linked tables. Reads routed to a
+ * replica then really run on the replica's connection while seeing the primary's rows, standing
+ * in for replication. Production replicas are fed by the database's own replication.
+ */
+public class ReplicaLinkInitializer implements InitializingBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLinkInitializer.class);
+    
+    private final HikariDataSource primaryDataSource;
+    
+    private final ReplicaRoutingProperties routingProperties;
+    
+    public ReplicaLinkInitializer(HikariDataSource primaryDataSource, ReplicaRoutingProperties routingProperties) {
+        this.primaryDataSource = primaryDataSource;
+        this.routingProperties = routingProperties;
+    }
+    
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        List<String> tables = primaryTables();
+        for (ReplicaRoutingProperties.Replica replica : routingProperties.getReplicas()) {
+            try (Connection connection = DriverManager.getConnection(replica.getUrl(), replica.getUsername(),
+                    replica.getPassword());
+                 Statement statement = connection.createStatement()) {
+                for (String table : tables) {
+                    statement.execute("CREATE LINKED TABLE IF NOT EXISTS " + table + "('', "
+                            + literal(primaryDataSource.getJdbcUrl()) + ", "
+                            + literal(primaryDataSource.getUsername()) + ", "
+                            + literal(primaryDataSource.getPassword()) + ", 'PUBLIC', "
+                            + literal(table) + ") READONLY");
+                }
+            }
+            logger.info("Linked replica to primary: replica={}, tables={}", replica.getUrl(), tables.size());
+        }
+    }
+    
+    private List<String> primaryTables() throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Connection connection = primaryDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+                     + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString(1));
+            }
+        }
+        return tables;
+    }
+    
+    private static String literal(String value) {
+        return value == null ? "''" : "'" + value.replace("'", "''") + "'";
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.authsystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ * <p>
+ * Must be wrapped in a {@code LazyConnectionDataSourceProxy} so the lookup key is resolved
+ * after Spring has marked the transaction read-only. Replicas that fail the health check or
+ * report lag above {@code max-lag-ms} are skipped; if none are usable, reads go to the primary.
+ * After an authenticated user commits a write, that user's reads stay on the primary for
+ * {@code read-your-writes-window-ms}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    
+    static final String PRIMARY = "primary";
+    
+    private final List<String> replicaKeys;
+    
+    private final Map<String, DataSource> replicas;
+    
+    private final Map<String, Boolean> replicaHealth = new ConcurrentHashMap<>();
+    
+    private final Map<String, Long> primaryPins = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    
+    private final ReplicaRoutingProperties properties;
+    
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReplicaRoutingProperties properties) {
+        this.replicas = replicas;
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.properties = properties;
+        
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        
+        // Replicas start out unproven; the first health check enables them
+        replicaKeys.forEach(key -> replicaHealth.put(key, false));
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinCurrentUserAfterCommit();
+            return PRIMARY;
+        }
+        
+        String user = currentUser();
+        if (user != null) {
+            Long pinnedUntil = primaryPins.get(user);
+            if (pinnedUntil != null && pinnedUntil > System.currentTimeMillis()) {
+                return PRIMARY;
+            }
+        }
+        
+        int size = replicaKeys.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (replicaHealth.getOrDefault(key, false)) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+    
+    @Scheduled(fixedDelayString = "${datasource.routing.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (String key : replicaKeys) {
+            boolean healthy = isHealthy(key, replicas.get(key));
+            Boolean previous = replicaHealth.put(key, healthy);
+            if (previous == null || previous != healthy) {
+                logger.info("Replica health changed: replica={}, healthy={}", key, healthy);
+            }
+        }
+        
+        long now = System.currentTimeMillis();
+        primaryPins.values().removeIf(pinnedUntil -> pinnedUntil <= now);
+    }
+    
+    @Override
+    public void destroy() throws Exception {
+        // Replica pools are not beans, so close them here; the primary is closed by the container
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+    
+    private boolean isHealthy(String key, DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(2)) {
+                return false;
+            }
+            
+            String lagQuery = properties.getLagQuery();
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return false;
+                }
+                double lagSeconds = resultSet.getDouble(1);
+                if (resultSet.wasNull() || lagSeconds * 1000 > properties.getMaxLagMs()) {
+                    logger.warn("Replica lagging: replica={}, lagSeconds={}", key, resultSet.wasNull() ? "unknown" : lagSeconds);
+                    return false;
+                }
+                return true;
+            }
+        } catch (Exception e) {
+            logger.warn("Replica health check failed: replica={}, error=\"{}\"", key, e.getMessage());
+            return false;
+        }
+    }
+    
+    private void pinCurrentUserAfterCommit() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                primaryPins.put(user, System.currentTimeMillis() + properties.getReadYourWritesWindowMs());
+            }
+        });
+    }
+    
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
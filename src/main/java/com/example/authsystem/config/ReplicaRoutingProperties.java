@@ -0,0 +1,103 @@
+package com.example.authsystem.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "datasource.routing")
+public class ReplicaRoutingProperties {
+    
+    /** Route read-only transactions to replicas. When false the single spring.datasource is used. */
+    private boolean enabled = false;
+    
+    private List<Replica> replicas = new ArrayList<>();
+    
+    private long healthCheckIntervalMs = 5000;
+    
+    /** Optional query returning replication lag in seconds as its first column. */
+    private String lagQuery;
+    
+    private long maxLagMs = 2000;
+    
+    /** How long reads from a user are pinned to the primary after that user's own write. */
+    private long readYourWritesWindowMs = 5000;
+    
+    /** Link the primary's tables into each H2 replica at startup (local demo only). */
+    private boolean linkTablesToPrimary = false;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+    
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+    
+    public long getHealthCheckIntervalMs() {
+        return healthCheckIntervalMs;
+    }
+    
+    public void setHealthCheckIntervalMs(long healthCheckIntervalMs) {
+        this.healthCheckIntervalMs = healthCheckIntervalMs;
+    }
+    
+    public String getLagQuery() {
+        return lagQuery;
+    }
+    
+    public void setLagQuery(String lagQuery) {
+        this.lagQuery = lagQuery;
+    }
+    
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+    
+    public void setMaxLagMs(long maxLagMs) {
+        this.maxLagMs = maxLagMs;
+    }
+    
+    public long getReadYourWritesWindowMs() {
+        return readYourWritesWindowMs;
+    }
+    
+    public void setReadYourWritesWindowMs(long readYourWritesWindowMs) {
+        this.readYourWritesWindowMs = readYourWritesWindowMs;
+    }
+    
+    public boolean isLinkTablesToPrimary() {
+        return linkTablesToPrimary;
+    }
+    
+    public void setLinkTablesToPrimary(boolean linkTablesToPrimary) {
+        this.linkTablesToPrimary = linkTablesToPrimary;
+    }
+    
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.authsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request phase timings (rate limiting, token checks, user lookups, bcrypt, refresh token
+ * writes, JWT signing) for the {@code Server-Timing} header and the slow-request log.
+ */
+@Configuration
+@ConditionalOnProperty(name = "server-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig {
+    
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            @Value("${server-timing.slow-request-threshold-ms:1000}") long slowRequestThresholdMs,
+            @Value("${server-timing.expose-to-all:false}") boolean exposeToAll) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(slowRequestThresholdMs, exposeToAll));
+        // Outermost, so the total includes every other filter
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.util.ServerTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Collects the {@link ServerTiming} phases of each request. Admins get them in a
+ * {@code Server-Timing} header, and requests slower than the threshold are logged with their
+ * phases. Registered by {@link ServerTimingConfig}.
+ * <p>
+ * The header is added when the response is committed, so it covers the phases recorded until
+ * the body starts being written; the caller's role is read from the security context then.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ServerTimingFilter.class);
+    
+    private static final String HEADER = "Server-Timing";
+    
+    private final long slowRequestThresholdNanos;
+    
+    private final boolean exposeToAll;
+    
+    public ServerTimingFilter(long slowRequestThresholdMs, boolean exposeToAll) {
+        this.slowRequestThresholdNanos = slowRequestThresholdMs * 1_000_000;
+        this.exposeToAll = exposeToAll;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        ServerTiming timing = new ServerTiming();
+        request.setAttribute(ServerTiming.ATTRIBUTE, timing);
+        
+        HttpServletResponse timedResponse = new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                if (exposeToAll || isAdmin()) {
+                    response.setHeader(HEADER, timing.toHeaderValue());
+                }
+            }
+        };
+        
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            if (!isAsyncStarted(request)) {
+                logIfSlow(request, response, timing);
+            }
+        }
+    }
+    
+    private boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void logIfSlow(HttpServletRequest request, HttpServletResponse response, ServerTiming timing) {
+        long elapsedNanos = timing.getElapsedNanos();
+        if (elapsedNanos >= slowRequestThresholdNanos) {
+            logger.warn("Slow request: method={}, uri={}, status={}, durationMs={}, phases=\"{}\"",
+                    request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    elapsedNanos / 1_000_000, timing.toLogValue());
+        }
+    }
+}
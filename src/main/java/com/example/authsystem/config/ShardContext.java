@@ -0,0 +1,51 @@
+package com.example.authsystem.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the shard the current thread's next database connection should come from.
+ * <p>
+ * Per-user flows call {@link #set(int)} once they know the user's shard and leave it in place
+ * for the rest of the request (so lazy loads hit the same shard); {@code AuthTokenFilter}
+ * clears it when the request ends. Cross-shard work uses {@link #callOn(int, Supplier)}, which
+ * restores the previous value.
+ */
+public final class ShardContext {
+    
+    /**
+     * User ids carry their shard in the bits above this position: each shard's {@code users_seq}
+     * starts at {@code shard << SHARD_ID_SHIFT}, so {@code id >>> SHARD_ID_SHIFT} is the shard.
+     */
+    public static final int SHARD_ID_SHIFT = 40;
+    
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+    
+    private ShardContext() {}
+    
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+    
+    public static void set(int shard) {
+        CURRENT.set(shard);
+    }
+    
+    public static void clear() {
+        CURRENT.remove();
+    }
+    
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.authsystem.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.tool.schema.Action;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Development helper that creates the entity schema on shards 1..n (shard 0 is handled by
+ * {@code spring.jpa.hibernate.ddl-auto}) and moves each shard's {@code users_seq} into its own
+ * id range. Production shards are expected to be provisioned by migrations.
+ */
+public class ShardSchemaInitializer implements InitializingBean {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+    
+    private final EntityManagerFactory entityManagerFactory;
+    
+    private final ShardRoutingDataSource shardRoutingDataSource;
+    
+    private final String dialect;
+    
+    public ShardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                  ShardRoutingDataSource shardRoutingDataSource,
+                                  String dialect) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.shardRoutingDataSource = shardRoutingDataSource;
+        this.dialect = dialect;
+    }
+    
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        List<DataSource> shards = shardRoutingDataSource.getShards();
+        for (int shard = 1; shard < shards.size(); shard++) {
+            createSchema(shards.get(shard));
+            restartUserSequence(shards.get(shard), shard);
+            logger.info("Initialized shard schema: shard={}", shard);
+        }
+    }
+    
+    private void createSchema(DataSource dataSource) {
+        StandardServiceRegistryBuilder builder = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+                        CamelCaseToUnderscoresNamingStrategy.class.getName())
+                .applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY,
+                        SpringImplicitNamingStrategy.class.getName());
+        if (StringUtils.hasText(dialect)) {
+            builder.applySetting(AvailableSettings.DIALECT, dialect);
+        }
+        
+        StandardServiceRegistry registry = builder.build();
+        try {
+            MetadataSources sources = new MetadataSources(registry);
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                sources.addAnnotatedClass(entity.getJavaType());
+            }
+            Map<String, Object> settings = Map.of(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION, Action.CREATE);
+            SchemaManagementToolCoordinator.process(sources.buildMetadata(), registry, settings, action -> {});
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+    
+    private void restartUserSequence(DataSource dataSource, int shard) throws SQLException {
+        // The pooled optimizer hands out the block ending at the value it reads, so leave headroom
+        // below the first value for one block or ids would dip into the previous shard's range
+        long start = ((long) shard << ShardContext.SHARD_ID_SHIFT) + 1000;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE users_seq RESTART WITH " + start);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.authsystem.config;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Generates the id from a pooled database sequence through {@link ShardSequenceGenerator}.
+ */
+@IdGeneratorType(ShardSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface ShardSequence {
+    
+    /** Name of the database sequence. */
+    String name();
+    
+    /** Values preallocated per round trip; must match the sequence's {@code INCREMENT BY}. */
+    int incrementSize() default 50;
+}
@@ -0,0 +1,50 @@
+package com.example.authsystem.config;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pooled sequence generator that keeps one block of preallocated values per shard.
+ * <p>
+ * The stock optimizer caches a single block for the whole session factory, so values fetched
+ * from one shard's sequence would be handed out for rows on another. Keying the optimizer by
+ * {@link ShardContext} keeps every id inside the range of the shard it is stored on. Without
+ * sharding only shard 0 is ever used and this behaves like the standard pooled generator.
+ * Applied through {@link ShardSequence}.
+ */
+public class ShardSequenceGenerator extends SequenceStyleGenerator {
+    
+    private final Map<Integer, Optimizer> optimizers = new ConcurrentHashMap<>();
+    
+    private final ShardSequence config;
+    
+    public ShardSequenceGenerator(ShardSequence config, Member member, CustomIdGeneratorCreationContext context) {
+        this.config = config;
+    }
+    
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        parameters.put(SEQUENCE_PARAM, config.name());
+        parameters.put(INCREMENT_PARAM, String.valueOf(config.incrementSize()));
+        super.configure(type, parameters, serviceRegistry);
+    }
+    
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        Optimizer optimizer = optimizers.computeIfAbsent(ShardContext.current(), shard ->
+                OptimizerFactory.buildOptimizer(StandardOptimizerDescriptor.POOLED,
+                        getIdentifierType().getReturnedClass(), getOptimizer().getIncrementSize(), 1));
+        return optimizer.generate(getDatabaseStructure().buildCallback(session));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.authsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured DataSource with a shard router when
+ * {@code datasource.sharding.enabled=true}. Shard 0 is still configured through
+ * {@code spring.datasource.*}; the properties are always bound so the router can report a
+ * single shard when sharding is off.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+    
+    @Configuration
+    @ConditionalOnProperty(name = "datasource.sharding.enabled", havingValue = "true")
+    static class ShardDataSourceConfig {
+        
+        ShardDataSourceConfig(@Value("${datasource.routing.enabled:false}") boolean replicaRoutingEnabled) {
+            if (replicaRoutingEnabled) {
+                throw new IllegalStateException(
+                        "datasource.sharding and datasource.routing cannot be enabled together");
+            }
+        }
+        
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource shardZeroDataSource(DataSourceProperties dataSourceProperties) {
+            HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            dataSource.setPoolName("shard-0");
+            return dataSource;
+        }
+        
+        @Bean
+        public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource shardZeroDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ShardingProperties shardingProperties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+            List<DataSource> shards = new ArrayList<>();
+            shards.add(shardZeroDataSource);
+            
+            List<ShardingProperties.Shard> configured = shardingProperties.getShards();
+            for (int i = 0; i < configured.size(); i++) {
+                ShardingProperties.Shard shard = configured.get(i);
+                
+                HikariDataSource dataSource = new HikariDataSource();
+                dataSource.setPoolName("shard-" + (i + 1));
+                dataSource.setJdbcUrl(shard.getUrl());
+                dataSource.setUsername(shard.getUsername());
+                dataSource.setPassword(shard.getPassword());
+                dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+                dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+                // Driver properties such as MySQL's useCursorFetch come from spring.datasource.hikari
+                dataSource.setDataSourceProperties(shardZeroDataSource.getDataSourceProperties());
+                // Not a bean, so Boot's pool metrics binder does not see it
+                meterRegistry.ifAvailable(dataSource::setMetricRegistry);
+                shards.add(dataSource);
+            }
+            
+            return new ShardRoutingDataSource(shards);
+        }
+        
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            // Defer the physical connection until the first statement so the shard is known
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+        
+        @Bean
+        @ConditionalOnProperty(name = "datasource.sharding.initialize-schema", havingValue = "true")
+        public ShardSchemaInitializer shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                             ShardRoutingDataSource shardRoutingDataSource,
+                                                             @Value("${spring.jpa.database-platform:}") String dialect) {
+            return new ShardSchemaInitializer(entityManagerFactory, shardRoutingDataSource, dialect);
+        }
+    }
+}
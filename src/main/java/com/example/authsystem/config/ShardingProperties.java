@@ -0,0 +1,73 @@
+package com.example.authsystem.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "datasource.sharding")
+public class ShardingProperties {
+    
+    /** Spread users over several databases. When false the single spring.datasource is used. */
+    private boolean enabled = false;
+    
+    /** Shards 1..n; shard 0 is spring.datasource and also holds the global user directory. */
+    private List<Shard> shards = new ArrayList<>();
+    
+    /** Points per shard on the consistent-hash ring. */
+    private int virtualNodes = 128;
+    
+    /** Create the schema on shards 1..n at startup (development only). */
+    private boolean initializeSchema = false;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public List<Shard> getShards() {
+        return shards;
+    }
+    
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+    
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+    
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+    
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+    
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+    
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.dto.request.LoginRequest;
+import com.example.authsystem.dto.response.JwtResponse;
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.service.RefreshTokenService;
+import com.example.authsystem.service.UserDetailsServiceImpl;
+import com.example.authsystem.service.UserService;
+import com.example.authsystem.util.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Drives the sign-in and token validation paths through the real beans before the node takes
+ * traffic, so their first real requests do not run interpreted.
+ * <p>
+ * Runs on the {@link ApplicationReadyEvent}, after {@link DataInitializer}. Spring Boot switches
+ * the readiness state to ACCEPTING_TRAFFIC only once the ready listeners have returned, so
+ * {@code /actuator/health/readiness} keeps reporting OUT_OF_SERVICE until the warm-up is done.
+ * Failures are logged and end the warm-up early; they never prevent startup.
+ */
+@Component
+@ConditionalOnProperty(name = "warmup.enabled", havingValue = "true")
+public class WarmUpRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpRunner.class);
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private RoleRepository roleRepository;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Value("${warmup.iterations:5000}")
+    private int iterations;
+    
+    @Value("${warmup.max-duration-ms:30000}")
+    private long maxDurationMs;
+    
+    @Value("${warmup.query-interval:10}")
+    private int queryInterval;
+    
+    @Value("${warmup.bcrypt-checks:10}")
+    private int bcryptChecks;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order
+    public void warmUp() {
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + maxDurationMs * 1_000_000;
+        int completed = 0;
+        int bcryptDone = 0;
+        
+        try {
+            User user = warmUpUser();
+            String seededUsername = firstSeededUsername();
+            
+            for (; bcryptDone < bcryptChecks && System.nanoTime() < deadline; bcryptDone++) {
+                passwordEncoder.matches("warm-up-password", user.getPassword());
+            }
+            
+            LoginRequest loginRequest = new LoginRequest();
+            loginRequest.setUsernameOrEmail(user.getUsername());
+            loginRequest.setPassword("warm-up-password");
+            String loginJson = objectMapper.writeValueAsString(loginRequest);
+            
+            for (; completed < iterations && System.nanoTime() < deadline; completed++) {
+                String token = jwtUtils.generateTokenFromUsername(user.getUsername(), user);
+                jwtUtils.validateJwtToken(token);
+                jwtUtils.getUserNameFromJwtToken(token);
+                
+                objectMapper.readValue(loginJson, LoginRequest.class);
+                objectMapper.writeValueAsString(new JwtResponse(token, "warm-up", user.getId(), user.getUsername(),
+                        user.getEmail(), user.getAuthorities().stream()
+                                .map(GrantedAuthority::getAuthority)
+                                .collect(Collectors.toSet())));
+                UserInfoResponse userInfo = userService.convertToUserInfoResponse(user);
+                objectMapper.writeValueAsString(userInfo);
+                
+                if (completed % queryInterval == 0) {
+                    runQueries(seededUsername);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Warm-up stopped early: iterations={}, error={}", completed, e.getMessage());
+        } finally {
+            ShardContext.clear();
+        }
+        
+        logger.info("Warm-up finished: iterations={}, bcryptChecks={}, durationMs={}",
+                completed, bcryptDone, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+    
+    /**
+     * An unsaved user with every role. Loading the roles also fills the role caches.
+     */
+    private User warmUpUser() {
+        Set<Role> roles = new HashSet<>();
+        for (Role.RoleName roleName : Role.RoleName.values()) {
+            roleRepository.findByName(roleName).ifPresent(roles::add);
+        }
+        User user = new User("warm-up", "warm-up@example.invalid", passwordEncoder.encode("warm-up-password"));
+        user.setId(0L);
+        user.setRoles(roles);
+        return user;
+    }
+    
+    private String firstSeededUsername() {
+        List<UserInfoResponse> users = userService.getUsersPage(null, 1, null, null, null, null).getUsers();
+        return users.isEmpty() ? null : users.get(0).getUsername();
+    }
+    
+    private void runQueries(String seededUsername) {
+        if (seededUsername != null) {
+            // The lookup every authenticated request makes; it always reads the database
+            userDetailsService.loadUserByUsername(seededUsername);
+        }
+        refreshTokenService.findByToken("warm-up-unknown-token");
+        userService.getUsersPage(null, 10, null, null, null, null);
+        ShardContext.clear();
+    }
+}
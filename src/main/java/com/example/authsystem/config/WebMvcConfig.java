@@ -0,0 +1,38 @@
+package com.example.authsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.ConverterFactory;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Locale;
+
+/**
+ * Request parameter binding. Enum parameters such as {@code /users/export?format=csv} match their
+ * constants regardless of case; an unknown value still fails and is answered with a 400 by
+ * {@link com.example.authsystem.exception.GlobalExceptionHandler}.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverterFactory(new CaseInsensitiveEnumConverterFactory());
+    }
+    
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static class CaseInsensitiveEnumConverterFactory implements ConverterFactory<String, Enum> {
+        
+        @Override
+        public <T extends Enum> Converter<String, T> getConverter(Class<T> targetType) {
+            return source -> {
+                String value = source.trim();
+                if (value.isEmpty()) {
+                    return null;
+                }
+                return (T) Enum.valueOf(targetType, value.toUpperCase(Locale.ROOT));
+            };
+        }
+    }
+}
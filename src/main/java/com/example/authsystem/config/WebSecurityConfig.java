@@ -1,5 +1,6 @@
 package com.example.authsystem.config;
 
+import com.example.authsystem.exception.PreEncodedErrorResponse;
 import com.example.authsystem.security.AuthEntryPointJwt;
 import com.example.authsystem.security.AuthTokenFilter;
 import com.example.authsystem.service.CustomAuthenticationProvider;
@@ -46,6 +47,9 @@ public class WebSecurityConfig {
     @Autowired
     private RateLimitingConfig rateLimitingFilter;
     
+    @Autowired
+    private ConcurrencyLimitingConfig concurrencyLimitingFilter;
+    
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
         return authConfig.getAuthenticationManager();
@@ -71,7 +75,9 @@ public class WebSecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(AbstractHttpConfigurer::disable)
-            .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
+            .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler)
+                    .accessDeniedHandler((request, response, accessDeniedException) ->
+                            PreEncodedErrorResponse.ACCESS_DENIED.write(response, request.getRequestURI())))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
                 auth.requestMatchers("/auth/**").permitAll()
@@ -81,7 +87,8 @@ public class WebSecurityConfig {
                     .requestMatchers("/swagger-ui.html").permitAll()
                     .requestMatchers("/api-docs/**").permitAll()
                     .requestMatchers("/v3/api-docs/**").permitAll()
-                    .requestMatchers("/actuator/health").permitAll() // Only allow health check
+                    .requestMatchers("/actuator/health", "/actuator/health/liveness",
+                            "/actuator/health/readiness").permitAll() // Health checks and probes
                     .requestMatchers("/actuator/**").hasRole("ADMIN") // Secure other actuator endpoints
                     .anyRequest().authenticated()
             );
@@ -91,6 +98,7 @@ public class WebSecurityConfig {
         
         http.authenticationProvider(customAuthenticationProvider);
         http.addFilterBefore(rateLimitingFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(concurrencyLimitingFilter, UsernamePasswordAuthenticationFilter.class);
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
@@ -0,0 +1,55 @@
+package com.example.authsystem.controller;
+
+import com.example.authsystem.config.ConcurrencyLimitingConfig;
+import com.example.authsystem.dto.response.CacheRegionStatsResponse;
+import com.example.authsystem.dto.response.ConcurrencyLimitStatsResponse;
+import com.example.authsystem.service.EntityCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+@Tag(name = "Administration", description = "Operational APIs")
+@SecurityRequirement(name = "bearerAuth")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AdminController {
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    @Autowired
+    private ConcurrencyLimitingConfig concurrencyLimitingConfig;
+    
+    @Operation(summary = "Cache statistics", description = "Hit, miss and put counts per second-level cache region (Admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+    })
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<CacheRegionStatsResponse>> getCacheStatistics() {
+        return ResponseEntity.ok(entityCacheService.getRegionStatistics());
+    }
+    
+    @Operation(summary = "Concurrency limits", description = "Current adaptive concurrency limit, in-flight and shed request counts per endpoint group (Admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+    })
+    @GetMapping("/concurrency-limits")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ConcurrencyLimitStatsResponse>> getConcurrencyLimits() {
+        return ResponseEntity.ok(concurrencyLimitingConfig.getStatistics());
+    }
+}
@@ -102,16 +102,7 @@ public class AuthController {
     })
     @PostMapping("/refreshtoken")
     public ResponseEntity<?> refreshToken(@Valid @RequestBody TokenRefreshRequest request) {
-        String requestRefreshToken = request.getRefreshToken();
-        
-        return refreshTokenService.findByToken(requestRefreshToken)
-                .map(refreshTokenService::verifyExpiration)
-                .map(RefreshToken::getUser)
-                .map(user -> {
-                    String token = jwtUtils.generateTokenFromUsername(user.getUsername(), user);
-                    return ResponseEntity.ok(new TokenRefreshResponse(token, requestRefreshToken));
-                })
-                .orElseThrow(() -> new RuntimeException("Refresh token is not in database!"));
+        return ResponseEntity.ok(refreshTokenService.refreshAccessToken(request.getRefreshToken()));
     }
     
     @Operation(summary = "Logout user", description = "Logout user and invalidate refresh token")
@@ -1,9 +1,18 @@
 package com.example.authsystem.controller;
 
 import com.example.authsystem.dto.request.UpdateUserRequest;
+import com.example.authsystem.dto.request.UserBatchRequest;
 import com.example.authsystem.dto.response.MessageResponse;
+import com.example.authsystem.dto.response.UserBatchResponse;
+import com.example.authsystem.dto.response.UserImportResponse;
 import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.dto.response.UserPageResponse;
+import com.example.authsystem.dto.response.UserSearchResponse;
+import com.example.authsystem.entity.Role;
 import com.example.authsystem.entity.User;
+import com.example.authsystem.service.UserBatchService;
+import com.example.authsystem.service.UserExportService;
+import com.example.authsystem.service.UserImportService;
 import com.example.authsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,15 +21,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/users")
@@ -32,6 +47,15 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private UserBatchService userBatchService;
+    
+    @Autowired
+    private UserExportService userExportService;
+    
+    @Autowired
+    private UserImportService userImportService;
+    
     @Operation(summary = "Get current user info", description = "Get information about the currently authenticated user")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User info retrieved successfully",
@@ -49,19 +73,90 @@ public class UserController {
         return ResponseEntity.ok(userInfo);
     }
     
-    @Operation(summary = "Get all users", description = "Get list of all users (Admin only)")
+    @Operation(summary = "List users", description = "Get a page of users ordered by id, optionally filtered (Admin only). " +
+            "Pass the returned nextCursor to fetch the following page; it is null on the last page.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @ApiResponse(responseCode = "200", description = "Users retrieved successfully",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = UserPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or filter"),
         @ApiResponse(responseCode = "401", description = "Unauthorized"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
     })
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserInfoResponse>> getAllUsers() {
-        List<UserInfoResponse> users = userService.getAllUsers();
+    public ResponseEntity<UserPageResponse> getAllUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Role.RoleName role,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        UserPageResponse users = userService.getUsersPage(cursor, size, role, enabled, createdFrom, createdTo);
         return ResponseEntity.ok(users);
     }
     
+    @Operation(summary = "Search users", description = "Prefix search over username, email, first and last name (Admin only). " +
+            "Every whitespace-separated term must match; best matches come first.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Search results",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = UserSearchResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+    })
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserSearchResponse> searchUsers(@RequestParam String q,
+                                                          @RequestParam(defaultValue = "0") int page,
+                                                          @RequestParam(defaultValue = "20") int size) {
+        UserSearchResponse results = userService.searchUsers(q, page, size);
+        return ResponseEntity.ok(results);
+    }
+    
+    @Operation(summary = "Export users", description = "Stream every user as NDJSON or CSV (Admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+    })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportUsers(@RequestParam(defaultValue = "NDJSON") UserExportService.Format format,
+                            HttpServletResponse response) throws IOException {
+        if (format == UserExportService.Format.CSV) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"");
+        } else {
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"");
+        }
+        
+        userExportService.export(format, response.getOutputStream());
+    }
+    
+    @Operation(summary = "Import users", description = "Bulk-create users from an NDJSON or CSV body (Admin only). " +
+            "Passwords may be plain text or an existing hash prefixed with {bcrypt}.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; see the per-row error report",
+                content = @Content(mediaType = "application/json", 
+                schema = @Schema(implementation = UserImportResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid CSV header"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+    })
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResponse> importUsers(HttpServletRequest request) throws IOException {
+        UserImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.NDJSON;
+        
+        UserImportResponse report = userImportService.importUsers(format, request.getInputStream());
+        return ResponseEntity.ok(report);
+    }
+    
     @Operation(summary = "Get user by ID", description = "Get user information by ID (Admin only)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "User found",
@@ -132,4 +227,18 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.ok(new MessageResponse("User deleted successfully!"));
     }
+    
+    @Operation(summary = "Batch update users",
+               description = "Enable, disable, delete or set the roles of many users at once (Admin only)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch applied"),
+        @ApiResponse(responseCode = "400", description = "Invalid action, roles or too many ids"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required")
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserBatchResponse> batchUpdateUsers(@Valid @RequestBody UserBatchRequest batchRequest) {
+        return ResponseEntity.ok(userBatchService.apply(batchRequest));
+    }
 }
\ No newline at end of file
@@ -15,6 +15,9 @@ public class UpdateUserRequest {
     
     private String phoneNumber;
     
+    /** Version the client last read; when present the update is rejected with 409 if the user has changed since. */
+    private Long version;
+    
     public UpdateUserRequest() {}
     
     public String getEmail() {
@@ -48,4 +51,12 @@ public class UpdateUserRequest {
     public void setPhoneNumber(String phoneNumber) {
         this.phoneNumber = phoneNumber;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.example.authsystem.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.Set;
+
+public class UserBatchRequest {
+    
+    public enum Action {
+        ENABLE,
+        DISABLE,
+        DELETE,
+        SET_ROLES
+    }
+    
+    @NotNull
+    private Action action;
+    
+    @NotEmpty
+    private List<Long> ids;
+    
+    /** Replacement role set for {@code SET_ROLES}, e.g. {@code ["ROLE_USER"]}. */
+    private Set<String> roles;
+    
+    public UserBatchRequest() {}
+    
+    public Action getAction() {
+        return action;
+    }
+    
+    public void setAction(Action action) {
+        this.action = action;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public Set<String> getRoles() {
+        return roles;
+    }
+    
+    public void setRoles(Set<String> roles) {
+        this.roles = roles;
+    }
+}
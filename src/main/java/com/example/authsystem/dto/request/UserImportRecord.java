@@ -0,0 +1,93 @@
+package com.example.authsystem.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+
+public class UserImportRecord {
+    
+    @NotBlank
+    @Size(min = 3, max = 20)
+    private String username;
+    
+    @NotBlank
+    @Size(max = 50)
+    @Email
+    private String email;
+    
+    /**
+     * Either a plain-text password, or an existing hash prefixed with its encoder id,
+     * e.g. {@code {bcrypt}$2a$10$...}.
+     */
+    @NotBlank
+    @Size(max = 130)
+    private String password;
+    
+    private String firstName;
+    
+    private String lastName;
+    
+    private String phoneNumber;
+    
+    private Set<String> roles;
+    
+    public UserImportRecord() {}
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getPassword() {
+        return password;
+    }
+    
+    public void setPassword(String password) {
+        this.password = password;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+    
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+    
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+    
+    public Set<String> getRoles() {
+        return roles;
+    }
+    
+    public void setRoles(Set<String> roles) {
+        this.roles = roles;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.authsystem.dto.response;
+
+public class CacheRegionStatsResponse {
+    
+    private String region;
+    private String type;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRatio;
+    private long elementCountInMemory;
+    
+    public CacheRegionStatsResponse(String region, String type, long hitCount, long missCount, long putCount,
+                                    long elementCountInMemory) {
+        this.region = region;
+        this.type = type;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        long lookups = hitCount + missCount;
+        this.hitRatio = lookups == 0 ? 0.0 : (double) hitCount / lookups;
+        this.elementCountInMemory = elementCountInMemory;
+    }
+    
+    public String getRegion() {
+        return region;
+    }
+    
+    public void setRegion(String region) {
+        this.region = region;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public long getHitCount() {
+        return hitCount;
+    }
+    
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+    
+    public long getMissCount() {
+        return missCount;
+    }
+    
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+    
+    public long getPutCount() {
+        return putCount;
+    }
+    
+    public void setPutCount(long putCount) {
+        this.putCount = putCount;
+    }
+    
+    public double getHitRatio() {
+        return hitRatio;
+    }
+    
+    public void setHitRatio(double hitRatio) {
+        this.hitRatio = hitRatio;
+    }
+    
+    public long getElementCountInMemory() {
+        return elementCountInMemory;
+    }
+    
+    public void setElementCountInMemory(long elementCountInMemory) {
+        this.elementCountInMemory = elementCountInMemory;
+    }
+}
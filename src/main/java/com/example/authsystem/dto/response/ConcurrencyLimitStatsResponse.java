@@ -0,0 +1,79 @@
+package com.example.authsystem.dto.response;
+
+public class ConcurrencyLimitStatsResponse {
+    
+    private String group;
+    private int limit;
+    private int inFlight;
+    private long rejectedCount;
+    private long droppedCount;
+    private double shortRttMillis;
+    private double longRttMillis;
+    
+    public ConcurrencyLimitStatsResponse(String group, int limit, int inFlight, long rejectedCount, long droppedCount,
+                                         double shortRttMillis, double longRttMillis) {
+        this.group = group;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.rejectedCount = rejectedCount;
+        this.droppedCount = droppedCount;
+        this.shortRttMillis = shortRttMillis;
+        this.longRttMillis = longRttMillis;
+    }
+    
+    public String getGroup() {
+        return group;
+    }
+    
+    public void setGroup(String group) {
+        this.group = group;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight;
+    }
+    
+    public void setInFlight(int inFlight) {
+        this.inFlight = inFlight;
+    }
+    
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+    
+    public void setRejectedCount(long rejectedCount) {
+        this.rejectedCount = rejectedCount;
+    }
+    
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+    
+    public void setDroppedCount(long droppedCount) {
+        this.droppedCount = droppedCount;
+    }
+    
+    public double getShortRttMillis() {
+        return shortRttMillis;
+    }
+    
+    public void setShortRttMillis(double shortRttMillis) {
+        this.shortRttMillis = shortRttMillis;
+    }
+    
+    public double getLongRttMillis() {
+        return longRttMillis;
+    }
+    
+    public void setLongRttMillis(double longRttMillis) {
+        this.longRttMillis = longRttMillis;
+    }
+}
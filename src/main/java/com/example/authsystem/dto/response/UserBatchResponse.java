@@ -0,0 +1,38 @@
+package com.example.authsystem.dto.response;
+
+public class UserBatchResponse {
+    
+    private String action;
+    private int requested;
+    private int affected;
+    
+    public UserBatchResponse(String action, int requested, int affected) {
+        this.action = action;
+        this.requested = requested;
+        this.affected = affected;
+    }
+    
+    public String getAction() {
+        return action;
+    }
+    
+    public void setAction(String action) {
+        this.action = action;
+    }
+    
+    public int getRequested() {
+        return requested;
+    }
+    
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+    
+    public int getAffected() {
+        return affected;
+    }
+    
+    public void setAffected(int affected) {
+        this.affected = affected;
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.authsystem.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class UserInfoResponse {
     
@@ -15,6 +19,10 @@ public class UserInfoResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Only set when converted from a loaded entity; list projections leave it out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+    
     public UserInfoResponse() {}
     
     public UserInfoResponse(Long id, String username, String email, String firstName, 
@@ -31,6 +39,20 @@ public class UserInfoResponse {
         this.updatedAt = updatedAt;
     }
     
+    /**
+     * Projection constructor used by JPQL queries that aggregate role names into a
+     * comma-separated string in the same statement.
+     */
+    public UserInfoResponse(Long id, String username, String email, String firstName,
+                           String lastName, String phoneNumber, String roleNames,
+                           LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, username, email, firstName, lastName, phoneNumber,
+             roleNames == null || roleNames.isEmpty()
+                     ? Set.of()
+                     : Arrays.stream(roleNames.split(",")).collect(Collectors.toSet()),
+             createdAt, updatedAt);
+    }
+    
     public Long getId() {
         return id;
     }
@@ -102,4 +124,12 @@ public class UserInfoResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.authsystem.dto.response;
+
+import java.util.List;
+
+public class UserPageResponse {
+    
+    private List<UserInfoResponse> users;
+    private String nextCursor;
+    
+    public UserPageResponse(List<UserInfoResponse> users, String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<UserInfoResponse> getUsers() {
+        return users;
+    }
+    
+    public void setUsers(List<UserInfoResponse> users) {
+        this.users = users;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
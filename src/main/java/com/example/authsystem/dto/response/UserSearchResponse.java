@@ -0,0 +1,61 @@
+package com.example.authsystem.dto.response;
+
+import java.util.List;
+
+public class UserSearchResponse {
+    
+    private List<UserInfoResponse> users;
+    private long total;
+    private int page;
+    private int size;
+    /** A query term matched more than {@code users.search.max-candidates} users; total is a lower bound. */
+    private boolean truncated;
+    
+    public UserSearchResponse(List<UserInfoResponse> users, long total, int page, int size, boolean truncated) {
+        this.users = users;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.truncated = truncated;
+    }
+    
+    public List<UserInfoResponse> getUsers() {
+        return users;
+    }
+    
+    public void setUsers(List<UserInfoResponse> users) {
+        this.users = users;
+    }
+    
+    public long getTotal() {
+        return total;
+    }
+    
+    public void setTotal(long total) {
+        this.total = total;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public void setPage(int page) {
+        this.page = page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public void setSize(int size) {
+        this.size = size;
+    }
+    
+    public boolean isTruncated() {
+        return truncated;
+    }
+    
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+}
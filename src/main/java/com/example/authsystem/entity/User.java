@@ -1,9 +1,13 @@
 package com.example.authsystem.entity;
 
+import com.example.authsystem.config.ShardSequence;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -20,10 +24,13 @@ import java.util.stream.Collectors;
            @UniqueConstraint(columnNames = "username"),
            @UniqueConstraint(columnNames = "email")
        })
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardSequence(name = "users_seq", incrementSize = 50)
     private Long id;
     
     @NotBlank
@@ -54,6 +61,14 @@ public class User implements UserDetails {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    /**
+     * Optimistic lock. Together with {@code @DynamicUpdate}, an update writes only the changed
+     * columns and matches {@code WHERE id = ? AND version = ?}.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
+    
     @Column(name = "is_enabled")
     private boolean enabled = true;
     
@@ -66,13 +81,8 @@ public class User implements UserDetails {
     @Column(name = "is_credentials_non_expired")
     private boolean credentialsNonExpired = true;
     
-    @Column(name = "password_reset_token")
-    private String passwordResetToken;
-    
-    @Column(name = "password_reset_token_expiry")
-    private LocalDateTime passwordResetTokenExpiry;
-    
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @JoinTable(name = "user_roles",
                joinColumns = @JoinColumn(name = "user_id"),
                inverseJoinColumns = @JoinColumn(name = "role_id"))
@@ -205,6 +215,14 @@ public class User implements UserDetails {
         this.updatedAt = updatedAt;
     }
     
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
@@ -221,22 +239,6 @@ public class User implements UserDetails {
         this.credentialsNonExpired = credentialsNonExpired;
     }
     
-    public String getPasswordResetToken() {
-        return passwordResetToken;
-    }
-    
-    public void setPasswordResetToken(String passwordResetToken) {
-        this.passwordResetToken = passwordResetToken;
-    }
-    
-    public LocalDateTime getPasswordResetTokenExpiry() {
-        return passwordResetTokenExpiry;
-    }
-    
-    public void setPasswordResetTokenExpiry(LocalDateTime passwordResetTokenExpiry) {
-        this.passwordResetTokenExpiry = passwordResetTokenExpiry;
-    }
-    
     public Set<Role> getRoles() {
         return roles;
     }
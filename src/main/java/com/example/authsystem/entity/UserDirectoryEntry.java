@@ -0,0 +1,73 @@
+package com.example.authsystem.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Global lookup row mapping a login identifier ({@code u:<username>} or {@code e:<email>},
+ * lower-cased) to the shard holding the user. Lives on shard 0 only. Rows are insert-only,
+ * so a duplicate key fails instead of being merged.
+ */
+@Entity
+@Table(name = "user_directory")
+public class UserDirectoryEntry implements Persistable<String> {
+    
+    @Id
+    @Column(name = "lookup_key", length = 60)
+    private String lookupKey;
+    
+    @Column(nullable = false)
+    private int shard;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    public UserDirectoryEntry() {}
+    
+    public UserDirectoryEntry(String lookupKey, int shard) {
+        this.lookupKey = lookupKey;
+        this.shard = shard;
+    }
+    
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    @Override
+    public String getId() {
+        return lookupKey;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return createdAt == null;
+    }
+    
+    // Getters and Setters
+    public String getLookupKey() {
+        return lookupKey;
+    }
+    
+    public void setLookupKey(String lookupKey) {
+        this.lookupKey = lookupKey;
+    }
+    
+    public int getShard() {
+        return shard;
+    }
+    
+    public void setShard(int shard) {
+        this.shard = shard;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
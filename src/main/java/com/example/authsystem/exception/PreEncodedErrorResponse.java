@@ -0,0 +1,226 @@
+package com.example.authsystem.exception;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * An error body in the {@link GlobalExceptionHandler.ErrorResponse} shape for the failures that
+ * attackers and misbehaving clients trigger in bulk (401, 403, 429, 503).
+ * <p>
+ * Status, error and message never change, so they are encoded to bytes once. Writing a response
+ * only splices in the timestamp and the request path, straight into the servlet output stream:
+ * no ObjectMapper, no map or DTO, no intermediate String or Writer.
+ */
+public final class PreEncodedErrorResponse {
+
+    /** The entry point's body has always carried epoch milliseconds rather than an ISO timestamp. */
+    public static final PreEncodedErrorResponse AUTHENTICATION_REQUIRED = new PreEncodedErrorResponse(
+            HttpStatus.UNAUTHORIZED, "Full authentication is required to access this resource", null,
+            TimestampFormat.EPOCH_MILLIS);
+
+    public static final PreEncodedErrorResponse BAD_CREDENTIALS = new PreEncodedErrorResponse(
+            HttpStatus.UNAUTHORIZED, "Invalid username or password", null, TimestampFormat.ISO_LOCAL);
+
+    public static final PreEncodedErrorResponse ACCESS_DENIED = new PreEncodedErrorResponse(
+            HttpStatus.FORBIDDEN, "Access is denied", null, TimestampFormat.ISO_LOCAL);
+
+    public static final PreEncodedErrorResponse TOO_MANY_REQUESTS = new PreEncodedErrorResponse(
+            HttpStatus.TOO_MANY_REQUESTS, "Too many requests. Please try again later.", null,
+            TimestampFormat.ISO_LOCAL);
+
+    public static final PreEncodedErrorResponse SERVER_BUSY = new PreEncodedErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE, "Server is busy. Please try again shortly.", "1",
+            TimestampFormat.ISO_LOCAL);
+
+    /** How the timestamp is rendered; both match what Jackson produced for the same body before. */
+    public enum TimestampFormat {
+        /** {@code LocalDateTime} in the JVM's zone, as serialized for {@link GlobalExceptionHandler.ErrorResponse}. */
+        ISO_LOCAL,
+        /** A JSON number of milliseconds since the epoch. */
+        EPOCH_MILLIS
+    }
+
+    private static final byte[] TAIL = ascii("\"}");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.");
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    /** The timestamp up to and including the decimal point; only rebuilt when the second changes. */
+    private static volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, new byte[0]);
+
+    private final int status;
+    private final String message;
+    private final String retryAfter;
+    private final TimestampFormat timestampFormat;
+    private final byte[] head;
+    private final byte[] middle;
+
+    private PreEncodedErrorResponse(HttpStatus status, String message, String retryAfter,
+                                    TimestampFormat timestampFormat) {
+        this.status = status.value();
+        this.message = message;
+        this.retryAfter = retryAfter;
+        this.timestampFormat = timestampFormat;
+        String quote = timestampFormat == TimestampFormat.ISO_LOCAL ? "\"" : "";
+        this.head = ascii("{\"timestamp\":" + quote);
+        // The fixed parts are plain ASCII literals, so no escaping is needed here
+        this.middle = ascii(quote + ",\"status\":" + status.value()
+                + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"message\":\"" + message
+                + "\",\"path\":\"");
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Writes the status, headers and body. The content length is set up front so the container
+     * can send the body in one piece instead of falling back to chunked encoding.
+     */
+    public void write(HttpServletResponse response, String path) throws IOException {
+        long now = System.currentTimeMillis();
+        byte[] second = timestampFormat == TimestampFormat.ISO_LOCAL ? currentSecond(now) : null;
+        int timestampLength = second != null ? second.length + 3 : digits(now);
+
+        response.setStatus(status);
+        if (retryAfter != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(head.length + timestampLength + middle.length
+                + escapedLength(path) + TAIL.length);
+
+        ServletOutputStream out = response.getOutputStream();
+        out.write(head);
+        if (second != null) {
+            out.write(second);
+            int millis = (int) Math.floorMod(now, 1000L);
+            out.write('0' + millis / 100);
+            out.write('0' + millis / 10 % 10);
+            out.write('0' + millis % 10);
+        } else {
+            writeDigits(out, now, timestampLength);
+        }
+        out.write(middle);
+        writeEscaped(out, path);
+        out.write(TAIL);
+        out.flush();
+    }
+
+    private static int digits(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static void writeDigits(ServletOutputStream out, long value, int digits) throws IOException {
+        long divisor = 1;
+        for (int i = 1; i < digits; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.write('0' + (int) (value / divisor % 10));
+        }
+    }
+
+    private static byte[] currentSecond(long nowMillis) {
+        long epochSecond = Math.floorDiv(nowMillis, 1000L);
+        CachedSecond cached = cachedSecond;
+        if (cached.epochSecond != epochSecond) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZONE);
+            cached = new CachedSecond(epochSecond, ascii(SECOND_FORMAT.format(time)));
+            cachedSecond = cached;
+        }
+        return cached.formatted;
+    }
+
+    private static int escapedLength(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                length += 2;
+            } else if (c < 0x20) {
+                length += 6;
+            } else if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /** Writes a JSON string body as UTF-8 without materialising an encoded copy. */
+    private static void writeEscaped(ServletOutputStream out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else if (c < 0x20) {
+                out.write('\\');
+                out.write('u');
+                out.write('0');
+                out.write('0');
+                out.write(HEX[c >> 4]);
+                out.write(HEX[c & 0xF]);
+            } else if (c < 0x80) {
+                out.write(c);
+            } else if (c < 0x800) {
+                out.write(0xC0 | (c >> 6));
+                out.write(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.write(0xF0 | (codePoint >> 18));
+                out.write(0x80 | ((codePoint >> 12) & 0x3F));
+                out.write(0x80 | ((codePoint >> 6) & 0x3F));
+                out.write(0x80 | (codePoint & 0x3F));
+            } else {
+                // Lone surrogates are encoded as-is, matching escapedLength
+                out.write(0xE0 | (c >> 12));
+                out.write(0x80 | ((c >> 6) & 0x3F));
+                out.write(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record CachedSecond(long epochSecond, byte[] formatted) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.authsystem.jfr;
+
+import java.security.SecureRandom;
+
+/**
+ * Shared pieces of the application's JDK Flight Recorder events.
+ * <p>
+ * Every event is used the same way so that it costs nothing while no recording enables it: the
+ * event is created and {@code begin()} called before the operation, and fields are only filled
+ * in, and {@code commit()} only called, when {@code shouldCommit()} is true. A disabled event
+ * never escapes, so the JIT removes the allocation and the calls.
+ */
+public final class AuthEvents {
+    
+    public static final String CATEGORY = "Auth System";
+    
+    private static final long SALT = new SecureRandom().nextLong();
+    
+    private AuthEvents() {
+    }
+    
+    /**
+     * Salted 64-bit FNV-1a hash of a username, client address or token. Events of the same user can
+     * be correlated within one run of the application without writing the value into the recording.
+     * The salt changes on every start.
+     */
+    public static long hash(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L ^ SALT;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
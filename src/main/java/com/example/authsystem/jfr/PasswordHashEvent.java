@@ -0,0 +1,23 @@
+package com.example.authsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.authsystem.PasswordHash")
+@Label("Password Hash")
+@Category({AuthEvents.CATEGORY, "Credentials"})
+@Description("BCrypt check of a sign-in password")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+    
+    @Label("Outcome")
+    @Description("match or mismatch")
+    public String outcome;
+    
+    @Label("User Hash")
+    public long userHash;
+}
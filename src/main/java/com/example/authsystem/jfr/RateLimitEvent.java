@@ -0,0 +1,30 @@
+package com.example.authsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.authsystem.RateLimit")
+@Label("Rate Limit Decision")
+@Category({AuthEvents.CATEGORY, "Rate Limiting"})
+@Description("Per-client rate limit check of an authentication request")
+@StackTrace(false)
+public class RateLimitEvent extends Event {
+    
+    @Label("Policy")
+    public String policy;
+    
+    @Label("Outcome")
+    @Description("allowed or rejected")
+    public String outcome;
+    
+    @Label("Client Hash")
+    @Description("Salted hash of the client address")
+    public long clientHash;
+    
+    @Label("Remaining Tokens")
+    public long remainingTokens;
+}
@@ -0,0 +1,28 @@
+package com.example.authsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.authsystem.TokenRefresh")
+@Label("Token Refresh")
+@Category({AuthEvents.CATEGORY, "Tokens"})
+@Description("Exchange of a refresh token for a new access token")
+@StackTrace(false)
+public class TokenRefreshEvent extends Event {
+    
+    @Label("Outcome")
+    @Description("refreshed, coalesced (joined a refresh already running for the token), invalid or error")
+    public String outcome;
+    
+    @Label("Token Hash")
+    @Description("Salted hash of the refresh token")
+    public long tokenHash;
+    
+    @Label("User Hash")
+    @Description("0 unless this request ran the refresh itself and the token was valid")
+    public long userHash;
+}
@@ -0,0 +1,24 @@
+package com.example.authsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.authsystem.TokenVerification")
+@Label("Token Verification")
+@Category({AuthEvents.CATEGORY, "Tokens"})
+@Description("Signature and expiry check of an access token")
+@StackTrace(false)
+public class TokenVerificationEvent extends Event {
+    
+    @Label("Outcome")
+    @Description("valid, expired, malformed, unsupported, empty or invalid")
+    public String outcome;
+    
+    @Label("User Hash")
+    @Description("Salted hash of the token subject, 0 if the token could not be read")
+    public long userHash;
+}
@@ -0,0 +1,27 @@
+package com.example.authsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.authsystem.UserLoad")
+@Label("User Load")
+@Category({AuthEvents.CATEGORY, "Users"})
+@Description("User and role lookup for an authenticated request")
+@StackTrace(false)
+public class UserLoadEvent extends Event {
+    
+    @Label("Outcome")
+    @Description("found or not_found")
+    public String outcome;
+    
+    @Label("User Hash")
+    public long userHash;
+    
+    @Label("Shard")
+    @Description("-1 when the username is not in the directory")
+    public int shard;
+}
@@ -0,0 +1,78 @@
+package com.example.authsystem.repository;
+
+import com.example.authsystem.entity.EmailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+    
+    /**
+     * Candidates for the next batch: pending messages that are due, and messages whose worker
+     * let its claim lapse (it crashed or hung mid-send). Only a hint; {@link #claim} decides.
+     */
+    @Query("SELECT m.id FROM EmailOutboxMessage m " +
+           "WHERE (m.status = :pending AND m.nextAttemptAt <= :now) " +
+           "OR (m.status = :sending AND m.claimedUntil < :now) " +
+           "ORDER BY m.id")
+    List<Long> findClaimableIds(@Param("pending") EmailOutboxMessage.Status pending,
+                                @Param("sending") EmailOutboxMessage.Status sending,
+                                @Param("now") LocalDateTime now,
+                                Pageable pageable);
+    
+    /**
+     * Moves the candidates to {@code SENDING} under the given claim. The row-level condition is
+     * re-checked by the UPDATE itself, so of two workers racing for the same row exactly one
+     * gets it; the other's update simply matches fewer rows.
+     */
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :sending, m.claimedBy = :claimedBy, " +
+           "m.claimedUntil = :claimedUntil " +
+           "WHERE m.id IN :ids AND ((m.status = :pending AND m.nextAttemptAt <= :now) " +
+           "OR (m.status = :sending AND m.claimedUntil < :now))")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("pending") EmailOutboxMessage.Status pending,
+              @Param("sending") EmailOutboxMessage.Status sending,
+              @Param("claimedBy") String claimedBy,
+              @Param("claimedUntil") LocalDateTime claimedUntil,
+              @Param("now") LocalDateTime now);
+    
+    List<EmailOutboxMessage> findByClaimedByOrderById(String claimedBy);
+    
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :sent, m.sentAt = :now, m.lastError = null, " +
+           "m.claimedBy = null, m.claimedUntil = null " +
+           "WHERE m.id IN :ids AND m.claimedBy = :claimedBy")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("sent") EmailOutboxMessage.Status sent,
+                 @Param("claimedBy") String claimedBy,
+                 @Param("now") LocalDateTime now);
+    
+    /**
+     * Records a failed attempt, unless the claim lapsed meanwhile and the row now belongs to
+     * another worker.
+     */
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.attempts = :attempts, " +
+           "m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError, m.claimedBy = null, m.claimedUntil = null " +
+           "WHERE m.id = :id AND m.claimedBy = :claimedBy")
+    int markFailed(@Param("id") Long id,
+                   @Param("claimedBy") String claimedBy,
+                   @Param("status") EmailOutboxMessage.Status status,
+                   @Param("attempts") int attempts,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("lastError") String lastError);
+    
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteByStatusAndSentAtBefore(@Param("status") EmailOutboxMessage.Status status,
+                                      @Param("before") LocalDateTime before);
+}
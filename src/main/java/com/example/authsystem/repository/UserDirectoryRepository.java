@@ -0,0 +1,21 @@
+package com.example.authsystem.repository;
+
+import com.example.authsystem.entity.UserDirectoryEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserDirectoryRepository extends JpaRepository<UserDirectoryEntry, String> {
+    
+    List<UserDirectoryEntry> findByLookupKeyIn(Collection<String> lookupKeys);
+    
+    @Modifying
+    @Query("DELETE FROM UserDirectoryEntry d WHERE d.lookupKey IN :lookupKeys")
+    int deleteByLookupKeyIn(@Param("lookupKeys") Collection<String> lookupKeys);
+}
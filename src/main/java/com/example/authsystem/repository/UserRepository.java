@@ -1,13 +1,24 @@
 package com.example.authsystem.repository;
 
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.entity.Role;
 import com.example.authsystem.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -18,18 +29,160 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByUsernameOrEmail(String username, String email);
     
+    /**
+     * Sign-in lookup. The roles become the token's authorities after the transaction has ended,
+     * so they are fetched in the same statement.
+     */
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.username = :login OR u.email = :login")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
+    Optional<User> findByLoginWithRoles(@Param("login") String login);
+    
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
     
-    Optional<User> findByPasswordResetToken(String token);
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+    
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    /**
+     * Keyset page of users ordered by id, projected straight into DTOs with role names
+     * aggregated in the same statement. Null filter parameters are ignored.
+     */
+    @Query("SELECT new com.example.authsystem.dto.response.UserInfoResponse(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber, " +
+           "listagg(cast(r.name as String), ','), u.createdAt, u.updatedAt) " +
+           "FROM User u LEFT JOIN u.roles r " +
+           "WHERE u.id > :after " +
+           "AND (:enabled IS NULL OR u.enabled = :enabled) " +
+           "AND (:createdFrom IS NULL OR u.createdAt >= :createdFrom) " +
+           "AND (:createdTo IS NULL OR u.createdAt < :createdTo) " +
+           "AND (:role IS NULL OR EXISTS (SELECT 1 FROM User fu JOIN fu.roles fr WHERE fu.id = u.id AND fr.name = :role)) " +
+           "GROUP BY u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber, u.createdAt, u.updatedAt " +
+           "ORDER BY u.id")
+    List<UserInfoResponse> findUserPage(@Param("after") Long after,
+                                        @Param("role") Role.RoleName role,
+                                        @Param("enabled") Boolean enabled,
+                                        @Param("createdFrom") LocalDateTime createdFrom,
+                                        @Param("createdTo") LocalDateTime createdTo,
+                                        Pageable pageable);
+    
+    @Query("SELECT new com.example.authsystem.dto.response.UserInfoResponse(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber, " +
+           "listagg(cast(r.name as String), ','), u.createdAt, u.updatedAt) " +
+           "FROM User u LEFT JOIN u.roles r " +
+           "WHERE u.id IN :ids " +
+           "GROUP BY u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber, u.createdAt, u.updatedAt")
+    List<UserInfoResponse> findUserInfoByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Forward-only stream over every user for exports. Must be consumed inside a transaction
+     * and closed by the caller.
+     */
+    @Query("SELECT new com.example.authsystem.dto.response.UserInfoResponse(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber, " +
+           "listagg(cast(r.name as String), ','), u.createdAt, u.updatedAt) " +
+           "FROM User u LEFT JOIN u.roles r " +
+           "GROUP BY u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber, u.createdAt, u.updatedAt " +
+           "ORDER BY u.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserInfoResponse> streamAllUserInfo();
+    
+    /**
+     * Users changed at or after {@code since}, for the search index resync. Same rules as
+     * {@link #streamAllUserInfo()}.
+     */
+    @Query("SELECT new com.example.authsystem.dto.response.UserInfoResponse(" +
+           "u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber, " +
+           "listagg(cast(r.name as String), ','), u.createdAt, u.updatedAt) " +
+           "FROM User u LEFT JOIN u.roles r " +
+           "WHERE u.updatedAt >= :since " +
+           "GROUP BY u.id, u.username, u.email, u.firstName, u.lastName, u.phoneNumber, u.createdAt, u.updatedAt " +
+           "ORDER BY u.id")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserInfoResponse> streamUserInfoUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT u.id FROM User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Long> streamAllIds();
+    
+    /**
+     * Identifiers needed to clean up after a set-based delete, without loading the entities.
+     */
+    interface Identity {
+        Long getId();
+        
+        String getUsername();
+        
+        String getEmail();
+    }
+    
+    List<Identity> findByIdIn(Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.enabled = :enabled, u.updatedAt = :now, u.version = u.version + 1 " +
+           "WHERE u.id IN :ids")
+    int updateEnabledByIds(@Param("ids") Collection<Long> ids,
+                           @Param("enabled") boolean enabled,
+                           @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.updatedAt = :now, u.version = u.version + 1 WHERE u.id IN :ids")
+    int touchByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // user_roles is a join table without an entity, so these are native; the space hint limits
+    // cache invalidation to the role collections instead of the whole second-level cache
+    @Modifying
+    @Query(value = "DELETE FROM user_roles WHERE user_id IN (:ids)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    int deleteRolesByUserIds(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query(value = "INSERT INTO user_roles (user_id, role_id) " +
+                   "SELECT u.id, r.id FROM users u CROSS JOIN roles r WHERE u.id IN (:ids) AND r.name IN (:roles)",
+           nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_roles"))
+    int insertRolesByUserIds(@Param("ids") Collection<Long> ids, @Param("roles") Collection<String> roles);
+    
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT u.password FROM User u WHERE u.id = :id")
+    Optional<String> findPasswordById(@Param("id") Long id);
     
-    @Query("SELECT u FROM User u WHERE u.passwordResetToken = :token AND u.passwordResetTokenExpiry > :now")
-    Optional<User> findByValidPasswordResetToken(@Param("token") String token, @Param("now") LocalDateTime now);
+    /**
+     * Compare-and-set password change: a single UPDATE that only succeeds while the stored hash
+     * is still {@code currentPassword}, so a concurrent change or a reused reset token updates
+     * nothing. Returns the number of rows changed.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword, u.updatedAt = :now, u.version = u.version + 1 " +
+           "WHERE u.id = :id AND u.password = :currentPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("currentPassword") String currentPassword,
+                                  @Param("newPassword") String newPassword,
+                                  @Param("now") LocalDateTime now);
     
+    /**
+     * Runs on every authenticated request and feeds the disabled check and the authorities, so it
+     * is deliberately not query-cached: the cache is local to each instance, and a disable, role
+     * change or password change made through another instance must be visible on the next request.
+     * Cache mode REFRESH never reads the entity regions either, and puts the fresh rows back into them.
+     */
     @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.username = :username")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
     Optional<User> findByUsernameWithRoles(@Param("username") String username);
     
     @Query("SELECT u FROM User u JOIN FETCH u.roles WHERE u.email = :email")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "REFRESH"))
     Optional<User> findByEmailWithRoles(@Param("email") String email);
-}
\ No newline at end of file
+}
@@ -1,11 +1,11 @@
 package com.example.authsystem.security;
 
+import com.example.authsystem.exception.PreEncodedErrorResponse;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
@@ -18,12 +18,21 @@ import java.util.Map;
 @Component
 public class AuthEntryPointJwt implements AuthenticationEntryPoint {
     
-    private static final Logger logger = LoggerFactory.getLogger(AuthEntryPointJwt.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    @Autowired
+    private SecurityEventLogger securityEventLogger;
     
     @Override
     public void commence(HttpServletRequest request, HttpServletResponse response,
                         AuthenticationException authException) throws IOException, ServletException {
-        logger.error("Unauthorized error: {}", authException.getMessage());
+        securityEventLogger.record(SecurityEventLogger.Reason.UNAUTHORIZED, authException.getMessage());
+        
+        // A missing or rejected token always carries this message, so floods are written from pre-encoded bytes
+        if (PreEncodedErrorResponse.AUTHENTICATION_REQUIRED.getMessage().equals(authException.getMessage())) {
+            PreEncodedErrorResponse.AUTHENTICATION_REQUIRED.write(response, request.getServletPath());
+            return;
+        }
         
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -35,7 +44,6 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
         body.put("path", request.getServletPath());
         body.put("timestamp", System.currentTimeMillis());
         
-        final ObjectMapper mapper = new ObjectMapper();
-        mapper.writeValue(response.getOutputStream(), body);
+        MAPPER.writeValue(response.getOutputStream(), body);
     }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.example.authsystem.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates rejected tokens and failed authentications instead of logging each one.
+ * <p>
+ * A bot sending garbage or expired tokens used to produce one formatted ERROR line per request.
+ * Now a rejection only increments a per-reason counter and, if it is the first of its reason in
+ * the current interval, keeps the exception message as a sample. Every
+ * {@code security-logging.summary-interval-ms} one WARN line per reason that occurred is
+ * written, e.g. {@code Security events: reason=expired_token, count=41203, intervalMs=10000, sample="..."}.
+ * The logger writes through an async appender (see logback-spring.xml), so request threads never
+ * wait for log I/O. Whether WARN is enabled is checked when summarising, not per event.
+ */
+@Component
+public class SecurityEventLogger {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SecurityEventLogger.class);
+    
+    private static final int MAX_SAMPLE_LENGTH = 200;
+    
+    public enum Reason {
+        MALFORMED_TOKEN, EXPIRED_TOKEN, UNSUPPORTED_TOKEN, EMPTY_TOKEN, INVALID_TOKEN,
+        AUTHENTICATION_FAILED, UNAUTHORIZED;
+        
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
+    
+    private final Reason[] reasons = Reason.values();
+    
+    private final LongAdder[] counts = new LongAdder[reasons.length];
+    
+    private final AtomicReferenceArray<String> samples = new AtomicReferenceArray<>(reasons.length);
+    
+    @Value("${security-logging.summary-interval-ms:10000}")
+    private long summaryIntervalMs;
+    
+    private volatile boolean enabled = logger.isWarnEnabled();
+    
+    public SecurityEventLogger() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Counts one event. {@code detail} should be a string that already exists, such as an
+     * exception message; nothing is formatted here.
+     */
+    public void record(Reason reason, String detail) {
+        if (!enabled) {
+            return;
+        }
+        int index = reason.ordinal();
+        counts[index].increment();
+        if (samples.get(index) == null && detail != null) {
+            samples.compareAndSet(index, null, detail);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${security-logging.summary-interval-ms:10000}")
+    public void logSummary() {
+        enabled = logger.isWarnEnabled();
+        for (Reason reason : reasons) {
+            int index = reason.ordinal();
+            long count = counts[index].sumThenReset();
+            String sample = samples.getAndSet(index, null);
+            if (count > 0 && enabled) {
+                logger.warn("Security events: reason={}, count={}, intervalMs={}, sample=\"{}\"",
+                        reason.tag, count, summaryIntervalMs, truncate(sample));
+            }
+        }
+    }
+    
+    private String truncate(String sample) {
+        if (sample == null) {
+            return "";
+        }
+        return sample.length() > MAX_SAMPLE_LENGTH ? sample.substring(0, MAX_SAMPLE_LENGTH) : sample;
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.authsystem.service;
 
 import com.example.authsystem.entity.User;
+import com.example.authsystem.jfr.AuthEvents;
+import com.example.authsystem.jfr.PasswordHashEvent;
 import com.example.authsystem.repository.UserRepository;
+import com.example.authsystem.util.ServerTiming;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -17,6 +20,12 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+    
+    @Autowired
+    private UserShardRouter shardRouter;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
@@ -25,10 +34,27 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
         String usernameOrEmail = authentication.getName();
         String password = authentication.getCredentials().toString();
         
-        User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
+        // The login may be an email, so the shard comes from the directory rather than the hash ring
+        long lookupStart = System.nanoTime();
+        User user = userDirectoryService.findShard(usernameOrEmail)
+                .flatMap(shard -> {
+                    shardRouter.enter(shard);
+                    return userRepository.findByLoginWithRoles(usernameOrEmail);
+                })
                 .orElseThrow(() -> new BadCredentialsException("Invalid username or password"));
+        ServerTiming.record(ServerTiming.LOGIN_LOOKUP, lookupStart);
         
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        long hashStart = System.nanoTime();
+        boolean passwordMatches = passwordEncoder.matches(password, user.getPassword());
+        ServerTiming.record(ServerTiming.BCRYPT, hashStart);
+        if (event.shouldCommit()) {
+            event.outcome = passwordMatches ? "match" : "mismatch";
+            event.userHash = AuthEvents.hash(user.getUsername());
+            event.commit();
+        }
+        if (!passwordMatches) {
             throw new BadCredentialsException("Invalid username or password");
         }
         
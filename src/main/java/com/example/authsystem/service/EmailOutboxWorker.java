@@ -0,0 +1,232 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.entity.EmailOutboxMessage;
+import com.example.authsystem.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background delivery of {@link EmailOutboxMessage} rows.
+ * <p>
+ * Each poll sends one batch through a single {@link JavaMailSender#send(SimpleMailMessage...)}
+ * call, which reuses one connected SMTP transport for the whole batch. Failed messages are
+ * retried with exponential backoff and moved to {@code DEAD} after {@code max-attempts}.
+ * <p>
+ * Several instances may poll the same outbox. A batch is first claimed in its own transaction:
+ * the rows move to {@code SENDING} with a per-batch claim id and a lease ({@code claim-timeout-ms}),
+ * and only the worker whose conditional UPDATE matched a row sends it. Outcomes are written back
+ * only while the claim still holds. A worker that dies mid-send leaves its rows in
+ * {@code SENDING}; they become claimable again once the lease expires, so delivery is at least
+ * once, never concurrent.
+ */
+@Component
+public class EmailOutboxWorker {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class);
+    
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    
+    @Autowired
+    private JavaMailSender mailSender;
+    
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer sendTimer;
+    
+    private Counter sentCounter;
+    
+    private Counter retryCounter;
+    
+    private Counter deadCounter;
+    
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+    
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${email.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+    
+    @Value("${email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+    
+    @Value("${email.outbox.claim-timeout-ms:600000}")
+    private long claimTimeoutMs;
+    
+    @Value("${email.outbox.sent-retention-hours:168}")
+    private long sentRetentionHours;
+    
+    @PostConstruct
+    void registerMeters() {
+        sendTimer = Timer.builder("auth.email.send")
+                .description("SMTP send of one outbox batch")
+                .register(meterRegistry);
+        sentCounter = deliveryCounter("sent");
+        retryCounter = deliveryCounter("retry");
+        deadCounter = deliveryCounter("dead");
+    }
+    
+    private Counter deliveryCounter(String outcome) {
+        return Counter.builder("auth.email.deliveries")
+                .description("Outbox delivery attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public void deliverPending() {
+        // Messages are written next to the user they concern, so every shard has its own outbox
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            deliverBatch(shard);
+        }
+    }
+    
+    private void deliverBatch(int shard) {
+        String claim = UUID.randomUUID().toString();
+        List<EmailOutboxMessage> batch = shardRouter.inShard(shard, false, () -> claimBatch(claim));
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        // The claim is committed before sending, so no other worker picks these rows up while the
+        // SMTP conversation runs outside any transaction
+        SimpleMailMessage[] mailMessages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            mailMessages[i] = toMailMessage(batch.get(i));
+        }
+        
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        long start = System.nanoTime();
+        try {
+            mailSender.send(mailMessages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        } finally {
+            sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        
+        List<Long> sentIds = new ArrayList<>();
+        Map<EmailOutboxMessage, Exception> failed = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(mailMessages[i]);
+            if (failure == null) {
+                sentIds.add(batch.get(i).getId());
+            } else {
+                failed.put(batch.get(i), failure);
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        int sent = shardRouter.inShard(shard, false, () -> {
+            int marked = sentIds.isEmpty() ? 0
+                    : emailOutboxRepository.markSent(sentIds, EmailOutboxMessage.Status.SENT, claim, now);
+            failed.forEach((message, failure) -> recordFailure(message, claim, failure, now));
+            return marked;
+        });
+        sentCounter.increment(sent);
+        if (sent < sentIds.size()) {
+            // Sent, but the claim lapsed first: another worker may deliver these once more
+            logger.warn("Email outbox claim expired during send: shard={}, affected={}", shard, sentIds.size() - sent);
+        }
+        
+        logger.info("Email outbox batch processed: size={}, sent={}, failed={}", batch.size(), sentIds.size(), failed.size());
+    }
+    
+    private List<EmailOutboxMessage> claimBatch(String claim) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> candidates = emailOutboxRepository.findClaimableIds(EmailOutboxMessage.Status.PENDING,
+                EmailOutboxMessage.Status.SENDING, now, PageRequest.ofSize(batchSize));
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        int claimed = emailOutboxRepository.claim(candidates, EmailOutboxMessage.Status.PENDING,
+                EmailOutboxMessage.Status.SENDING, claim, now.plusNanos(claimTimeoutMs * 1_000_000L), now);
+        return claimed == 0 ? List.of() : emailOutboxRepository.findByClaimedByOrderById(claim);
+    }
+    
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    public void purgeDelivered() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(sentRetentionHours);
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int purged = shardRouter.inShard(shard, false, () -> emailOutboxRepository.deleteByStatusAndSentAtBefore(
+                    EmailOutboxMessage.Status.SENT, cutoff));
+            if (purged > 0) {
+                logger.info("Email outbox purged: shard={}, deleted={}", shard, purged);
+            }
+        }
+    }
+    
+    private void recordFailure(EmailOutboxMessage message, String claim, Exception failure, LocalDateTime now) {
+        int attempts = message.getAttempts() + 1;
+        String error = truncate(failure.getMessage());
+        
+        if (attempts >= maxAttempts) {
+            if (emailOutboxRepository.markFailed(message.getId(), claim, EmailOutboxMessage.Status.DEAD, attempts,
+                    message.getNextAttemptAt(), error) > 0) {
+                deadCounter.increment();
+                logger.error("Email dead-lettered: outboxId={}, attempts={}, error=\"{}\"",
+                        message.getId(), attempts, error);
+            }
+        } else {
+            long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+            if (emailOutboxRepository.markFailed(message.getId(), claim, EmailOutboxMessage.Status.PENDING, attempts,
+                    now.plusNanos(backoffMs * 1_000_000L), error) > 0) {
+                retryCounter.increment();
+                logger.warn("Email delivery failed: outboxId={}, attempts={}, retryInMs={}, error=\"{}\"",
+                        message.getId(), attempts, backoffMs, error);
+            }
+        }
+    }
+    
+    private SimpleMailMessage toMailMessage(EmailOutboxMessage message) {
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        mailMessage.setFrom(fromEmail);
+        mailMessage.setTo(message.getRecipient());
+        mailMessage.setSubject(message.getSubject());
+        mailMessage.setText(message.getBody());
+        return mailMessage;
+    }
+    
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
@@ -1,69 +1,49 @@
 package com.example.authsystem.service;
 
+import com.example.authsystem.entity.EmailOutboxMessage;
+import com.example.authsystem.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Queues outgoing emails in the {@code email_outbox} table. Messages are written in the
+ * caller's transaction and delivered later by {@link EmailOutboxWorker}, so request
+ * threads never wait on the SMTP server.
+ */
 @Service
+@Transactional
 public class EmailService {
     
-    @Autowired
-    private JavaMailSender mailSender;
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
     
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
     
     public void sendPasswordResetEmail(String toEmail, String resetToken) {
-        try {
-            // In development, just log the token instead of sending actual email
-            System.out.println("=".repeat(60));
-            System.out.println("🔑 PASSWORD RESET TOKEN FOR DEVELOPMENT:");
-            System.out.println("📧 Email: " + toEmail);
-            System.out.println("🔐 Token: " + resetToken);
-            System.out.println("⏰ Expires: 1 hour from now");
-            System.out.println("=".repeat(60));
-            
-            // Try to send email, but don't fail if it doesn't work in development
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Password Reset Request");
-            message.setText(buildPasswordResetEmailBody(resetToken));
-            
-            mailSender.send(message);
-            System.out.println("✅ Email sent successfully!");
-        } catch (Exception e) {
-            // In development, don't throw error - just log that email sending failed
-            System.out.println("⚠️ Email sending failed (this is normal in development): " + e.getMessage());
-            System.out.println("💡 Use the token above to test password reset functionality");
-        }
+        EmailOutboxMessage message = enqueue(toEmail, "Password Reset Request", buildPasswordResetEmailBody(resetToken));
+        
+        // Development aid: the token is only visible when DEBUG is enabled for this logger
+        logger.debug("Password reset token queued: outboxId={}, to={}, token={}", message.getId(), toEmail, resetToken);
     }
     
     public void sendWelcomeEmail(String toEmail, String username) {
-        try {
-            System.out.println("📧 Welcome email for: " + username + " (" + toEmail + ")");
-            
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Welcome to Auth System!");
-            message.setText(buildWelcomeEmailBody(username));
-            
-            mailSender.send(message);
-            System.out.println("✅ Welcome email sent successfully!");
-        } catch (Exception e) {
-            // Log error but don't throw exception to avoid blocking registration
-            System.out.println("⚠️ Welcome email sending failed (this is normal in development): " + e.getMessage());
-        }
+        enqueue(toEmail, "Welcome to Auth System!", buildWelcomeEmailBody(username));
+    }
+    
+    private EmailOutboxMessage enqueue(String toEmail, String subject, String body) {
+        EmailOutboxMessage message = emailOutboxRepository.save(new EmailOutboxMessage(toEmail, subject, body));
+        logger.info("Email queued: outboxId={}, subject=\"{}\"", message.getId(), subject);
+        return message;
     }
     
     private String buildPasswordResetEmailBody(String resetToken) {
         return "Hello,\n\n" +
                "You have requested to reset your password. Please use the following token to reset your password:\n\n" +
                "Reset Token: " + resetToken + "\n\n" +
-               "This token will expire in 1 hour.\n\n" +
+               "This token will expire within 1 hour.\n\n" +
                "If you did not request this password reset, please ignore this email.\n\n" +
                "Best regards,\n" +
                "Auth System Team";
@@ -76,4 +56,4 @@ public class EmailService {
                "Best regards,\n" +
                "Auth System Team";
     }
-}
\ No newline at end of file
+}
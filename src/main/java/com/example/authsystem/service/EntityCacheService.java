@@ -0,0 +1,98 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.response.CacheRegionStatsResponse;
+import com.example.authsystem.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.DomainDataRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Explicit second-level cache eviction for user mutations and per-region hit statistics.
+ * <p>
+ * Hibernate keeps the {@code users} and {@code user-roles} regions current for changes made
+ * through the persistence context, and cached queries are invalidated by table timestamps.
+ * Evicting the user after each mutation guarantees the next read goes to the database even when
+ * a write reaches the row through a path Hibernate does not track, such as native SQL.
+ */
+@Service
+public class EntityCacheService {
+    
+    private static final String USER_ROLES_ROLE = User.class.getName() + ".roles";
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    public void evictUserAfterCommit(Long userId) {
+        evictUsersAfterCommit(List.of(userId));
+    }
+    
+    public void evictUsersAfterCommit(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        afterCommit(() -> {
+            org.hibernate.Cache cache = sessionFactory().getCache();
+            for (Long id : ids) {
+                cache.evictEntityData(User.class, id);
+                cache.evictCollectionData(USER_ROLES_ROLE, id);
+            }
+        });
+    }
+    
+    public List<CacheRegionStatsResponse> getRegionStatistics() {
+        Statistics statistics = sessionFactory().getStatistics();
+        List<CacheRegionStatsResponse> regions = new ArrayList<>();
+        
+        CacheImplementor cache = sessionFactory().unwrap(SessionFactoryImplementor.class).getCache();
+        for (String name : statistics.getSecondLevelCacheRegionNames()) {
+            Region region = cache.getRegion(name);
+            if (region instanceof DomainDataRegion) {
+                regions.add(toResponse(name, "domain", statistics.getDomainDataRegionStatistics(name)));
+            } else if (region instanceof QueryResultsRegion) {
+                regions.add(toResponse(name, "query", statistics.getQueryRegionStatistics(name)));
+            }
+        }
+        
+        regions.add(new CacheRegionStatsResponse("query-cache (all regions)", "query",
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(), -1));
+        regions.add(new CacheRegionStatsResponse("update-timestamps", "timestamps",
+                statistics.getUpdateTimestampsCacheHitCount(), statistics.getUpdateTimestampsCacheMissCount(),
+                statistics.getUpdateTimestampsCachePutCount(), -1));
+        return regions;
+    }
+    
+    private CacheRegionStatsResponse toResponse(String region, String type, CacheRegionStatistics stats) {
+        return new CacheRegionStatsResponse(region, type, stats.getHitCount(), stats.getMissCount(),
+                stats.getPutCount(), Math.max(-1, stats.getElementCountInMemory()));
+    }
+    
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
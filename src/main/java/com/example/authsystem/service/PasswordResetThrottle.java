@@ -0,0 +1,102 @@
+package com.example.authsystem.service;
+
+import io.jsonwebtoken.io.Decoders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces repeated password reset requests for the same address.
+ * <p>
+ * Entries are keyed by an HMAC-SHA256 of the normalized email under the password reset secret,
+ * so raw addresses are never held in memory and the keys cannot be reversed by hashing a list
+ * of known addresses. The map is bounded: once {@code max-entries} is reached the oldest
+ * entry is evicted. Unknown addresses are tracked exactly like known ones so the throttle
+ * does not reveal which emails are registered.
+ */
+@Component
+public class PasswordResetThrottle {
+    
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_CONTEXT = "password-reset-throttle:".getBytes(StandardCharsets.UTF_8);
+    
+    private final Map<String, Long> lastRequests;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    
+    private final long windowMs;
+    
+    private final SecretKeySpec key;
+    
+    public PasswordResetThrottle(@Value("${password-reset.secret}") String secret,
+                                 @Value("${password-reset.throttle.window-ms:300000}") long windowMs,
+                                 @Value("${password-reset.throttle.max-entries:100000}") int maxEntries) {
+        this.key = new SecretKeySpec(Decoders.BASE64.decode(secret), HMAC_ALGORITHM);
+        this.windowMs = windowMs;
+        this.lastRequests = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+    
+    /**
+     * Returns {@code true} if a reset for this address should be processed now, or
+     * {@code false} if one was already processed within the throttle window.
+     */
+    public boolean tryAcquire(String email) {
+        String key = hash(email);
+        long now = System.currentTimeMillis();
+        
+        // Not a monitor: a contended synchronized block would pin virtual threads to their carrier
+        lock.lock();
+        try {
+            Long last = lastRequests.get(key);
+            if (last != null && now - last < windowMs) {
+                return false;
+            }
+            // Re-insert so the entry moves to the tail and is evicted last
+            lastRequests.remove(key);
+            lastRequests.put(key, now);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Gives back the slot taken by {@link #tryAcquire} when the reset it admitted did not
+     * complete, so the caller can retry inside the window.
+     */
+    public void release(String email) {
+        String key = hash(email);
+        lock.lock();
+        try {
+            lastRequests.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private String hash(String email) {
+        String normalized = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(KEY_CONTEXT);
+            return HexFormat.of().formatHex(mac.doFinal(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to compute password reset throttle key", e);
+        }
+    }
+}
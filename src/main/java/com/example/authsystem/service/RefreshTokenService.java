@@ -1,17 +1,30 @@
 package com.example.authsystem.service;
 
+import com.example.authsystem.dto.response.TokenRefreshResponse;
 import com.example.authsystem.entity.RefreshToken;
 import com.example.authsystem.entity.User;
 import com.example.authsystem.exception.TokenRefreshException;
+import com.example.authsystem.jfr.AuthEvents;
+import com.example.authsystem.jfr.TokenRefreshEvent;
 import com.example.authsystem.repository.RefreshTokenRepository;
+import com.example.authsystem.util.JwtUtils;
+import com.example.authsystem.util.ServerTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Transactional
@@ -23,18 +36,155 @@ public class RefreshTokenService {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
     
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer createTimer;
+    
+    private Timer validLookupTimer;
+    
+    private Timer invalidLookupTimer;
+    
+    private Counter coalescedCounter;
+    
+    /** Refreshes currently running on this node, by refresh token. */
+    private final ConcurrentHashMap<String, CompletableFuture<TokenRefreshResponse>> refreshesInFlight =
+            new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void registerMeters() {
+        createTimer = Timer.builder("auth.refresh_token.create")
+                .description("Refresh token creation at sign-in")
+                .register(meterRegistry);
+        validLookupTimer = lookupTimer("valid");
+        invalidLookupTimer = lookupTimer("invalid");
+        coalescedCounter = Counter.builder("auth.refresh_token.coalesced")
+                .description("Refresh requests that joined a refresh already running for the same token")
+                .register(meterRegistry);
+    }
+    
+    private Timer lookupTimer(String outcome) {
+        return Timer.builder("auth.refresh_token.lookup")
+                .description("Refresh token lookup, including its user and roles")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Not read-only on purpose: with replica routing, read-only transactions may go to a replica,
+     * and the read-your-writes pin cannot cover a refresh token that was issued moments ago,
+     * because the caller is anonymous. Validating on the primary sees every issue and revocation.
+     */
     public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findValidToken(token, LocalDateTime.now());
+        long start = System.nanoTime();
+        shardRouter.enter(shardRouter.shardForRefreshToken(token));
+        Optional<RefreshToken> refreshToken = refreshTokenRepository.findValidToken(token, LocalDateTime.now());
+        recordLookup(start, refreshToken.isPresent());
+        return refreshToken;
+    }
+    
+    private void recordLookup(long start, boolean valid) {
+        (valid ? validLookupTimer : invalidLookupTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        ServerTiming.record(ServerTiming.REFRESH_TOKEN_LOOKUP, start);
+    }
+    
+    /**
+     * Mints a new access token for a refresh token. Concurrent calls with the same token (a client
+     * retrying, or several tabs refreshing at once) share the first caller's lookup and signature.
+     * <p>
+     * Runs outside a transaction so that waiting callers hold no connection; the lookup fetches the
+     * token, its user and the roles in one statement in its own short transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TokenRefreshResponse refreshAccessToken(String requestToken) {
+        TokenRefreshEvent event = new TokenRefreshEvent();
+        event.begin();
+        String outcome = "error";
+        
+        CompletableFuture<TokenRefreshResponse> refresh = new CompletableFuture<>();
+        CompletableFuture<TokenRefreshResponse> inFlight = refreshesInFlight.putIfAbsent(requestToken, refresh);
+        try {
+            if (inFlight != null) {
+                coalescedCounter.increment();
+                outcome = "coalesced";
+                return awaitRefresh(inFlight);
+            }
+            
+            try {
+                TokenRefreshResponse response = mintAccessToken(requestToken, event);
+                refresh.complete(response);
+                outcome = "refreshed";
+                return response;
+            } catch (RuntimeException e) {
+                refresh.completeExceptionally(e);
+                if (e instanceof TokenRefreshException) {
+                    outcome = "invalid";
+                }
+                throw e;
+            } finally {
+                refreshesInFlight.remove(requestToken, refresh);
+            }
+        } finally {
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.tokenHash = AuthEvents.hash(requestToken);
+                event.commit();
+            }
+        }
+    }
+    
+    private TokenRefreshResponse mintAccessToken(String requestToken, TokenRefreshEvent event) {
+        // findValidToken already filters on expiry and revocation, so there is nothing left to verify.
+        // A read-write transaction keeps the lookup on the primary (see findByToken).
+        long start = System.nanoTime();
+        Optional<RefreshToken> refreshToken = shardRouter.inShard(shardRouter.shardForRefreshToken(requestToken), false,
+                () -> refreshTokenRepository.findValidToken(requestToken, LocalDateTime.now()));
+        recordLookup(start, refreshToken.isPresent());
+        
+        User user = refreshToken
+                .map(RefreshToken::getUser)
+                .orElseThrow(() -> new TokenRefreshException(requestToken,
+                        "Refresh token is invalid, expired or revoked. Please make a new signin request"));
+        if (event.isEnabled()) {
+            event.userHash = AuthEvents.hash(user.getUsername());
+        }
+        
+        String accessToken = jwtUtils.generateTokenFromUsername(user.getUsername(), user);
+        return new TokenRefreshResponse(accessToken, requestToken);
+    }
+    
+    private TokenRefreshResponse awaitRefresh(CompletableFuture<TokenRefreshResponse> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
     
     public RefreshToken createRefreshToken(User user) {
+        long start = System.nanoTime();
+        int shard = shardRouter.shardForUserId(user.getId());
+        shardRouter.enter(shard);
+        
         RefreshToken refreshToken = new RefreshToken();
         
         refreshToken.setUser(user);
         refreshToken.setExpiryDate(LocalDateTime.now().plusSeconds(refreshTokenDurationMs / 1000));
-        refreshToken.setToken(UUID.randomUUID().toString());
+        // Sharded tokens carry their shard as a prefix so refresh needs no directory lookup
+        refreshToken.setToken(shardRouter.newRefreshToken(shard));
         
         refreshToken = refreshTokenRepository.save(refreshToken);
+        createTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        ServerTiming.record(ServerTiming.REFRESH_TOKEN_INSERT, start);
         return refreshToken;
     }
     
@@ -48,19 +198,25 @@ public class RefreshTokenService {
     }
     
     public void deleteByUser(User user) {
+        shardRouter.enter(shardRouter.shardForUserId(user.getId()));
         refreshTokenRepository.revokeAllByUser(user);
     }
     
     public void deleteByToken(String token) {
+        shardRouter.enter(shardRouter.shardForRefreshToken(token));
         refreshTokenRepository.findByToken(token)
                 .ifPresent(refreshTokenRepository::delete);
     }
     
     public void deleteExpiredTokens() {
-        refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.runInShard(shard, false, () -> refreshTokenRepository.deleteExpiredTokens(now));
+        }
     }
     
     public void revokeAllUserTokens(User user) {
+        shardRouter.enter(shardRouter.shardForUserId(user.getId()));
         refreshTokenRepository.revokeAllByUser(user);
     }
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.request.UserBatchRequest;
+import com.example.authsystem.dto.response.UserBatchResponse;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.exception.BadRequestException;
+import com.example.authsystem.repository.RefreshTokenRepository;
+import com.example.authsystem.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Set-based user mutations for many ids at once.
+ * <p>
+ * Every operation is a handful of {@code UPDATE}/{@code DELETE ... WHERE id IN (...)} statements
+ * per chunk of ids rather than a load-modify-save per user, so deleting an account with many
+ * refresh tokens costs the same three statements as deleting one without. With sharding enabled
+ * the ids are grouped by shard and each shard commits separately.
+ */
+@Service
+@Transactional
+public class UserBatchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserBatchService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    @Value("${users.batch.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${users.batch.max-ids:10000}")
+    private int maxIds;
+    
+    public UserBatchResponse apply(UserBatchRequest request) {
+        Set<Long> ids = new LinkedHashSet<>(request.getIds());
+        ids.remove(null);
+        if (ids.size() > maxIds) {
+            throw new BadRequestException("At most " + maxIds + " ids can be processed per request");
+        }
+        
+        long startNanos = System.nanoTime();
+        int affected = switch (request.getAction()) {
+            case ENABLE -> setEnabled(ids, true);
+            case DISABLE -> setEnabled(ids, false);
+            case DELETE -> deleteUsers(ids);
+            case SET_ROLES -> setRoles(ids, resolveRoleNames(request.getRoles()));
+        };
+        
+        logger.info("User batch applied: action={}, requested={}, affected={}, durationMs={}",
+                request.getAction(), ids.size(), affected, (System.nanoTime() - startNanos) / 1_000_000);
+        return new UserBatchResponse(request.getAction().name(), ids.size(), affected);
+    }
+    
+    /**
+     * Deletes the users with their refresh tokens and role links. Returns the number of users deleted.
+     */
+    public int deleteUsers(Collection<Long> ids) {
+        return forEachChunk(ids, chunk -> {
+            List<UserRepository.Identity> users = userRepository.findByIdIn(chunk);
+            if (users.isEmpty()) {
+                return 0;
+            }
+            List<Long> existing = users.stream().map(UserRepository.Identity::getId).toList();
+            
+            refreshTokenRepository.deleteAllByUserIds(existing);
+            // The bulk delete of an entity clears its owned join tables itself, user_roles included
+            int deleted = userRepository.deleteAllByIds(existing);
+            
+            Map<String, String> emailsByUsername = new LinkedHashMap<>();
+            for (UserRepository.Identity user : users) {
+                emailsByUsername.put(user.getUsername(), user.getEmail());
+                userSearchIndex.removeAfterCommit(user.getId());
+            }
+            userDirectoryService.unregister(emailsByUsername);
+            entityCacheService.evictUsersAfterCommit(existing);
+            return deleted;
+        });
+    }
+    
+    private int setEnabled(Collection<Long> ids, boolean enabled) {
+        LocalDateTime now = LocalDateTime.now();
+        return forEachChunk(ids, chunk -> {
+            int updated = userRepository.updateEnabledByIds(chunk, enabled, now);
+            if (!enabled) {
+                // Disabled users must not be able to mint new access tokens
+                refreshTokenRepository.revokeAllByUserIds(chunk);
+            }
+            entityCacheService.evictUsersAfterCommit(chunk);
+            return updated;
+        });
+    }
+    
+    private int setRoles(Collection<Long> ids, Set<String> roleNames) {
+        LocalDateTime now = LocalDateTime.now();
+        return forEachChunk(ids, chunk -> {
+            int updated = userRepository.touchByIds(chunk, now);
+            userRepository.deleteRolesByUserIds(chunk);
+            userRepository.insertRolesByUserIds(chunk, roleNames);
+            entityCacheService.evictUsersAfterCommit(chunk);
+            return updated;
+        });
+    }
+    
+    private int forEachChunk(Collection<Long> ids, ToIntFunction<List<Long>> action) {
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        for (Long id : ids) {
+            idsByShard.computeIfAbsent(shardRouter.shardForUserId(id), shard -> new ArrayList<>()).add(id);
+        }
+        
+        int affected = 0;
+        for (Map.Entry<Integer, List<Long>> entry : idsByShard.entrySet()) {
+            List<Long> shardIds = entry.getValue();
+            affected += shardRouter.inShard(entry.getKey(), false, () -> {
+                int shardAffected = 0;
+                for (int from = 0; from < shardIds.size(); from += chunkSize) {
+                    List<Long> chunk = shardIds.subList(from, Math.min(from + chunkSize, shardIds.size()));
+                    shardAffected += action.applyAsInt(chunk);
+                }
+                return shardAffected;
+            });
+        }
+        return affected;
+    }
+    
+    private Set<String> resolveRoleNames(Set<String> names) {
+        if (names == null || names.isEmpty()) {
+            throw new BadRequestException("roles is required for SET_ROLES");
+        }
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String name : names) {
+            String normalized = name.trim().toUpperCase(Locale.ROOT);
+            if (!normalized.startsWith("ROLE_")) {
+                normalized = "ROLE_" + normalized;
+            }
+            try {
+                resolved.add(Role.RoleName.valueOf(normalized).name());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unknown role: " + name);
+            }
+        }
+        return resolved;
+    }
+}
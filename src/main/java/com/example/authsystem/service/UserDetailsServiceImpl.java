@@ -1,7 +1,12 @@
 package com.example.authsystem.service;
 
 import com.example.authsystem.entity.User;
+import com.example.authsystem.jfr.AuthEvents;
+import com.example.authsystem.jfr.UserLoadEvent;
 import com.example.authsystem.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -9,18 +14,60 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer foundTimer;
+    
+    private Timer notFoundTimer;
+    
+    @PostConstruct
+    void registerMeters() {
+        foundTimer = lookupTimer("found");
+        notFoundTimer = lookupTimer("not_found");
+    }
+    
+    private Timer lookupTimer(String outcome) {
+        return Timer.builder("auth.user.lookup")
+                .description("User and role lookup behind every authenticated request")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsernameWithRoles(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        UserLoadEvent event = new UserLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        // The directory, not the hash ring: users stay where they were placed when the shard set changes
+        Optional<Integer> shard = userDirectoryService.findShard(username);
+        // Sticky for the rest of the request, so the caller's own queries go to the same shard
+        shard.ifPresent(shardRouter::enter);
+        Optional<User> user = shard.flatMap(s -> userRepository.findByUsernameWithRoles(username));
+        (user.isPresent() ? foundTimer : notFoundTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (event.shouldCommit()) {
+            event.outcome = user.isPresent() ? "found" : "not_found";
+            event.userHash = AuthEvents.hash(username);
+            event.shard = shard.orElse(-1);
+            event.commit();
+        }
         
-        return user;
+        return user.orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 }
\ No newline at end of file
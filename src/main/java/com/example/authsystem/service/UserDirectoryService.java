@@ -0,0 +1,221 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.entity.UserDirectoryEntry;
+import com.example.authsystem.exception.UserAlreadyExistsException;
+import com.example.authsystem.repository.UserDirectoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Global username/email directory kept on shard 0. It answers "which shard holds this login?"
+ * for sign-in and password reset, and enforces uniqueness across shards. Every method is a
+ * no-op (or answers shard 0) when sharding is disabled, leaving uniqueness to the users table.
+ */
+@Service
+public class UserDirectoryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserDirectoryService.class);
+    
+    private static final int DIRECTORY_SHARD = 0;
+    
+    @Autowired
+    private UserDirectoryRepository userDirectoryRepository;
+    
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    public Optional<Integer> findShard(String usernameOrEmail) {
+        if (!shardRouter.isEnabled()) {
+            return Optional.of(DIRECTORY_SHARD);
+        }
+        List<String> keys = List.of(usernameKey(usernameOrEmail), emailKey(usernameOrEmail));
+        return shardRouter.inShard(DIRECTORY_SHARD, true, () -> userDirectoryRepository.findByLookupKeyIn(keys))
+                .stream()
+                .map(UserDirectoryEntry::getShard)
+                .findFirst();
+    }
+    
+    public Optional<Integer> findShardByEmail(String email) {
+        if (!shardRouter.isEnabled()) {
+            return Optional.of(DIRECTORY_SHARD);
+        }
+        return shardRouter.inShard(DIRECTORY_SHARD, true, () -> userDirectoryRepository.findById(emailKey(email)))
+                .map(UserDirectoryEntry::getShard);
+    }
+    
+    /**
+     * Claims the username and email for a user on the given shard. If called inside a
+     * transaction, the claim is released again when that transaction rolls back.
+     */
+    public void register(String username, String email, int shard) {
+        if (!shardRouter.isEnabled()) {
+            return;
+        }
+        String usernameKey = usernameKey(username);
+        String emailKey = emailKey(email);
+        
+        Set<String> taken = findTakenKeys(List.of(usernameKey, emailKey));
+        if (taken.contains(usernameKey)) {
+            throw new UserAlreadyExistsException("Username is already taken!");
+        }
+        if (taken.contains(emailKey)) {
+            throw new UserAlreadyExistsException("Email is already in use!");
+        }
+        
+        insert(List.of(new UserDirectoryEntry(usernameKey, shard), new UserDirectoryEntry(emailKey, shard)));
+        releaseOnRollback(List.of(usernameKey, emailKey));
+    }
+    
+    /**
+     * Claims several users at once, as used by bulk import. Returns the identifiers (as passed
+     * in) that were already taken; nothing is claimed in that case.
+     */
+    public Set<String> registerAll(Map<String, String> emailsByUsername, Map<String, Integer> shardsByUsername) {
+        if (!shardRouter.isEnabled()) {
+            return Set.of();
+        }
+        Map<String, String> identifiersByKey = new HashMap<>();
+        List<UserDirectoryEntry> entries = new ArrayList<>();
+        emailsByUsername.forEach((username, email) -> {
+            int shard = shardsByUsername.get(username);
+            identifiersByKey.put(usernameKey(username), username);
+            identifiersByKey.put(emailKey(email), email);
+            entries.add(new UserDirectoryEntry(usernameKey(username), shard));
+            entries.add(new UserDirectoryEntry(emailKey(email), shard));
+        });
+        
+        Set<String> taken = new HashSet<>();
+        for (String key : findTakenKeys(identifiersByKey.keySet())) {
+            taken.add(identifiersByKey.get(key));
+        }
+        if (taken.isEmpty()) {
+            insert(entries);
+        }
+        return taken;
+    }
+    
+    public void changeEmail(String oldEmail, String newEmail, int shard) {
+        if (!shardRouter.isEnabled()) {
+            return;
+        }
+        String newKey = emailKey(newEmail);
+        if (!findTakenKeys(List.of(newKey)).isEmpty()) {
+            throw new UserAlreadyExistsException("Email is already in use!");
+        }
+        insert(List.of(new UserDirectoryEntry(newKey, shard)));
+        releaseOnRollback(List.of(newKey));
+        // The old address is only released once the change is committed on the user's shard
+        afterCommit(() -> delete(List.of(emailKey(oldEmail))));
+    }
+    
+    public void unregister(String username, String email) {
+        if (!shardRouter.isEnabled()) {
+            return;
+        }
+        afterCommit(() -> delete(List.of(usernameKey(username), emailKey(email))));
+    }
+    
+    /**
+     * Releases the usernames and emails of deleted users once the delete commits.
+     */
+    public void unregister(Map<String, String> emailsByUsername) {
+        if (!shardRouter.isEnabled() || emailsByUsername.isEmpty()) {
+            return;
+        }
+        List<String> keys = directoryKeys(emailsByUsername);
+        afterCommit(() -> delete(keys));
+    }
+    
+    public void unregisterAll(Map<String, String> emailsByUsername) {
+        if (!shardRouter.isEnabled() || emailsByUsername.isEmpty()) {
+            return;
+        }
+        delete(directoryKeys(emailsByUsername));
+    }
+    
+    private List<String> directoryKeys(Map<String, String> emailsByUsername) {
+        List<String> keys = new ArrayList<>();
+        emailsByUsername.forEach((username, email) -> {
+            keys.add(usernameKey(username));
+            keys.add(emailKey(email));
+        });
+        return keys;
+    }
+    
+    private Set<String> findTakenKeys(Collection<String> keys) {
+        Set<String> taken = new HashSet<>();
+        shardRouter.inShard(DIRECTORY_SHARD, true, () -> userDirectoryRepository.findByLookupKeyIn(keys))
+                .forEach(entry -> taken.add(entry.getLookupKey()));
+        return taken;
+    }
+    
+    private void insert(List<UserDirectoryEntry> entries) {
+        try {
+            shardRouter.runInShard(DIRECTORY_SHARD, false, () -> {
+                userDirectoryRepository.saveAll(entries);
+                userDirectoryRepository.flush();
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent sign-up for the same username or email
+            throw new UserAlreadyExistsException("Username or email is already in use!");
+        }
+    }
+    
+    private void delete(Collection<String> keys) {
+        shardRouter.runInShard(DIRECTORY_SHARD, false, () -> userDirectoryRepository.deleteByLookupKeyIn(keys));
+    }
+    
+    private void releaseOnRollback(Collection<String> keys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    try {
+                        delete(keys);
+                    } catch (RuntimeException e) {
+                        logger.error("Failed to release directory entries: keys={}, error={}", keys, e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private static String usernameKey(String username) {
+        return "u:" + username.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String emailKey(String email) {
+        return "e:" + email.trim().toLowerCase(Locale.ROOT);
+    }
+}
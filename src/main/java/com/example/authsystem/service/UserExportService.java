@@ -0,0 +1,220 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Streams every user to an output stream as NDJSON or CSV.
+ * <p>
+ * Rows are read through a forward-only, read-only result stream with a fixed JDBC fetch size
+ * and written immediately, so memory use does not grow with the size of the table. With
+ * sharding enabled the shards are exported one after another, each in its own transaction.
+ */
+@Service
+public class UserExportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserExportService.class);
+    
+    private static final String CSV_HEADER = "id,username,email,firstName,lastName,phoneNumber,roles,createdAt,updatedAt\n";
+    
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${users.export.progress-interval:100000}")
+    private int progressInterval;
+    
+    private final Map<Format, Counter> rowCounters = new EnumMap<>(Format.class);
+    private final Map<Format, Timer> successTimers = new EnumMap<>(Format.class);
+    private final Map<Format, Timer> errorTimers = new EnumMap<>(Format.class);
+    
+    @PostConstruct
+    void registerMeters() {
+        for (Format format : Format.values()) {
+            String tag = format.name().toLowerCase(Locale.ROOT);
+            rowCounters.put(format, Counter.builder("users.export.rows")
+                    .description("Rows written by user exports; its rate is the export throughput")
+                    .tag("format", tag)
+                    .register(meterRegistry));
+            successTimers.put(format, exportTimer(tag, "success"));
+            errorTimers.put(format, exportTimer(tag, "error"));
+        }
+    }
+    
+    private Timer exportTimer(String format, String outcome) {
+        return Timer.builder("users.export")
+                .description("Duration of a complete user export")
+                .tag("format", format)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
+    public long export(Format format, OutputStream outputStream) throws IOException {
+        long startNanos = System.nanoTime();
+        boolean completed = false;
+        try {
+            long rows = writeExport(format, outputStream);
+            completed = true;
+            logger.info("User export completed: format={}, rows={}, durationMs={}",
+                    format, rows, (System.nanoTime() - startNanos) / 1_000_000);
+            return rows;
+        } finally {
+            (completed ? successTimers : errorTimers).get(format)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private long writeExport(Format format, OutputStream outputStream) throws IOException {
+        long rows = 0;
+        
+        if (format == Format.NDJSON) {
+            ObjectWriter writer = objectMapper.writerFor(UserInfoResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are newline-delimited explicitly, so suppress Jackson's default space separator
+            generator.setRootValueSeparator(null);
+            
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                rows = exportShard(shard, rows, format, user -> {
+                    writer.writeValue(generator, user);
+                    generator.writeRaw('\n');
+                });
+            }
+            generator.close();
+        } else {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writer.write(CSV_HEADER);
+            
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                rows = exportShard(shard, rows, format, user -> writeCsvRow(writer, user));
+            }
+            writer.flush();
+        }
+        return rows;
+    }
+    
+    /**
+     * Streams one shard inside its own read-only transaction and returns the running row count.
+     */
+    private long exportShard(int shard, long rowsSoFar, Format format, RowWriter rowWriter) throws IOException {
+        try {
+            return shardRouter.inShard(shard, true, () -> {
+                long rows = rowsSoFar;
+                try (Stream<UserInfoResponse> stream = userRepository.streamAllUserInfo()) {
+                    Iterator<UserInfoResponse> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        rowWriter.write(iterator.next());
+                        rows = afterRow(rows, format);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return rows;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private long afterRow(long rows, Format format) {
+        // The rows are DTO projections, so there are no managed entities to clear here
+        rows++;
+        rowCounters.get(format).increment();
+        if (rows % progressInterval == 0) {
+            logger.info("User export progress: format={}, rows={}", format, rows);
+        }
+        return rows;
+    }
+    
+    private void writeCsvRow(Writer writer, UserInfoResponse user) throws IOException {
+        writer.write(String.valueOf(user.getId()));
+        writer.write(',');
+        writeCsvField(writer, user.getUsername());
+        writer.write(',');
+        writeCsvField(writer, user.getEmail());
+        writer.write(',');
+        writeCsvField(writer, user.getFirstName());
+        writer.write(',');
+        writeCsvField(writer, user.getLastName());
+        writer.write(',');
+        writeCsvField(writer, user.getPhoneNumber());
+        writer.write(',');
+        writeCsvField(writer, user.getRoles() == null ? null : String.join(";", user.getRoles()));
+        writer.write(',');
+        writeCsvField(writer, format(user.getCreatedAt()));
+        writer.write(',');
+        writeCsvField(writer, format(user.getUpdatedAt()));
+        writer.write('\n');
+    }
+    
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        
+        // Neutralise spreadsheet formulas in user-controlled fields
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+    
+    private String format(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toString();
+    }
+    
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(UserInfoResponse user) throws IOException;
+    }
+}
@@ -0,0 +1,513 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.request.UserImportRecord;
+import com.example.authsystem.dto.response.UserImportResponse;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.exception.BadRequestException;
+import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk user import from a streamed NDJSON or CSV body.
+ * <p>
+ * The input is read line by line and processed in chunks: plain-text passwords in a chunk are
+ * hashed in parallel on a dedicated {@link ForkJoinPool}, then the chunk is inserted in its own
+ * transaction. Inserts go through Hibernate JDBC batching, which works because {@link User} ids
+ * come from a pooled sequence instead of IDENTITY. Bad rows are reported by line number and
+ * never abort the rest of the import.
+ */
+@Service
+public class UserImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    
+    private static final String BCRYPT_PREFIX = "{bcrypt}";
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+    
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private RoleRepository roleRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${users.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${users.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+    
+    @Value("${users.import.hash-parallelism:0}")
+    private int hashParallelism;
+    
+    private ForkJoinPool hashingPool;
+    
+    @PostConstruct
+    void init() {
+        int parallelism = hashParallelism > 0 ? hashParallelism : Runtime.getRuntime().availableProcessors();
+        hashingPool = new ForkJoinPool(parallelism);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        hashingPool.shutdown();
+    }
+    
+    public UserImportResponse importUsers(Format format, InputStream inputStream) throws IOException {
+        long startNanos = System.nanoTime();
+        Map<Role.RoleName, Long> roleIds = loadRoleIds();
+        ImportReport report = new ImportReport(maxReportedErrors);
+        ObjectReader ndjsonReader = objectMapper.readerFor(UserImportRecord.class);
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        Map<String, Integer> csvColumns = null;
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && csvColumns == null) {
+                csvColumns = parseCsvHeader(line);
+                continue;
+            }
+            
+            PendingRow row = new PendingRow(lineNumber);
+            try {
+                row.record = format == Format.CSV ? parseCsvRecord(line, csvColumns) : ndjsonReader.readValue(line);
+                if (row.record == null) {
+                    throw new IllegalArgumentException("Expected a JSON object");
+                }
+                row.roleIds = resolveRoles(row.record.getRoles(), roleIds);
+                validate(row.record);
+            } catch (JsonProcessingException e) {
+                row.error = "Malformed JSON: " + e.getOriginalMessage();
+            } catch (IllegalArgumentException e) {
+                row.error = e.getMessage();
+            }
+            chunk.add(row);
+            
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, report);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, report);
+        }
+        
+        logger.info("User import completed: format={}, imported={}, failed={}, durationMs={}",
+                format, report.imported, report.failed, (System.nanoTime() - startNanos) / 1_000_000);
+        return report.toResponse();
+    }
+    
+    private void processChunk(List<PendingRow> chunk, ImportReport report) {
+        // bcrypt dominates import cost, so hash the whole chunk in parallel before opening a transaction
+        hashingPool.submit(() -> chunk.parallelStream()
+                .filter(row -> row.error == null)
+                .forEach(this::resolvePasswordHash))
+                .join();
+        
+        List<PendingRow> valid = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (row.error == null) {
+                valid.add(row);
+            } else {
+                report.fail(row.line, row.error);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+        
+        if (!shardRouter.isEnabled()) {
+            persistShardChunk(0, valid, report);
+            return;
+        }
+        
+        // Claim usernames and emails across all shards, then insert each shard's rows separately
+        claimInDirectory(valid);
+        Map<Integer, List<PendingRow>> rowsByShard = new TreeMap<>();
+        for (PendingRow row : valid) {
+            if (row.error == null) {
+                rowsByShard.computeIfAbsent(row.shard, shard -> new ArrayList<>()).add(row);
+            } else {
+                report.fail(row.line, row.error);
+            }
+        }
+        rowsByShard.forEach((shard, rows) -> persistShardChunk(shard, rows, report));
+    }
+    
+    private void persistShardChunk(int shard, List<PendingRow> valid, ImportReport report) {
+        String error = tryPersist(shard, valid);
+        if (error == null) {
+            reportPersisted(valid, report);
+            return;
+        }
+        
+        // Usually one bad row (a value the database rejects, or a concurrent insert of the same
+        // username/email) rolled back the whole chunk; retry row by row to isolate it
+        logger.warn("User import chunk rolled back, retrying row by row: firstLine={}, rows={}, error=\"{}\"",
+                valid.get(0).line, valid.size(), error);
+        for (PendingRow row : valid) {
+            row.error = null;
+            List<PendingRow> single = List.of(row);
+            String rowError = tryPersist(shard, single);
+            if (rowError != null) {
+                row.error = "Rejected by the database: " + rowError;
+            }
+            reportPersisted(single, report);
+            if (row.error != null && shardRouter.isEnabled()) {
+                userDirectoryService.unregisterAll(emailsByUsername(single));
+            }
+        }
+    }
+    
+    /**
+     * Inserts the rows in one transaction and returns null, or the database's error message if
+     * the transaction was rolled back. The flush runs on the shared EntityManager rather than
+     * through a repository proxy, so Hibernate's exceptions arrive untranslated.
+     */
+    private String tryPersist(int shard, List<PendingRow> rows) {
+        try {
+            shardRouter.runInShard(shard, false, () -> persistChunk(rows));
+            return null;
+        } catch (DataAccessException | PersistenceException e) {
+            return NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        }
+    }
+    
+    private void reportPersisted(List<PendingRow> rows, ImportReport report) {
+        for (PendingRow row : rows) {
+            if (row.error == null) {
+                report.imported++;
+            } else {
+                report.fail(row.line, row.error);
+            }
+        }
+    }
+    
+    private void claimInDirectory(List<PendingRow> rows) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (PendingRow row : rows) {
+            row.shard = shardRouter.shardForNewUser(row.record.getUsername());
+            if (!usernames.add(row.record.getUsername().toLowerCase(Locale.ROOT))) {
+                row.error = "Username is already taken!";
+            } else if (!emails.add(row.record.getEmail().toLowerCase(Locale.ROOT))) {
+                row.error = "Email is already in use!";
+            }
+        }
+        
+        // A second attempt covers rows claimed concurrently between the lookup and the insert
+        for (int attempt = 0; attempt < 2; attempt++) {
+            List<PendingRow> pending = rows.stream().filter(row -> row.error == null).toList();
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<String, Integer> shardsByUsername = new HashMap<>();
+            pending.forEach(row -> shardsByUsername.put(row.record.getUsername(), row.shard));
+            
+            Set<String> taken = userDirectoryService.registerAll(emailsByUsername(pending), shardsByUsername);
+            if (taken.isEmpty()) {
+                return;
+            }
+            for (PendingRow row : pending) {
+                if (taken.contains(row.record.getUsername())) {
+                    row.error = "Username is already taken!";
+                } else if (taken.contains(row.record.getEmail())) {
+                    row.error = "Email is already in use!";
+                } else if (attempt > 0) {
+                    row.error = "Username or email is already in use!";
+                }
+            }
+        }
+    }
+    
+    private Map<String, String> emailsByUsername(List<PendingRow> rows) {
+        Map<String, String> emails = new LinkedHashMap<>();
+        for (PendingRow row : rows) {
+            emails.put(row.record.getUsername(), row.record.getEmail());
+        }
+        return emails;
+    }
+    
+    private void persistChunk(List<PendingRow> rows) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (PendingRow row : rows) {
+            usernames.add(row.record.getUsername());
+            emails.add(row.record.getEmail());
+        }
+        Set<String> existingUsernames = userRepository.findExistingUsernames(usernames);
+        Set<String> existingEmails = userRepository.findExistingEmails(emails);
+        
+        for (PendingRow row : rows) {
+            UserImportRecord record = row.record;
+            if (!existingUsernames.add(record.getUsername())) {
+                row.error = "Username is already taken!";
+                continue;
+            }
+            if (!existingEmails.add(record.getEmail())) {
+                row.error = "Email is already in use!";
+                continue;
+            }
+            
+            User user = new User(record.getUsername(), record.getEmail(), row.passwordHash);
+            user.setFirstName(record.getFirstName());
+            user.setLastName(record.getLastName());
+            user.setPhoneNumber(record.getPhoneNumber());
+            
+            Set<Role> roles = new HashSet<>();
+            for (Long roleId : row.roleIds) {
+                roles.add(entityManager.getReference(Role.class, roleId));
+            }
+            user.setRoles(roles);
+            
+            entityManager.persist(user);
+            userSearchIndex.indexAfterCommit(user);
+        }
+        
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    private void resolvePasswordHash(PendingRow row) {
+        String password = row.record.getPassword();
+        
+        if (password.startsWith("{")) {
+            if (!password.startsWith(BCRYPT_PREFIX)) {
+                row.error = "Unsupported password encoder; only {bcrypt} hashes can be imported";
+                return;
+            }
+            String hash = password.substring(BCRYPT_PREFIX.length());
+            if (!BCRYPT_HASH.matcher(hash).matches()) {
+                row.error = "Malformed bcrypt hash";
+                return;
+            }
+            row.passwordHash = hash;
+            return;
+        }
+        
+        if (password.length() < 6 || password.length() > 40) {
+            row.error = "password: size must be between 6 and 40";
+            return;
+        }
+        row.passwordHash = passwordEncoder.encode(password);
+    }
+    
+    private void validate(UserImportRecord record) {
+        Set<ConstraintViolation<UserImportRecord>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserImportRecord> violation = violations.iterator().next();
+            throw new IllegalArgumentException(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+    }
+    
+    private Map<Role.RoleName, Long> loadRoleIds() {
+        Map<Role.RoleName, Long> roleIds = new EnumMap<>(Role.RoleName.class);
+        for (Role role : roleRepository.findAll()) {
+            roleIds.put(role.getName(), role.getId());
+        }
+        return roleIds;
+    }
+    
+    private Set<Long> resolveRoles(Set<String> names, Map<Role.RoleName, Long> roleIds) {
+        if (names == null || names.isEmpty()) {
+            names = Set.of(Role.RoleName.ROLE_USER.name());
+        }
+        
+        Set<Long> ids = new HashSet<>();
+        for (String name : names) {
+            String normalized = name.trim().toUpperCase(Locale.ROOT);
+            if (!normalized.startsWith("ROLE_")) {
+                normalized = "ROLE_" + normalized;
+            }
+            Long id;
+            try {
+                id = roleIds.get(Role.RoleName.valueOf(normalized));
+            } catch (IllegalArgumentException e) {
+                id = null;
+            }
+            if (id == null) {
+                throw new IllegalArgumentException("Unknown role: " + name);
+            }
+            ids.add(id);
+        }
+        return ids;
+    }
+    
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> columns = parseCsvLine(line);
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            indexes.put(columns.get(i).trim(), i);
+        }
+        if (!indexes.containsKey("username") || !indexes.containsKey("email") || !indexes.containsKey("password")) {
+            throw new BadRequestException("CSV header must contain username, email and password columns");
+        }
+        return indexes;
+    }
+    
+    private UserImportRecord parseCsvRecord(String line, Map<String, Integer> columns) {
+        List<String> values = parseCsvLine(line);
+        
+        UserImportRecord record = new UserImportRecord();
+        record.setUsername(csvValue(values, columns, "username"));
+        record.setEmail(csvValue(values, columns, "email"));
+        record.setPassword(csvValue(values, columns, "password"));
+        record.setFirstName(csvValue(values, columns, "firstName"));
+        record.setLastName(csvValue(values, columns, "lastName"));
+        record.setPhoneNumber(csvValue(values, columns, "phoneNumber"));
+        
+        String roles = csvValue(values, columns, "roles");
+        if (roles != null) {
+            record.setRoles(new HashSet<>(Arrays.asList(roles.split(";"))));
+        }
+        return record;
+    }
+    
+    private String csvValue(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+    
+    private List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted CSV field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+    
+    private static class PendingRow {
+        private final long line;
+        private UserImportRecord record;
+        private Set<Long> roleIds;
+        private String passwordHash;
+        private int shard;
+        private String error;
+        
+        PendingRow(long line) {
+            this.line = line;
+        }
+    }
+    
+    private static class ImportReport {
+        private final int maxErrors;
+        private final List<UserImportResponse.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+        
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+        
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportResponse.RowError(line, message));
+            }
+        }
+        
+        UserImportResponse toResponse() {
+            errors.sort(Comparator.comparingLong(UserImportResponse.RowError::getLine));
+            return new UserImportResponse(imported, failed, errors, failed > errors.size());
+        }
+    }
+}
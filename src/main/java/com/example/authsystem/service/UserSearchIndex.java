@@ -0,0 +1,328 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over username, email, first name and last name.
+ * <p>
+ * Every field is lower-cased and split into terms (the whole value plus each alphanumeric
+ * token, so {@code john.smith@example.com} is found by {@code smith} or {@code example}).
+ * Terms live in a sorted map pointing at posting sets of user ids, so a prefix query is a
+ * range scan over the map rather than over the {@code users} table. The index is built once
+ * when the application is ready and kept current by {@link UserService} after each commit.
+ * <p>
+ * It is local to this node, so writes made on other nodes (or straight in the database) only
+ * arrive through the periodic resync: users whose {@code updated_at} moved since the last pass
+ * are re-read every {@code resync-interval-ms}, and ids that no longer exist are dropped every
+ * {@code reconcile-interval-ms}.
+ */
+@Component
+public class UserSearchIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+    
+    private final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+    
+    private final Map<Long, IndexedUser> users = new ConcurrentHashMap<>();
+    
+    /** Serializes writers; a lock rather than a monitor so waiting virtual threads do not pin their carrier. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    @Value("${users.search.max-candidates:10000}")
+    private int maxCandidates;
+    
+    @Value("${users.search.resync-overlap-ms:60000}")
+    private long resyncOverlapMs;
+    
+    /** Start of the last completed pass; {@code null} until the index has been built. */
+    private volatile LocalDateTime syncedFrom;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startNanos = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.runInShard(shard, true, () -> {
+                try (Stream<UserInfoResponse> stream = userRepository.streamAllUserInfo()) {
+                    stream.forEach(user -> index(user.getId(), user.getUsername(), user.getEmail(),
+                            user.getFirstName(), user.getLastName()));
+                }
+            });
+        }
+        syncedFrom = startedAt;
+        logger.info("User search index built: users={}, terms={}, durationMs={}",
+                users.size(), postings.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+    
+    /**
+     * Re-indexes users changed since the previous pass. The window reaches back by
+     * {@code resync-overlap-ms} to cover transactions that committed after the last pass read
+     * past them, clock skew between nodes and replica lag; re-indexing a user is idempotent.
+     */
+    @Scheduled(fixedDelayString = "${users.search.resync-interval-ms:30000}")
+    public void resync() {
+        LocalDateTime since = syncedFrom;
+        if (since == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        int[] reindexed = {0};
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.runInShard(shard, true, () -> {
+                try (Stream<UserInfoResponse> stream =
+                             userRepository.streamUserInfoUpdatedSince(since.minus(Duration.ofMillis(resyncOverlapMs)))) {
+                    stream.forEach(user -> {
+                        index(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName());
+                        reindexed[0]++;
+                    });
+                }
+            });
+        }
+        syncedFrom = startedAt;
+        logger.debug("User search index resynced: since={}, reindexed={}", since, reindexed[0]);
+    }
+    
+    /**
+     * Drops users deleted elsewhere, which {@code updated_at} cannot show. Only ids indexed before
+     * the database is read are candidates, so a user created meanwhile is never dropped; the ids
+     * are read on the primary for the same reason.
+     */
+    @Scheduled(fixedDelayString = "${users.search.reconcile-interval-ms:600000}")
+    public void reconcileDeletions() {
+        if (syncedFrom == null) {
+            return;
+        }
+        Set<Long> stale = new HashSet<>(users.keySet());
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            shardRouter.runInShard(shard, false, () -> {
+                try (Stream<Long> ids = userRepository.streamAllIds()) {
+                    ids.forEach(stale::remove);
+                }
+            });
+        }
+        stale.forEach(this::remove);
+        if (!stale.isEmpty()) {
+            logger.info("User search index reconciled: removed={}", stale.size());
+        }
+    }
+    
+    /**
+     * Indexes the user once the surrounding transaction commits, or immediately if there is none.
+     */
+    public void indexAfterCommit(User user) {
+        Long id = user.getId();
+        String username = user.getUsername();
+        String email = user.getEmail();
+        String firstName = user.getFirstName();
+        String lastName = user.getLastName();
+        afterCommit(() -> index(id, username, email, firstName, lastName));
+    }
+    
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+    
+    public void index(Long id, String username, String email, String firstName, String lastName) {
+        IndexedUser user = new IndexedUser(id, lower(username), lower(email), lower(firstName), lower(lastName));
+        writeLock.lock();
+        try {
+            remove(id);
+            users.put(id, user);
+            for (String term : user.terms) {
+                postings.computeIfAbsent(term, key -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            IndexedUser previous = users.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String term : previous.terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    /**
+     * Returns the ids of users matching every whitespace-separated term of the query as a
+     * prefix, best match first. At most {@code max-candidates} users are considered per term;
+     * when a term matched more, the result is marked truncated and its total is a lower bound.
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>();
+        for (String term : lower(query).split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        if (terms.isEmpty()) {
+            return new SearchResult(List.of(), 0, false);
+        }
+        
+        Set<Long> candidates = null;
+        boolean truncated = false;
+        for (String term : terms) {
+            PrefixMatches matches = prefixMatches(term);
+            truncated |= matches.truncated();
+            if (candidates == null) {
+                candidates = matches.ids();
+            } else {
+                candidates.retainAll(matches.ids());
+            }
+            if (candidates.isEmpty()) {
+                return new SearchResult(List.of(), 0, truncated);
+            }
+        }
+        
+        List<ScoredUser> scored = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            IndexedUser user = users.get(id);
+            if (user != null) {
+                int score = 0;
+                for (String term : terms) {
+                    score += user.score(term);
+                }
+                scored.add(new ScoredUser(user, score));
+            }
+        }
+        scored.sort(Comparator.comparingInt(ScoredUser::score).reversed()
+                .thenComparing(scoredUser -> scoredUser.user().username));
+        
+        List<Long> page = new ArrayList<>(limit);
+        for (int i = offset; i < scored.size() && page.size() < limit; i++) {
+            page.add(scored.get(i).user().id);
+        }
+        return new SearchResult(page, scored.size(), truncated);
+    }
+    
+    private PrefixMatches prefixMatches(String prefix) {
+        Set<Long> matches = new HashSet<>();
+        for (Set<Long> ids : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+            for (Long id : ids) {
+                if (matches.size() >= maxCandidates && !matches.contains(id)) {
+                    return new PrefixMatches(matches, true);
+                }
+                matches.add(id);
+            }
+        }
+        return new PrefixMatches(matches, false);
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+    
+    /** {@code truncated} means a term hit {@code max-candidates}; {@code total} is then a lower bound. */
+    public record SearchResult(List<Long> ids, int total, boolean truncated) {}
+    
+    private record PrefixMatches(Set<Long> ids, boolean truncated) {}
+    
+    private record ScoredUser(IndexedUser user, int score) {}
+    
+    private static final class IndexedUser {
+        private final Long id;
+        private final String username;
+        private final String email;
+        private final String firstName;
+        private final String lastName;
+        private final Set<String> terms;
+        
+        IndexedUser(Long id, String username, String email, String firstName, String lastName) {
+            this.id = id;
+            this.username = username;
+            this.email = email;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            
+            Set<String> terms = new LinkedHashSet<>();
+            for (String field : new String[] {username, email, firstName, lastName}) {
+                if (field.isEmpty()) {
+                    continue;
+                }
+                terms.add(field);
+                for (String token : field.split("[^\\p{L}\\p{N}]+")) {
+                    if (!token.isEmpty()) {
+                        terms.add(token);
+                    }
+                }
+            }
+            this.terms = terms;
+        }
+        
+        int score(String term) {
+            if (username.equals(term) || email.equals(term)) {
+                return 100;
+            }
+            if (username.startsWith(term)) {
+                return 80;
+            }
+            if (email.startsWith(term)) {
+                return 60;
+            }
+            if (firstName.startsWith(term) || lastName.startsWith(term)) {
+                return 50;
+            }
+            return 30;
+        }
+    }
+}
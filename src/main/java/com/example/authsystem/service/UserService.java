@@ -3,23 +3,38 @@ package com.example.authsystem.service;
 import com.example.authsystem.dto.request.SignUpRequest;
 import com.example.authsystem.dto.request.UpdateUserRequest;
 import com.example.authsystem.dto.response.UserInfoResponse;
+import com.example.authsystem.dto.response.UserPageResponse;
+import com.example.authsystem.dto.response.UserSearchResponse;
 import com.example.authsystem.entity.Role;
 import com.example.authsystem.entity.User;
+import com.example.authsystem.exception.BadRequestException;
 import com.example.authsystem.exception.ResourceNotFoundException;
 import com.example.authsystem.exception.UserAlreadyExistsException;
+import com.example.authsystem.exception.VersionConflictException;
 import com.example.authsystem.repository.RoleRepository;
 import com.example.authsystem.repository.UserRepository;
+import com.example.authsystem.util.PasswordResetTokenUtils;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,7 +53,40 @@ public class UserService {
     @Autowired
     private EmailService emailService;
     
+    @Autowired
+    private PasswordResetThrottle passwordResetThrottle;
+    
+    @Autowired
+    private PasswordResetTokenUtils passwordResetTokenUtils;
+    
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+    
+    @Autowired
+    private UserShardRouter shardRouter;
+    
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+    
+    @Autowired
+    private EntityCacheService entityCacheService;
+    
+    @Autowired
+    private UserBatchService userBatchService;
+    
+    @Value("${users.search.max-size:100}")
+    private int maxSearchSize;
+    
+    @Value("${users.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${users.page.max-size:500}")
+    private int maxPageSize;
+    
     public User createUser(SignUpRequest signUpRequest) {
+        int shard = shardRouter.shardForNewUser(signUpRequest.getUsername());
+        shardRouter.enter(shard);
+        
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
             throw new UserAlreadyExistsException("Username is already taken!");
         }
@@ -47,6 +95,9 @@ public class UserService {
             throw new UserAlreadyExistsException("Email is already in use!");
         }
         
+        // Claims the username and email across all shards; released again if this transaction rolls back
+        userDirectoryService.register(signUpRequest.getUsername(), signUpRequest.getEmail(), shard);
+        
         // Create new user
         User user = new User(signUpRequest.getUsername(),
                            signUpRequest.getEmail(),
@@ -63,37 +114,116 @@ public class UserService {
         roles.add(userRole);
         user.setRoles(roles);
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userSearchIndex.indexAfterCommit(savedUser);
+        return savedUser;
     }
     
+    @Transactional(readOnly = true)
     public User getUserById(Long id) {
-        return userRepository.findById(id)
+        shardRouter.enter(shardRouter.shardForUserId(id));
+        User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        // Callers render the roles after the transaction. Initializing the collection here rather than
+        // fetch-joining it keeps both the user and its role set served from the second-level cache.
+        Hibernate.initialize(user.getRoles());
+        return user;
     }
     
+    @Transactional(readOnly = true)
     public User getUserByUsername(String username) {
-        return userRepository.findByUsernameWithRoles(username)
+        return userDirectoryService.findShard(username)
+                .flatMap(shard -> {
+                    shardRouter.enter(shard);
+                    return userRepository.findByUsernameWithRoles(username);
+                })
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
     }
     
+    @Transactional(readOnly = true)
     public User getUserByEmail(String email) {
-        return userRepository.findByEmailWithRoles(email)
+        return userDirectoryService.findShardByEmail(email)
+                .flatMap(shard -> {
+                    shardRouter.enter(shard);
+                    return userRepository.findByEmailWithRoles(email);
+                })
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
     }
     
+    @Transactional(readOnly = true)
     public Optional<User> findByUsernameOrEmail(String usernameOrEmail) {
-        return userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
+        return userDirectoryService.findShard(usernameOrEmail)
+                .flatMap(shard -> {
+                    shardRouter.enter(shard);
+                    return userRepository.findByLoginWithRoles(usernameOrEmail);
+                });
+    }
+    
+    @Transactional(readOnly = true)
+    public UserPageResponse getUsersPage(String cursor, Integer size, Role.RoleName role, Boolean enabled,
+                                         LocalDateTime createdFrom, LocalDateTime createdTo) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        long after = decodeCursor(cursor);
+        
+        // Fetch one extra row to find out whether another page exists without a count query.
+        // Ids grow with the shard number, so walking the shards in order keeps the keyset global.
+        List<UserInfoResponse> users = new ArrayList<>(pageSize + 1);
+        for (int shard = shardRouter.shardForUserId(after); shard < shardRouter.shardCount(); shard++) {
+            int remaining = pageSize + 1 - users.size();
+            users.addAll(shardRouter.inShard(shard, true, () -> userRepository.findUserPage(after, role, enabled,
+                    createdFrom, createdTo, PageRequest.ofSize(remaining))));
+            if (users.size() > pageSize) {
+                break;
+            }
+        }
+        
+        String nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = encodeCursor(users.get(pageSize - 1).getId());
+        }
+        
+        return new UserPageResponse(users, nextCursor);
     }
     
-    public List<UserInfoResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::convertToUserInfoResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public UserSearchResponse searchUsers(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxSearchSize));
+        int pageNumber = Math.max(0, page);
+        
+        UserSearchIndex.SearchResult result = userSearchIndex.search(query, pageNumber * pageSize, pageSize);
+        if (result.ids().isEmpty()) {
+            return new UserSearchResponse(List.of(), result.total(), pageNumber, pageSize, result.truncated());
+        }
+        
+        // Primary-key fetch for the page only, then restore the index ranking
+        Map<Long, UserInfoResponse> byId = new HashMap<>();
+        Map<Integer, List<Long>> idsByShard = result.ids().stream()
+                .collect(Collectors.groupingBy(shardRouter::shardForUserId));
+        idsByShard.forEach((shard, ids) -> {
+            for (UserInfoResponse user : shardRouter.inShard(shard, true, () -> userRepository.findUserInfoByIds(ids))) {
+                byId.put(user.getId(), user);
+            }
+        });
+        List<UserInfoResponse> users = new ArrayList<>(result.ids().size());
+        for (Long id : result.ids()) {
+            UserInfoResponse user = byId.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        
+        return new UserSearchResponse(users, result.total(), pageNumber, pageSize, result.truncated());
     }
     
     public User updateUser(Long id, UpdateUserRequest updateRequest) {
         User user = getUserById(id);
         
+        // Lost-update check across requests; the version in the UPDATE's WHERE clause covers concurrent transactions
+        if (updateRequest.getVersion() != null && updateRequest.getVersion() != user.getVersion()) {
+            throw new VersionConflictException("User was modified by another request. Reload it and try again.");
+        }
+        
         if (updateRequest.getFirstName() != null) {
             user.setFirstName(updateRequest.getFirstName());
         }
@@ -107,28 +237,44 @@ public class UserService {
             if (userRepository.existsByEmail(updateRequest.getEmail())) {
                 throw new UserAlreadyExistsException("Email is already in use!");
             }
+            userDirectoryService.changeEmail(user.getEmail(), updateRequest.getEmail(),
+                    shardRouter.shardForUserId(user.getId()));
             user.setEmail(updateRequest.getEmail());
         }
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        entityCacheService.evictUserAfterCommit(savedUser.getId());
+        userSearchIndex.indexAfterCommit(savedUser);
+        return savedUser;
     }
     
     public void deleteUser(Long id) {
-        User user = getUserById(id);
-        userRepository.delete(user);
+        // Set-based: refresh tokens and role links are removed with one statement each instead of
+        // being loaded through the cascade and deleted row by row
+        if (userBatchService.deleteUsers(List.of(id)) == 0) {
+            throw new ResourceNotFoundException("User not found with id: " + id);
+        }
     }
     
     public void generatePasswordResetToken(String email) {
+        // Repeated requests for one address inside the throttle window are dropped before touching the DB
+        if (!passwordResetThrottle.tryAcquire(email)) {
+            return;
+        }
+        // The slot only counts once the reset email is committed to the outbox
+        releaseThrottleUnlessCommitted(email);
+        
         // Fix user enumeration - always process without revealing if email exists
-        Optional<User> userOptional = userRepository.findByEmail(email);
+        Optional<User> userOptional = userDirectoryService.findShardByEmail(email)
+                .flatMap(shard -> {
+                    shardRouter.enter(shard);
+                    return userRepository.findByEmail(email);
+                });
         
         if (userOptional.isPresent()) {
             User user = userOptional.get();
-            String token = UUID.randomUUID().toString();
-            user.setPasswordResetToken(token);
-            user.setPasswordResetTokenExpiry(LocalDateTime.now().plusHours(1)); // Token expires in 1 hour
-            
-            userRepository.save(user);
+            // Tokens are self-contained and signed, so nothing is written to the users table
+            String token = passwordResetTokenUtils.generateToken(user.getId(), user.getPassword());
             
             // Send password reset email
             emailService.sendPasswordResetEmail(user.getEmail(), token);
@@ -136,15 +282,35 @@ public class UserService {
         // Always return success to prevent user enumeration
     }
     
+    private void releaseThrottleUnlessCommitted(String email) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    passwordResetThrottle.release(email);
+                }
+            }
+        });
+    }
+    
     public void resetPassword(String token, String newPassword) {
-        User user = userRepository.findByValidPasswordResetToken(token, LocalDateTime.now())
+        Long userId = passwordResetTokenUtils.getValidUserId(token)
                 .orElseThrow(() -> new ResourceNotFoundException("Invalid or expired password reset token"));
+        shardRouter.enter(shardRouter.shardForUserId(userId));
         
-        user.setPassword(passwordEncoder.encode(newPassword));
-        user.setPasswordResetToken(null);
-        user.setPasswordResetTokenExpiry(null);
+        // Only the hash is read; the entity is never loaded
+        String currentHash = userRepository.findPasswordById(userId)
+                .filter(hash -> passwordResetTokenUtils.isBoundToPassword(token, hash))
+                .orElseThrow(() -> new ResourceNotFoundException("Invalid or expired password reset token"));
         
-        userRepository.save(user);
+        // Changing the password hash also invalidates the token that was just used. The conditional
+        // UPDATE makes that atomic: of two concurrent resets with one token, only the first matches.
+        int updated = userRepository.updatePasswordIfUnchanged(userId, currentHash,
+                passwordEncoder.encode(newPassword), LocalDateTime.now());
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Invalid or expired password reset token");
+        }
+        entityCacheService.evictUserAfterCommit(userId);
     }
     
     public void changePassword(String username, String oldPassword, String newPassword) {
@@ -154,12 +320,41 @@ public class UserService {
             throw new RuntimeException("Old password is incorrect");
         }
         
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        int updated = userRepository.updatePasswordIfUnchanged(user.getId(), user.getPassword(),
+                passwordEncoder.encode(newPassword), LocalDateTime.now());
+        if (updated == 0) {
+            throw new VersionConflictException("Password was changed by another request. Try again.");
+        }
+        entityCacheService.evictUserAfterCommit(user.getId());
+    }
+    
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("u:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("u:")) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(2));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
     }
     
+    /**
+     * Pure mapping of an already loaded user; it must not open a transaction (and take a
+     * connection) of its own when called from a controller.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserInfoResponse convertToUserInfoResponse(User user) {
-        return new UserInfoResponse(
+        UserInfoResponse response = new UserInfoResponse(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
@@ -172,5 +367,7 @@ public class UserService {
                 user.getCreatedAt(),
                 user.getUpdatedAt()
         );
+        response.setVersion(user.getVersion());
+        return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,196 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.config.ShardContext;
+import com.example.authsystem.config.ShardingProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard a user lives on and runs work against a given shard.
+ * <p>
+ * New users are placed by a consistent hash of their normalized username. Their id encodes the
+ * shard (see {@link ShardContext#SHARD_ID_SHIFT}) and refresh tokens are prefixed with it, so
+ * id and token lookups need no directory query. Lookups by username or email go through
+ * {@link UserDirectoryService}: the ring only answers where a user would be placed today, which
+ * stops being where existing users live as soon as the shard set changes. With sharding disabled
+ * every method resolves to shard 0 and behaves like the single-database setup.
+ */
+@Component
+public class UserShardRouter {
+    
+    @Autowired
+    private ShardingProperties properties;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+    
+    private boolean enabled;
+    
+    private int shardCount;
+    
+    private TransactionTemplate readWriteTemplate;
+    
+    private TransactionTemplate readOnlyTemplate;
+    
+    @PostConstruct
+    void init() {
+        enabled = properties.isEnabled();
+        shardCount = enabled ? properties.getShards().size() + 1 : 1;
+        
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < properties.getVirtualNodes(); node++) {
+                ring.put(hash("shard-" + shard + "#" + node), shard);
+            }
+        }
+        
+        // Sharded work must not join a transaction already bound to another shard's connection
+        int propagation = enabled
+                ? TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                : TransactionDefinition.PROPAGATION_REQUIRED;
+        readWriteTemplate = new TransactionTemplate(transactionManager);
+        readWriteTemplate.setPropagationBehavior(propagation);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setPropagationBehavior(propagation);
+        readOnlyTemplate.setReadOnly(true);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public int shardCount() {
+        return shardCount;
+    }
+    
+    /**
+     * Where a user signing up now is placed. Not a lookup: existing users stay on the shard they
+     * were placed on, which {@link UserDirectoryService#findShard} records.
+     */
+    public int shardForNewUser(String username) {
+        if (!enabled) {
+            return 0;
+        }
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(hash(username.trim().toLowerCase(Locale.ROOT)));
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+    
+    public int shardForUserId(Long id) {
+        if (!enabled || id == null) {
+            return 0;
+        }
+        return (int) (id >>> ShardContext.SHARD_ID_SHIFT);
+    }
+    
+    public String newRefreshToken(int shard) {
+        String token = UUID.randomUUID().toString();
+        return enabled ? shard + "." + token : token;
+    }
+    
+    public int shardForRefreshToken(String token) {
+        if (!enabled || token == null) {
+            return 0;
+        }
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return 0;
+        }
+        try {
+            int shard = Integer.parseInt(token.substring(0, separator));
+            return shard >= 0 && shard < shardCount ? shard : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Routes the rest of the current request to the shard. Call before the first query of a
+     * per-user transaction.
+     */
+    public void enter(int shard) {
+        if (enabled) {
+            ShardContext.set(shard);
+        }
+    }
+    
+    /**
+     * Runs the action in its own transaction on the given shard. Without sharding it simply
+     * joins the current transaction, or starts one.
+     */
+    public <T> T inShard(int shard, boolean readOnly, Supplier<T> action) {
+        TransactionTemplate template = readOnly ? readOnlyTemplate : readWriteTemplate;
+        if (!enabled) {
+            return template.execute(status -> action.get());
+        }
+        return ShardContext.callOn(shard, () -> detachedFromRequest(() -> template.execute(status -> action.get())));
+    }
+    
+    public void runInShard(int shard, boolean readOnly, Runnable action) {
+        inShard(shard, readOnly, () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Points connections opened by the action at the shard without starting a transaction.
+     */
+    public void onShard(int shard, Runnable action) {
+        if (!enabled) {
+            action.run();
+            return;
+        }
+        ShardContext.callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Outside a transaction, JpaTransactionManager would reuse the open-in-view EntityManager and
+     * pin its connection to this shard for the rest of the request, so it is unbound meanwhile.
+     * Inside one, REQUIRES_NEW already suspends it.
+     */
+    private <T> T detachedFromRequest(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+        Object requestEntityManager = TransactionSynchronizationManager.unbindResourceIfPossible(entityManagerFactory);
+        try {
+            return action.get();
+        } finally {
+            if (requestEntityManager != null) {
+                TransactionSynchronizationManager.bindResource(entityManagerFactory, requestEntityManager);
+            }
+        }
+    }
+    
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
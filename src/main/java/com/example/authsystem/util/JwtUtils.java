@@ -1,11 +1,16 @@
 package com.example.authsystem.util;
 
 import com.example.authsystem.entity.User;
+import com.example.authsystem.jfr.AuthEvents;
+import com.example.authsystem.jfr.TokenVerificationEvent;
+import com.example.authsystem.security.SecurityEventLogger;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -13,15 +18,22 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
     
-    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+    private enum VerifyOutcome {
+        VALID, EXPIRED, MALFORMED, UNSUPPORTED, EMPTY, INVALID;
+        
+        private final String tag = name().toLowerCase(Locale.ROOT);
+    }
     
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -29,6 +41,51 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
+    private SecretKey signingKey;
+    
+    private JwtParser jwtParser;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private SecurityEventLogger securityEventLogger;
+    
+    private Timer generateSuccessTimer;
+    
+    private Timer generateErrorTimer;
+    
+    private final Map<VerifyOutcome, Timer> verifyTimers = new EnumMap<>(VerifyOutcome.class);
+    
+    /**
+     * The key and the parser are immutable and thread-safe, so they are built once instead of on
+     * every token issued or validated. So are the timers: each outcome has its own, so recording
+     * neither looks up the registry nor allocates tags.
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        
+        generateSuccessTimer = generateTimer("success");
+        generateErrorTimer = generateTimer("error");
+        for (VerifyOutcome outcome : VerifyOutcome.values()) {
+            verifyTimers.put(outcome, Timer.builder("auth.jwt.verify")
+                    .description("Access token signature and expiry checks")
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry));
+        }
+    }
+    
+    private Timer generateTimer(String outcome) {
+        return Timer.builder("auth.jwt.generate")
+                .description("Access token signing")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
     public String generateJwtToken(Authentication authentication) {
         User userPrincipal = (User) authentication.getPrincipal();
         return generateTokenFromUsername(userPrincipal.getUsername(), userPrincipal);
@@ -48,29 +105,32 @@ public class JwtUtils {
     }
     
     private String createToken(Map<String, Object> claims, String subject) {
-        return Jwts.builder()
-                .claims(claims)
-                .subject(subject)
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+        long start = System.nanoTime();
+        Timer timer = generateErrorTimer;
+        try {
+            String token = Jwts.builder()
+                    .claims(claims)
+                    .subject(subject)
+                    .issuedAt(new Date())
+                    .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
+                    .signWith(signingKey, SignatureAlgorithm.HS512)
+                    .compact();
+            timer = generateSuccessTimer;
+            return token;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            ServerTiming.record(ServerTiming.JWT_SIGN, start);
+        }
     }
     
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
+        return jwtParser.parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
     }
     
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
+        return jwtParser.parseSignedClaims(token)
                 .getPayload();
     }
     
@@ -97,38 +157,45 @@ public class JwtUtils {
     }
     
     public Boolean validateJwtToken(String authToken) {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        VerifyOutcome outcome = VerifyOutcome.INVALID;
+        String subject = null;
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
+            subject = jwtParser.parseSignedClaims(authToken).getPayload().getSubject();
+            outcome = VerifyOutcome.VALID;
             return true;
         } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            outcome = VerifyOutcome.MALFORMED;
+            securityEventLogger.record(SecurityEventLogger.Reason.MALFORMED_TOKEN, e.getMessage());
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            outcome = VerifyOutcome.EXPIRED;
+            subject = e.getClaims().getSubject();
+            securityEventLogger.record(SecurityEventLogger.Reason.EXPIRED_TOKEN, e.getMessage());
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            outcome = VerifyOutcome.UNSUPPORTED;
+            securityEventLogger.record(SecurityEventLogger.Reason.UNSUPPORTED_TOKEN, e.getMessage());
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            outcome = VerifyOutcome.EMPTY;
+            securityEventLogger.record(SecurityEventLogger.Reason.EMPTY_TOKEN, e.getMessage());
         } catch (Exception e) {
-            logger.error("JWT token validation error: {}", e.getMessage());
+            // Includes signature mismatches
+            securityEventLogger.record(SecurityEventLogger.Reason.INVALID_TOKEN, e.getMessage());
+        } finally {
+            verifyTimers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            ServerTiming.record(ServerTiming.JWT_VERIFY, start);
+            if (event.shouldCommit()) {
+                event.outcome = outcome.tag;
+                event.userHash = AuthEvents.hash(subject);
+                event.commit();
+            }
         }
         
         return false;
     }
     
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-    
     public String generateTokenFromUsernameOnly(String username) {
-        return Jwts.builder()
-                .subject(username)
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+        return createToken(new HashMap<>(), username);
     }
 }
\ No newline at end of file
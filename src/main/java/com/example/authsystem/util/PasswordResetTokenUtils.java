@@ -0,0 +1,131 @@
+package com.example.authsystem.util;
+
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Self-contained, HMAC-signed password reset tokens.
+ * <p>
+ * A token carries the user id, its expiry and a keyed fingerprint of the user's current
+ * password hash, followed by an HMAC-SHA256 over those fields. Nothing is stored server-side:
+ * validating a token is a MAC check plus a primary-key fetch, and a token stops working as
+ * soon as the password changes because the fingerprint no longer matches.
+ */
+@Component
+public class PasswordResetTokenUtils {
+    
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] FINGERPRINT_CONTEXT = "password-reset-fingerprint:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TOKEN_CONTEXT = "password-reset-token:".getBytes(StandardCharsets.UTF_8);
+    
+    private static final int FINGERPRINT_LENGTH = 16;
+    private static final int PAYLOAD_LENGTH = Long.BYTES + Long.BYTES + FINGERPRINT_LENGTH;
+    private static final int MAC_LENGTH = 32;
+    
+    @Value("${password-reset.secret}")
+    private String secret;
+    
+    @Value("${password-reset.token-expiration-ms:3600000}")
+    private long tokenExpirationMs;
+    
+    private SecretKeySpec key;
+    
+    @PostConstruct
+    void init() {
+        key = new SecretKeySpec(Decoders.BASE64.decode(secret), HMAC_ALGORITHM);
+    }
+    
+    /**
+     * Takes the id and hash rather than the entity, so the reactive build can share this class.
+     */
+    public String generateToken(long userId, String passwordHash) {
+        ByteBuffer buffer = ByteBuffer.allocate(PAYLOAD_LENGTH + MAC_LENGTH);
+        buffer.putLong(userId);
+        buffer.putLong(System.currentTimeMillis() + tokenExpirationMs);
+        buffer.put(fingerprint(passwordHash));
+        buffer.put(mac(TOKEN_CONTEXT, buffer.array(), PAYLOAD_LENGTH));
+        
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+    
+    /**
+     * Returns the user id carried by the token if its signature is valid and it has not expired.
+     * The caller must still check {@link #isBoundToPassword(String, String)} against the loaded user.
+     */
+    public Optional<Long> getValidUserId(String token) {
+        byte[] raw = decode(token);
+        if (raw == null) {
+            return Optional.empty();
+        }
+        
+        byte[] expectedMac = mac(TOKEN_CONTEXT, raw, PAYLOAD_LENGTH);
+        byte[] actualMac = Arrays.copyOfRange(raw, PAYLOAD_LENGTH, raw.length);
+        if (!MessageDigest.isEqual(expectedMac, actualMac)) {
+            return Optional.empty();
+        }
+        
+        ByteBuffer buffer = ByteBuffer.wrap(raw);
+        long userId = buffer.getLong();
+        long expiresAt = buffer.getLong();
+        if (expiresAt < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        
+        return Optional.of(userId);
+    }
+    
+    /**
+     * Checks that the token was issued for the given password hash, i.e. that the password
+     * has not been changed (or reset with this same token) since the token was generated.
+     */
+    public boolean isBoundToPassword(String token, String passwordHash) {
+        byte[] raw = decode(token);
+        if (raw == null) {
+            return false;
+        }
+        
+        byte[] tokenFingerprint = Arrays.copyOfRange(raw, Long.BYTES * 2, PAYLOAD_LENGTH);
+        return MessageDigest.isEqual(tokenFingerprint, fingerprint(passwordHash));
+    }
+    
+    private byte[] fingerprint(String passwordHash) {
+        byte[] hash = passwordHash.getBytes(StandardCharsets.UTF_8);
+        return Arrays.copyOf(mac(FINGERPRINT_CONTEXT, hash, hash.length), FINGERPRINT_LENGTH);
+    }
+    
+    private byte[] mac(byte[] context, byte[] data, int length) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            mac.update(context);
+            mac.update(data, 0, length);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to compute password reset token MAC", e);
+        }
+    }
+    
+    private byte[] decode(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            byte[] raw = Base64.getUrlDecoder().decode(token);
+            return raw.length == PAYLOAD_LENGTH + MAC_LENGTH ? raw : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
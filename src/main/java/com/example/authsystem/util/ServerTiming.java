@@ -0,0 +1,108 @@
+package com.example.authsystem.util;
+
+import jakarta.servlet.ServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Durations of the phases of one request, reported in the {@code Server-Timing} header and the
+ * slow-request log by {@link com.example.authsystem.config.ServerTimingFilter}.
+ * <p>
+ * Lives in a request attribute. Filters read it from their request; services, which have no
+ * request at hand, find it through {@link RequestContextHolder} and skip recording outside a
+ * request (scheduled jobs, warm-up). A phase recorded more than once is summed. Phases are
+ * recorded by the thread handling the request, so the class is not thread-safe.
+ */
+public class ServerTiming {
+    
+    public static final String ATTRIBUTE = ServerTiming.class.getName();
+    
+    public static final String RATE_LIMIT = "ratelimit";
+    public static final String JWT_VERIFY = "jwt-verify";
+    public static final String JWT_SIGN = "jwt-sign";
+    public static final String USER_LOOKUP = "user-db";
+    public static final String LOGIN_LOOKUP = "login-db";
+    public static final String BCRYPT = "bcrypt";
+    public static final String REFRESH_TOKEN_LOOKUP = "refresh-db";
+    public static final String REFRESH_TOKEN_INSERT = "refresh-insert";
+    
+    private static final int MAX_PHASES = 16;
+    
+    private final long startNanos = System.nanoTime();
+    
+    private final String[] phases = new String[MAX_PHASES];
+    
+    private final long[] durations = new long[MAX_PHASES];
+    
+    private int count;
+    
+    public static ServerTiming from(ServletRequest request) {
+        return (ServerTiming) request.getAttribute(ATTRIBUTE);
+    }
+    
+    public static ServerTiming current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : (ServerTiming) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+    
+    /**
+     * Records the time since {@code startNanos} (from {@link System#nanoTime()}) for the current request, if any.
+     */
+    public static void record(String phase, long startNanos) {
+        record(current(), phase, startNanos);
+    }
+    
+    public static void record(ServerTiming timing, String phase, long startNanos) {
+        if (timing != null) {
+            timing.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+    
+    public void add(String phase, long nanos) {
+        for (int i = 0; i < count; i++) {
+            if (phases[i].equals(phase)) {
+                durations[i] += nanos;
+                return;
+            }
+        }
+        if (count < MAX_PHASES) {
+            phases[count] = phase;
+            durations[count] = nanos;
+            count++;
+        }
+    }
+    
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+    
+    /**
+     * The phases and the total so far, e.g. {@code ratelimit;dur=0.04, bcrypt;dur=212.5, total;dur=230.1}.
+     */
+    public String toHeaderValue() {
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            header.append(phases[i]).append(";dur=").append(millis(durations[i])).append(", ");
+        }
+        return header.append("total;dur=").append(millis(getElapsedNanos())).toString();
+    }
+    
+    /**
+     * The phases as space-separated {@code name=millis} pairs for log lines.
+     */
+    public String toLogValue() {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                value.append(' ');
+            }
+            value.append(phases[i]).append('=').append(millis(durations[i]));
+        }
+        return value.toString();
+    }
+    
+    private static double millis(long nanos) {
+        // Microsecond precision; keeps Double.toString out of exponent notation
+        return (nanos / 1_000) / 1_000.0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.authsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:latencytest",
+        "datasource.latency.enabled=true", "datasource.latency.round-trip-ms=100"})
+class DatabaseLatencyConfigTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void statementsAndCommitsEachTakeARoundTrip() {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            jdbcTemplate.queryForObject("SELECT 2", Integer.class);
+        });
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Two statements and the commit
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(300);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.jfr.UserLoadEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeHint;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+/**
+ * Checks the hints against the classpath the image is built from. A class named in a hint that
+ * does not exist (a typo, or a library that moved it) would only show up as a failure at runtime
+ * of the native executable.
+ */
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsConfigTest() {
+        new NativeHintsConfig.AuthSystemRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void everyTypeNamedInAHintExists() {
+        List<TypeReference> types = hints.reflection().typeHints().map(TypeHint::getType).toList();
+
+        assertThat(types).isNotEmpty();
+        for (TypeReference type : types) {
+            assertThatNoException().as(type.getName())
+                    .isThrownBy(() -> Class.forName(type.getName(), false, getClass().getClassLoader()));
+        }
+    }
+
+    @Test
+    void secondLevelCacheIsCovered() {
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.hibernate.cache.jcache.internal.JCacheRegionFactory"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.ehcache.jsr107.EhcacheCachingProvider"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.ehcache.xml.model.ListenersType$Listener"))
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("ehcache.xml")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("ehcache-core.xsd")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("ehcache-107-ext.xsd")).accepts(hints);
+    }
+
+    @Test
+    void flightRecorderEventsAreCovered() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserLoadEvent.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.entity.EmailOutboxMessage;
+import com.example.authsystem.repository.EmailOutboxRepository;
+import com.example.authsystem.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Holds every endpoint to its budget under {@code jpa.query-budget}. Each request runs with the
+ * query counter on and a cold second-level cache, and must use exactly the statements and
+ * connections budgeted for the mapping it was dispatched to: an N+1 regression fails the build,
+ * and so does an improvement until the budget is lowered to match. Every controller mapping must
+ * have a budget and a request here, so a new endpoint cannot ship without one.
+ */
+@SpringBootTest(properties = {"jpa.query-budget.enabled=true", "spring.datasource.url=jdbc:h2:mem:budgettest",
+        "email.outbox.poll-interval-ms=3600000",
+        "users.search.resync-interval-ms=3600000",
+        "users.search.reconcile-interval-ms=3600000"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    private final AtomicInteger clients = new AtomicInteger();
+
+    private final Set<String> checked = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryBudgetProperties properties;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterAll
+    void everyEndpointHasABudgetAndIsExercised() {
+        Set<String> endpoints = applicationEndpoints();
+        assertThat(new TreeSet<>(properties.getEndpoints().keySet()))
+                .as("budgets in application.yml against the mapped endpoints")
+                .isEqualTo(endpoints);
+        assertThat(new TreeSet<>(checked))
+                .as("endpoints without a request in QueryBudgetTest")
+                .isEqualTo(endpoints);
+    }
+
+    @Test
+    void authentication() throws Exception {
+        withinBudget(post("/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"budget_signup\",\"email\":\"budget_signup@example.com\","
+                        + "\"password\":\"secret123\",\"firstName\":\"Budget\",\"lastName\":\"Signup\"}"));
+        JsonNode signIn = signIn("budget_signup", "secret123");
+
+        JsonNode refreshed = json(withinBudget(post("/auth/refreshtoken")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + signIn.get("refreshToken").asText() + "\"}")));
+        withinBudget(post("/auth/signout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshed.get("refreshToken").asText() + "\"}"));
+
+        withinBudget(post("/auth/forgot-password").param("email", "budget_signup@example.com"));
+        withinBudget(post("/auth/reset-password")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"token\":\"" + resetToken("budget_signup@example.com") + "\",\"newPassword\":\"secret456\"}"));
+    }
+
+    @Test
+    void userReads() throws Exception {
+        String admin = bearer(signIn("admin", "admin123"));
+        String user = bearer(signIn("user", "user123"));
+
+        withinBudget(get("/users/me").header(HttpHeaders.AUTHORIZATION, user));
+        withinBudget(get("/users/2").header(HttpHeaders.AUTHORIZATION, admin));
+        withinBudget(get("/users").param("size", "20").header(HttpHeaders.AUTHORIZATION, admin));
+        withinBudget(get("/users/search").param("q", "user").header(HttpHeaders.AUTHORIZATION, admin));
+        withinBudget(get("/users/export").header(HttpHeaders.AUTHORIZATION, admin));
+    }
+
+    @Test
+    void adminAndTestEndpoints() throws Exception {
+        String admin = bearer(signIn("admin", "admin123"));
+        String user = bearer(signIn("user", "user123"));
+
+        withinBudget(get("/admin/cache/stats").header(HttpHeaders.AUTHORIZATION, admin));
+        withinBudget(get("/admin/concurrency-limits").header(HttpHeaders.AUTHORIZATION, admin));
+        withinBudget(get("/test/public"));
+        withinBudget(get("/test/user").header(HttpHeaders.AUTHORIZATION, user));
+        withinBudget(get("/test/admin").header(HttpHeaders.AUTHORIZATION, admin));
+    }
+
+    @Test
+    void userWrites() throws Exception {
+        String admin = bearer(signIn("admin", "admin123"));
+
+        withinBudget(put("/users/2")
+                .header(HttpHeaders.AUTHORIZATION, admin)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Budgeted\"}"));
+        withinBudget(put("/users/me")
+                .header(HttpHeaders.AUTHORIZATION, admin)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"lastName\":\"Budgeted\"}"));
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            ndjson.append("{\"username\":\"budget").append(i).append("\",\"email\":\"budget").append(i)
+                    .append("@example.com\",\"password\":\"secret123\"}\n");
+        }
+        withinBudget(post("/users/import")
+                .header(HttpHeaders.AUTHORIZATION, admin)
+                .contentType("application/x-ndjson")
+                .content(ndjson.toString()));
+
+        long disabled = userRepository.findByUsername("budget0").orElseThrow().getId();
+        long deleted = userRepository.findByUsername("budget1").orElseThrow().getId();
+        withinBudget(post("/users/batch")
+                .header(HttpHeaders.AUTHORIZATION, admin)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"action\":\"DISABLE\",\"ids\":[" + disabled + "]}"));
+        withinBudget(delete("/users/" + deleted).header(HttpHeaders.AUTHORIZATION, admin));
+    }
+
+    private JsonNode signIn(String username, String password) throws Exception {
+        return json(withinBudget(post("/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"usernameOrEmail\":\"" + username + "\",\"password\":\"" + password + "\"}")));
+    }
+
+    private MvcResult withinBudget(MockHttpServletRequestBuilder request) throws Exception {
+        // Budgets are cold-cache counts, whatever the tests before this request happened to load
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        MvcResult result = mockMvc.perform(request.header("X-Forwarded-For", "10.60.0." + clients.incrementAndGet()))
+                .andReturn();
+        assertThat(result.getResponse().getStatus()).as(result.getRequest().getRequestURI()).isEqualTo(200);
+
+        QueryCounter counter = (QueryCounter) result.getRequest().getAttribute(QueryBudgetFilter.COUNTER_ATTRIBUTE);
+        assertThat(counter).as("query counter of " + result.getRequest().getRequestURI()).isNotNull();
+        String endpoint = counter.getEndpoint();
+        assertThat(properties.getEndpoints()).as("budgets in application.yml").containsKey(endpoint);
+        assertThat(counter.getStatements()).as("SQL statements of " + endpoint)
+                .isEqualTo(counter.getBudget().getStatements());
+        assertThat(counter.getConnections()).as("JDBC connections of " + endpoint)
+                .isEqualTo(counter.getBudget().getConnections());
+        checked.add(endpoint);
+        return result;
+    }
+
+    /** "METHOD /pattern" of every handler method in the application's own controllers. */
+    private Set<String> applicationEndpoints() {
+        Set<String> endpoints = new TreeSet<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            if (!entry.getValue().getBeanType().getName().startsWith("com.example.authsystem.")) {
+                continue;
+            }
+            for (RequestMethod method : entry.getKey().getMethodsCondition().getMethods()) {
+                for (String pattern : entry.getKey().getPatternValues()) {
+                    endpoints.add(method.name() + " " + pattern);
+                }
+            }
+        }
+        return endpoints;
+    }
+
+    private String resetToken(String email) {
+        String body = emailOutboxRepository.findAll().stream()
+                .filter(message -> message.getRecipient().equals(email))
+                .map(EmailOutboxMessage::getBody)
+                .filter(text -> text.contains("Reset Token: "))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        return body.substring(body.indexOf("Reset Token: ") + "Reset Token: ".length()).lines().findFirst().orElseThrow();
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private static String bearer(JsonNode signIn) {
+        return "Bearer " + signIn.get("accessToken").asText();
+    }
+}
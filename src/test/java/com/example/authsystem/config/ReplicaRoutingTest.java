@@ -0,0 +1,132 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.entity.RefreshToken;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.UserRepository;
+import com.example.authsystem.service.RefreshTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against the replicas profile with its two separate H2 databases. {@code DATABASE()} tells
+ * which one a transaction ran on. For refresh tokens the replicas get an empty table of their own
+ * instead of the link to the primary, as if replication had not caught up yet.
+ */
+@SpringBootTest
+@ActiveProfiles("replicas")
+class ReplicaRoutingTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private ReplicaRoutingProperties routingProperties;
+
+    private static boolean replicasLagging;
+
+    @BeforeEach
+    void markReplicasHealthy() throws SQLException {
+        if (!replicasLagging) {
+            for (ReplicaRoutingProperties.Replica replica : routingProperties.getReplicas()) {
+                try (Connection connection = DriverManager.getConnection(replica.getUrl(), replica.getUsername(),
+                        replica.getPassword());
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE lagging_refresh_tokens AS SELECT * FROM refresh_tokens WITH NO DATA");
+                    statement.execute("DROP TABLE refresh_tokens");
+                    statement.execute("ALTER TABLE lagging_refresh_tokens RENAME TO refresh_tokens");
+                }
+            }
+            replicasLagging = true;
+        }
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverTheReplicas() {
+        Set<String> databases = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            databases.add(databaseIn(true));
+        }
+
+        assertThat(databases).containsExactlyInAnyOrder("REPLICA1", "REPLICA2");
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        assertThat(databaseIn(false)).isEqualTo("TESTDB");
+
+        User user = transaction(false).execute(status -> userRepository.findByUsername("user").orElseThrow());
+        assertThat(user.getUsername()).isEqualTo("user");
+    }
+
+    @Test
+    void readsAfterTheUsersOwnWriteStayOnThePrimary() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", null, List.of()));
+
+        transaction(false).executeWithoutResult(status -> userRepository.findByUsername("user")
+                .ifPresent(user -> user.setFirstName("Routed")));
+
+        assertThat(databaseIn(true)).isEqualTo("TESTDB");
+    }
+
+    @Test
+    void refreshTokenValidationRunsOnThePrimary() {
+        User user = transaction(false).execute(status -> userRepository.findByUsername("user").orElseThrow());
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user);
+        Long onReplica = transaction(true).execute(status -> new JdbcTemplate(dataSource)
+                .queryForObject("SELECT COUNT(*) FROM refresh_tokens", Long.class));
+        assertThat(onReplica).isZero();
+
+        assertThat(refreshTokenService.findByToken(refreshToken.getToken())).isPresent();
+        assertThat(refreshTokenService.refreshAccessToken(refreshToken.getToken()).getAccessToken()).isNotBlank();
+    }
+
+    private String databaseIn(boolean readOnly) {
+        return transaction(readOnly).execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+}
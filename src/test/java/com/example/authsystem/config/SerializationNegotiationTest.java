@@ -0,0 +1,101 @@
+package com.example.authsystem.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Round trips through content negotiation: a request body in each format is read by the
+ * pre-resolved converters, and the response comes back in the format the Accept header asked for.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SerializationNegotiationTest {
+
+    private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    static Stream<Arguments> formats() {
+        return Stream.of(
+                Arguments.of(MediaType.APPLICATION_JSON, new ObjectMapper()),
+                Arguments.of(MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory())),
+                Arguments.of(JacksonConfig.APPLICATION_SMILE, new ObjectMapper(new SmileFactory())));
+    }
+
+    @ParameterizedTest
+    @MethodSource("formats")
+    void signInAndUserReadRoundTripInEachFormat(MediaType mediaType, ObjectMapper codec) throws Exception {
+        MockHttpServletResponse signIn = mockMvc.perform(post("/auth/signin")
+                        .header("X-Forwarded-For", nextClient())
+                        .contentType(mediaType)
+                        .accept(mediaType)
+                        .content(codec.writeValueAsBytes(Map.of("usernameOrEmail", "user", "password", "user123"))))
+                .andReturn().getResponse();
+
+        assertThat(signIn.getStatus()).isEqualTo(200);
+        assertThat(MediaType.parseMediaType(signIn.getContentType()).isCompatibleWith(mediaType)).isTrue();
+        JsonNode jwt = codec.readTree(signIn.getContentAsByteArray());
+        assertThat(jwt.get("username").asText()).isEqualTo("user");
+        assertThat(jwt.get("tokenType").asText()).isEqualTo("Bearer");
+
+        MockHttpServletResponse me = mockMvc.perform(get("/users/me")
+                        .header("X-Forwarded-For", nextClient())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwt.get("accessToken").asText())
+                        .accept(mediaType))
+                .andReturn().getResponse();
+
+        assertThat(me.getStatus()).isEqualTo(200);
+        assertThat(MediaType.parseMediaType(me.getContentType()).isCompatibleWith(mediaType)).isTrue();
+        JsonNode user = codec.readTree(me.getContentAsByteArray());
+        assertThat(user.get("username").asText()).isEqualTo("user");
+        assertThat(user.get("email").asText()).isEqualTo("user@example.com");
+        assertThat(user.get("createdAt").isTextual()).isTrue();
+    }
+
+    @Test
+    void missingOrWildcardAcceptStillGetsJson() throws Exception {
+        for (String accept : new String[] {null, "*/*"}) {
+            MockHttpServletRequestBuilder request = post("/auth/signin")
+                    .header("X-Forwarded-For", nextClient())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"usernameOrEmail\":\"user\",\"password\":\"user123\"}");
+            if (accept != null) {
+                request.header(HttpHeaders.ACCEPT, accept);
+            }
+            MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+
+            assertThat(response.getStatus()).isEqualTo(200);
+            assertThat(MediaType.parseMediaType(response.getContentType()).isCompatibleWith(MediaType.APPLICATION_JSON))
+                    .isTrue();
+            assertThat(new ObjectMapper().readTree(response.getContentAsByteArray()).get("accessToken").isTextual())
+                    .isTrue();
+        }
+    }
+
+    private static String nextClient() {
+        return "10.50.0." + CLIENTS.incrementAndGet();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.authsystem.config;
+
+import com.example.authsystem.service.UserExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.converter.Converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class WebMvcConfigTest {
+
+    private final Converter<String, UserExportService.Format> converter =
+            new WebMvcConfig.CaseInsensitiveEnumConverterFactory().getConverter(UserExportService.Format.class);
+
+    @Test
+    void bindsEnumConstantsRegardlessOfCase() {
+        assertThat(converter.convert("csv")).isEqualTo(UserExportService.Format.CSV);
+        assertThat(converter.convert(" NdJson ")).isEqualTo(UserExportService.Format.NDJSON);
+    }
+
+    @Test
+    void blankIsNullAndUnknownStillFails() {
+        assertThat(converter.convert("  ")).isNull();
+        assertThatIllegalArgumentException().isThrownBy(() -> converter.convert("xml"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.authsystem.exception;
+
+import com.example.authsystem.security.AuthEntryPointJwt;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Only the pre-encoded bodies changed shape. Handler-rendered errors keep their {@code uri=} path
+ * and the exception's message, and the entry point keeps the message of the exception it was given.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ErrorResponseContractTest {
+
+    private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AuthEntryPointJwt authEntryPoint;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void handlerErrorsKeepUriPrefixedPathAndMessage() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/users/999999")
+                        .header("X-Forwarded-For", nextClient())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken()))
+                .andReturn().getResponse();
+
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(body.get("path").asText()).isEqualTo("uri=/users/999999");
+        assertThat(body.get("message").asText()).isEqualTo("User not found with id: 999999");
+    }
+
+    @Test
+    void entryPointKeepsTheAuthenticationExceptionMessage() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.setContextPath("/api");
+        request.setServletPath("/users/me");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        authEntryPoint.commence(request, response, new DisabledException("User is disabled"));
+
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(body.get("message").asText()).isEqualTo("User is disabled");
+        assertThat(body.get("path").asText()).isEqualTo("/users/me");
+        assertThat(body.get("timestamp").isIntegralNumber()).isTrue();
+    }
+
+    @Test
+    void missingTokenUsesThePreEncodedBody() throws Exception {
+        // Tomcat sets the servlet path to the whole path under the context for a DispatcherServlet on "/"
+        MockHttpServletResponse response = mockMvc.perform(get("/users/me").servletPath("/users/me")
+                        .header("X-Forwarded-For", nextClient()))
+                .andReturn().getResponse();
+
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+        assertThat(body.get("message").asText()).isEqualTo(PreEncodedErrorResponse.AUTHENTICATION_REQUIRED.getMessage());
+        assertThat(body.get("path").asText()).isEqualTo("/users/me");
+    }
+
+    private String adminToken() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/auth/signin")
+                        .header("X-Forwarded-For", nextClient())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernameOrEmail\":\"admin\",\"password\":\"admin123\"}"))
+                .andReturn().getResponse();
+        return objectMapper.readTree(response.getContentAsByteArray()).get("accessToken").asText();
+    }
+
+    private static String nextClient() {
+        return "10.49.0." + CLIENTS.incrementAndGet();
+    }
+}
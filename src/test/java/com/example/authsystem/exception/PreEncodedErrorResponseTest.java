@@ -0,0 +1,112 @@
+package com.example.authsystem.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static java.time.temporal.ChronoUnit.SECONDS;
+
+/**
+ * The pre-encoded bodies must stay byte-for-byte interchangeable with what Jackson rendered before
+ * they replaced it; only the timestamp value itself differs between two renderings.
+ */
+class PreEncodedErrorResponseTest {
+
+    private static final String PATH = "/api/auth/signin";
+
+    /** Configured like Boot's mapper: java.time support, dates as ISO strings. */
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    static Stream<Arguments> errorResponseBodies() {
+        return Stream.of(
+                Arguments.of(PreEncodedErrorResponse.BAD_CREDENTIALS, 401, "Unauthorized", "Invalid username or password"),
+                Arguments.of(PreEncodedErrorResponse.ACCESS_DENIED, 403, "Forbidden", "Access is denied"),
+                Arguments.of(PreEncodedErrorResponse.TOO_MANY_REQUESTS, 429, "Too Many Requests",
+                        "Too many requests. Please try again later."),
+                Arguments.of(PreEncodedErrorResponse.SERVER_BUSY, 503, "Service Unavailable",
+                        "Server is busy. Please try again shortly."));
+    }
+
+    @ParameterizedTest
+    @MethodSource("errorResponseBodies")
+    void matchesJacksonRenderedErrorResponse(PreEncodedErrorResponse body, int status, String error,
+                                             String message) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        body.write(response, PATH);
+
+        GlobalExceptionHandler.ErrorResponse expected =
+                new GlobalExceptionHandler.ErrorResponse(LocalDateTime.now(), status, error, message, PATH);
+        JsonNode expectedJson = objectMapper.readTree(objectMapper.writeValueAsBytes(expected));
+        JsonNode actualJson = objectMapper.readTree(response.getContentAsByteArray());
+
+        assertThat(response.getStatus()).isEqualTo(status);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(actualJson.get("timestamp").isTextual()).isTrue();
+        assertThat(LocalDateTime.parse(actualJson.get("timestamp").asText()))
+                .isCloseTo(LocalDateTime.now(), within(5, SECONDS));
+        assertThat(withoutTimestamp(actualJson)).isEqualTo(withoutTimestamp(expectedJson));
+    }
+
+    @Test
+    void authenticationRequiredMatchesLegacyEntryPointBody() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long before = System.currentTimeMillis();
+        PreEncodedErrorResponse.AUTHENTICATION_REQUIRED.write(response, "/api/users/me");
+        long after = System.currentTimeMillis();
+
+        // What AuthEntryPointJwt wrote through a fresh ObjectMapper before
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("status", 401);
+        legacy.put("error", "Unauthorized");
+        legacy.put("message", "Full authentication is required to access this resource");
+        legacy.put("path", "/api/users/me");
+        legacy.put("timestamp", before);
+        JsonNode expectedJson = new ObjectMapper().readTree(new ObjectMapper().writeValueAsBytes(legacy));
+        JsonNode actualJson = objectMapper.readTree(response.getContentAsByteArray());
+
+        assertThat(actualJson.get("timestamp").isIntegralNumber()).isTrue();
+        assertThat(actualJson.get("timestamp").asLong()).isBetween(before, after);
+        assertThat(withoutTimestamp(actualJson)).isEqualTo(withoutTimestamp(expectedJson));
+    }
+
+    @Test
+    void escapesPathAndDeclaresExactContentLength() throws Exception {
+        String path = "/api/users/\"quoted\"\\back\u0001é\u20ac\uD83D\uDE00";
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        PreEncodedErrorResponse.ACCESS_DENIED.write(response, path);
+
+        byte[] body = response.getContentAsByteArray();
+        assertThat(response.getContentLength()).isEqualTo(body.length);
+        assertThat(objectMapper.readTree(body).get("path").asText()).isEqualTo(path);
+    }
+
+    @Test
+    void serverBusyCarriesRetryAfter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        PreEncodedErrorResponse.SERVER_BUSY.write(response, PATH);
+
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+    private static JsonNode withoutTimestamp(JsonNode node) {
+        ObjectNode copy = node.deepCopy();
+        copy.remove("timestamp");
+        return copy;
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.entity.EmailOutboxMessage;
+import com.example.authsystem.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Delivery through the configured JavaMailSender to an in-process GreenMail SMTP server. The
+ * scheduled poll is pushed out of the way so that every delivery in these tests is one the test
+ * triggered itself. The outbox lives in a database of its own, since the workers of other cached
+ * test contexts still poll the shared one. The sender is only spied on where a test needs to hold
+ * a send open or have the server reject a recipient, which GreenMail cannot do.
+ */
+@SpringBootTest(properties = {"email.outbox.poll-interval-ms=3600000", "spring.datasource.url=jdbc:h2:mem:outboxtest",
+        "spring.mail.host=localhost", "spring.mail.port=3025",
+        "spring.mail.username=outbox", "spring.mail.password=secret"})
+class EmailOutboxWorkerTest {
+
+    @RegisterExtension
+    static final GreenMailExtension SMTP_SERVER = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("outbox", "secret"))
+            .withPerMethodLifecycle(false);
+
+    @SpyBean
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private EmailOutboxWorker worker;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @BeforeEach
+    void emptyOutboxAndMailboxes() throws Exception {
+        emailOutboxRepository.deleteAll();
+        SMTP_SERVER.purgeEmailFromAllMailboxes();
+    }
+
+    @Test
+    void deliversDueMessagesInOneBatch() throws Exception {
+        List<EmailOutboxMessage> queued = emailOutboxRepository.saveAll(List.of(message("a"), message("b")));
+
+        worker.deliverPending();
+
+        verify(mailSender, times(1)).send(any(SimpleMailMessage[].class));
+        assertThat(SMTP_SERVER.waitForIncomingEmail(5000, 2)).isTrue();
+        assertThat(recipients()).containsExactlyInAnyOrder("a@example.com", "b@example.com");
+        MimeMessage received = SMTP_SERVER.getReceivedMessages()[0];
+        assertThat(received.getSubject()).isEqualTo("Subject");
+        assertThat(GreenMailUtil.getBody(received)).isEqualTo("Body");
+        for (EmailOutboxMessage message : queued) {
+            EmailOutboxMessage stored = emailOutboxRepository.findById(message.getId()).orElseThrow();
+            assertThat(stored.getStatus()).isEqualTo(EmailOutboxMessage.Status.SENT);
+            assertThat(stored.getSentAt()).isNotNull();
+            assertThat(stored.getClaimedBy()).isNull();
+        }
+    }
+
+    @Test
+    void failedBatchIsRetriedAfterBackoff() throws Exception {
+        Long id = emailOutboxRepository.save(message("a")).getId();
+
+        SMTP_SERVER.stop();
+        try {
+            worker.deliverPending();
+        } finally {
+            SMTP_SERVER.start();
+        }
+
+        EmailOutboxMessage failed = emailOutboxRepository.findById(id).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(EmailOutboxMessage.Status.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(1);
+        assertThat(failed.getLastError()).startsWith("Couldn't connect to host");
+        assertThat(failed.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(failed.getClaimedBy()).isNull();
+
+        // Not due yet
+        worker.deliverPending();
+        assertThat(SMTP_SERVER.getReceivedMessages()).isEmpty();
+
+        failed.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(failed);
+        worker.deliverPending();
+
+        assertThat(SMTP_SERVER.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(recipients()).containsExactly("a@example.com");
+        EmailOutboxMessage delivered = emailOutboxRepository.findById(id).orElseThrow();
+        assertThat(delivered.getStatus()).isEqualTo(EmailOutboxMessage.Status.SENT);
+        assertThat(delivered.getAttempts()).isEqualTo(1);
+        assertThat(delivered.getLastError()).isNull();
+    }
+
+    @Test
+    void onlyRejectedRecipientsAreRetried() throws Exception {
+        Long rejectedId = emailOutboxRepository.save(message("rejected")).getId();
+        Long acceptedId = emailOutboxRepository.save(message("accepted")).getId();
+        // What JavaMailSenderImpl reports when the server refuses some recipients of a batch
+        doAnswer(invocation -> {
+            List<SimpleMailMessage> accepted = new ArrayList<>();
+            Map<Object, Exception> rejected = new LinkedHashMap<>();
+            for (Object argument : invocation.getArguments()) {
+                SimpleMailMessage mail = (SimpleMailMessage) argument;
+                if (mail.getTo()[0].startsWith("rejected")) {
+                    rejected.put(mail, new MailSendException("550 Mailbox unavailable"));
+                } else {
+                    accepted.add(mail);
+                }
+            }
+            if (rejected.isEmpty()) {
+                return invocation.callRealMethod();
+            }
+            mailSender.send(accepted.toArray(SimpleMailMessage[]::new));
+            throw new MailSendException(rejected);
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        worker.deliverPending();
+
+        EmailOutboxMessage rejected = emailOutboxRepository.findById(rejectedId).orElseThrow();
+        assertThat(rejected.getStatus()).isEqualTo(EmailOutboxMessage.Status.PENDING);
+        assertThat(rejected.getLastError()).isEqualTo("550 Mailbox unavailable");
+        assertThat(emailOutboxRepository.findById(acceptedId).orElseThrow().getStatus())
+                .isEqualTo(EmailOutboxMessage.Status.SENT);
+        assertThat(SMTP_SERVER.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(recipients()).containsExactly("accepted@example.com");
+    }
+
+    @Test
+    void messagesClaimedByAnotherWorkerAreNotSentTwice() throws Exception {
+        Long id = emailOutboxRepository.save(message("a")).getId();
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            assertThat(release.await(30, TimeUnit.SECONDS)).isTrue();
+            return invocation.callRealMethod();
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        CompletableFuture<Void> firstWorker = CompletableFuture.runAsync(worker::deliverPending);
+        assertThat(sending.await(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(emailOutboxRepository.findById(id).orElseThrow().getStatus())
+                .isEqualTo(EmailOutboxMessage.Status.SENDING);
+
+        // A second poll, as another instance would run it, while the first is still talking to SMTP
+        worker.deliverPending();
+        release.countDown();
+        firstWorker.get(30, TimeUnit.SECONDS);
+
+        assertThat(SMTP_SERVER.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(SMTP_SERVER.getReceivedMessages()).hasSize(1);
+        assertThat(emailOutboxRepository.findById(id).orElseThrow().getStatus())
+                .isEqualTo(EmailOutboxMessage.Status.SENT);
+    }
+
+    @Test
+    void expiredClaimOfACrashedWorkerIsPickedUpAgain() throws Exception {
+        EmailOutboxMessage orphaned = message("a");
+        orphaned.setStatus(EmailOutboxMessage.Status.SENDING);
+        orphaned.setClaimedBy("crashed-worker");
+        orphaned.setClaimedUntil(LocalDateTime.now().plusMinutes(5));
+        Long id = emailOutboxRepository.save(orphaned).getId();
+
+        worker.deliverPending();
+        assertThat(SMTP_SERVER.getReceivedMessages()).isEmpty();
+
+        orphaned = emailOutboxRepository.findById(id).orElseThrow();
+        orphaned.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(orphaned);
+
+        worker.deliverPending();
+
+        assertThat(SMTP_SERVER.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(recipients()).containsExactly("a@example.com");
+        assertThat(emailOutboxRepository.findById(id).orElseThrow().getStatus())
+                .isEqualTo(EmailOutboxMessage.Status.SENT);
+    }
+
+    private static List<String> recipients() throws Exception {
+        List<String> recipients = new ArrayList<>();
+        for (MimeMessage message : SMTP_SERVER.getReceivedMessages()) {
+            recipients.add(message.getAllRecipients()[0].toString());
+        }
+        return recipients;
+    }
+
+    private static EmailOutboxMessage message(String recipient) {
+        return new EmailOutboxMessage(recipient + "@example.com", "Subject", "Body");
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.authsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * A reset that fails must not use up the address's slot, or the user could not ask again for the
+ * whole throttle window.
+ */
+@SpringBootTest
+class PasswordResetThrottleTest {
+
+    @Autowired
+    private UserService userService;
+
+    @SpyBean
+    private EmailService emailService;
+
+    @Test
+    void failedResetReleasesTheSlot() {
+        doThrow(new IllegalStateException("outbox unavailable")).doCallRealMethod()
+                .when(emailService).sendPasswordResetEmail(eq("user@example.com"), anyString());
+
+        assertThatThrownBy(() -> userService.generatePasswordResetToken("user@example.com"))
+                .isInstanceOf(IllegalStateException.class);
+        userService.generatePasswordResetToken("user@example.com");
+        userService.generatePasswordResetToken("user@example.com");
+
+        // The retry after the failure went through; the third request fell inside the window
+        verify(emailService, times(2)).sendPasswordResetEmail(eq("user@example.com"), anyString());
+    }
+}
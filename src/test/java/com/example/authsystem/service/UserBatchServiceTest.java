@@ -0,0 +1,263 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.request.UserBatchRequest;
+import com.example.authsystem.dto.response.UserBatchResponse;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Every batch action against real rows in a database of its own. Users are inserted directly so a
+ * test controls exactly which refresh tokens and roles exist; statements are counted by the
+ * {@link UserImportServiceTest.StatementCounter} Hibernate attaches to every session.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:batchtest",
+        "users.search.resync-interval-ms=3600000",
+        "users.search.reconcile-interval-ms=3600000",
+        "spring.jpa.properties.hibernate.session.events.auto="
+                + "com.example.authsystem.service.UserImportServiceTest$StatementCounter"})
+@AutoConfigureMockMvc
+class UserBatchServiceTest {
+
+    private static final AtomicLong IDS = new AtomicLong(3_000_000);
+    private static final AtomicInteger CLIENTS = new AtomicInteger();
+    private static final long UNKNOWN_ID = 999_999_999L;
+
+    @Autowired
+    private UserBatchService userBatchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @AfterEach
+    void stopCounting() {
+        UserImportServiceTest.StatementCounter.stop();
+    }
+
+    @Test
+    void disableRevokesRefreshTokensAndEvictsTheCachedUser() {
+        long id = insertUser(3);
+        // Loaded once outside a transaction, so the user now sits in the second-level cache
+        assertThat(userRepository.findById(id).orElseThrow().isEnabled()).isTrue();
+        assertThat(cache().containsEntity(User.class, id)).isTrue();
+
+        UserBatchResponse response = apply(UserBatchRequest.Action.DISABLE, List.of(id, UNKNOWN_ID), null);
+
+        assertThat(response.getRequested()).isEqualTo(2);
+        assertThat(response.getAffected()).isEqualTo(1);
+        assertThat(cache().containsEntity(User.class, id)).isFalse();
+        assertThat(userRepository.findById(id).orElseThrow().isEnabled()).isFalse();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ? AND is_revoked = FALSE", Long.class, id))
+                .isZero();
+    }
+
+    @Test
+    void enableReloadsTheUserFresh() {
+        long id = insertUser(1);
+        jdbcTemplate.update("UPDATE users SET is_enabled = FALSE WHERE id = ?", id);
+        assertThat(userRepository.findById(id).orElseThrow().isEnabled()).isFalse();
+
+        UserBatchResponse response = apply(UserBatchRequest.Action.ENABLE, List.of(id, UNKNOWN_ID), null);
+
+        assertThat(response.getAffected()).isEqualTo(1);
+        User reloaded = userRepository.findById(id).orElseThrow();
+        assertThat(reloaded.isEnabled()).isTrue();
+        assertThat(reloaded.getVersion()).isEqualTo(1);
+        // Enabling leaves refresh tokens as they were
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ? AND is_revoked = FALSE", Long.class, id))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void setRolesReplacesTheRoleSetAndEvictsTheCachedCollection() {
+        long id = insertUser(0);
+        assertThat(roleNames(id)).containsExactly("ROLE_USER");
+
+        UserBatchResponse response = apply(UserBatchRequest.Action.SET_ROLES, List.of(id, UNKNOWN_ID), Set.of("admin"));
+
+        assertThat(response.getAffected()).isEqualTo(1);
+        assertThat(roleNames(id)).containsExactly("ROLE_ADMIN");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_roles WHERE user_id = ?", Long.class, id)).isEqualTo(1);
+    }
+
+    @Test
+    void deleteRemovesTheUserWithItsTokensAndRoles() {
+        long id = insertUser(2);
+        userRepository.findById(id).orElseThrow();
+
+        UserBatchResponse response = apply(UserBatchRequest.Action.DELETE, List.of(id, UNKNOWN_ID), null);
+
+        assertThat(response.getRequested()).isEqualTo(2);
+        assertThat(response.getAffected()).isEqualTo(1);
+        assertThat(userRepository.findById(id)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Long.class, id)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM user_roles WHERE user_id = ?", Long.class, id)).isZero();
+    }
+
+    @Test
+    void onlyUnknownIdsAffectNothing() {
+        for (UserBatchRequest.Action action : UserBatchRequest.Action.values()) {
+            Set<String> roles = action == UserBatchRequest.Action.SET_ROLES ? Set.of("ROLE_USER") : null;
+            UserBatchResponse response = apply(action, List.of(UNKNOWN_ID, UNKNOWN_ID + 1), roles);
+
+            assertThat(response.getRequested()).as(action.name()).isEqualTo(2);
+            assertThat(response.getAffected()).as(action.name()).isZero();
+        }
+    }
+
+    @Test
+    void deletingAUserWithManyRefreshTokensTakesTheSameStatements() {
+        long fewTokens = insertUser(1);
+        long manyTokens = insertUser(500);
+
+        UserImportServiceTest.StatementCounter.start();
+        apply(UserBatchRequest.Action.DELETE, List.of(fewTokens), null);
+        int statementsForFew = UserImportServiceTest.StatementCounter.statements();
+
+        UserImportServiceTest.StatementCounter.start();
+        apply(UserBatchRequest.Action.DELETE, List.of(manyTokens), null);
+        int statementsForMany = UserImportServiceTest.StatementCounter.statements();
+
+        // The id lookup, then one DELETE each for refresh tokens, role links and users
+        assertThat(statementsForFew).isEqualTo(4);
+        assertThat(statementsForMany).isEqualTo(statementsForFew);
+        assertThat(UserImportServiceTest.StatementCounter.batches()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE user_id = ?", Long.class, manyTokens)).isZero();
+    }
+
+    @Test
+    void endpointAppliesTheBatchForAdminsOnly() throws Exception {
+        long id = insertUser(1);
+        String body = "{\"action\":\"DISABLE\",\"ids\":[" + id + "," + UNKNOWN_ID + "]}";
+
+        MockHttpServletResponse forbidden = mockMvc.perform(post("/users/batch")
+                        .header("X-Forwarded-For", nextClient())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("user", "user123"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse();
+        assertThat(forbidden.getStatus()).isEqualTo(403);
+        assertThat(userRepository.findById(id).orElseThrow().isEnabled()).isTrue();
+
+        MockHttpServletResponse response = mockMvc.perform(post("/users/batch")
+                        .header("X-Forwarded-For", nextClient())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin", "admin123"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse();
+
+        JsonNode result = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(result.get("action").asText()).isEqualTo("DISABLE");
+        assertThat(result.get("requested").asInt()).isEqualTo(2);
+        assertThat(result.get("affected").asInt()).isEqualTo(1);
+        assertThat(userRepository.findById(id).orElseThrow().isEnabled()).isFalse();
+    }
+
+    @Test
+    void endpointRejectsSetRolesWithUnknownRole() throws Exception {
+        long id = insertUser(0);
+
+        MockHttpServletResponse response = mockMvc.perform(post("/users/batch")
+                        .header("X-Forwarded-For", nextClient())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("admin", "admin123"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"action\":\"SET_ROLES\",\"ids\":[" + id + "],\"roles\":[\"ROLE_ROOT\"]}"))
+                .andReturn().getResponse();
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(roleNames(id)).containsExactly("ROLE_USER");
+    }
+
+    private UserBatchResponse apply(UserBatchRequest.Action action, List<Long> ids, Set<String> roles) {
+        UserBatchRequest request = new UserBatchRequest();
+        request.setAction(action);
+        request.setIds(ids);
+        request.setRoles(roles);
+        return userBatchService.apply(request);
+    }
+
+    /** Inserts an enabled ROLE_USER account with the given number of live refresh tokens. */
+    private long insertUser(int refreshTokens) {
+        long id = IDS.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, created_at, updated_at, version, "
+                + "is_enabled, is_account_non_expired, is_account_non_locked, is_credentials_non_expired) "
+                + "VALUES (?, ?, ?, 'x', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0, TRUE, TRUE, TRUE, TRUE)",
+                id, "batch" + id, "batch" + id + "@example.com");
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) "
+                + "SELECT ?, id FROM roles WHERE name = 'ROLE_USER'", id);
+        jdbcTemplate.update("INSERT INTO refresh_tokens (token, expiry_date, created_at, is_revoked, user_id) "
+                + "SELECT 'batch-' || ? || '-' || x, DATEADD('DAY', 7, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP, "
+                + "FALSE, ? FROM SYSTEM_RANGE(1, ?)", id, id, refreshTokens);
+        return id;
+    }
+
+    private Set<String> roleNames(long id) {
+        return transactionTemplate.execute(status -> userRepository.findById(id).orElseThrow().getRoles().stream()
+                .map(Role::getName)
+                .map(Enum::name)
+                .collect(Collectors.toSet()));
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private String token(String username, String password) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/auth/signin")
+                        .header("X-Forwarded-For", nextClient())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"usernameOrEmail\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andReturn().getResponse();
+        return objectMapper.readTree(response.getContentAsByteArray()).get("accessToken").asText();
+    }
+
+    private static String nextClient() {
+        return "10.37.0." + CLIENTS.incrementAndGet();
+    }
+}
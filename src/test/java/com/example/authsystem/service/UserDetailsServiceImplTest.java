@@ -0,0 +1,68 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes made through another instance never reach this instance's second-level cache. They are
+ * simulated here with plain JDBC, which Hibernate does not see either.
+ */
+@SpringBootTest
+class UserDetailsServiceImplTest {
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restoreUser() {
+        jdbcTemplate.update("UPDATE users SET is_enabled = TRUE WHERE username = 'user'");
+    }
+
+    @Test
+    void disableFromAnotherInstanceIsSeenByTheNextAuthenticatedRequest() {
+        // Warm every cache the user can be read from on this instance
+        User user = (User) userDetailsService.loadUserByUsername("user");
+        userService.getUserById(user.getId());
+        assertThat(userDetailsService.loadUserByUsername("user").isEnabled()).isTrue();
+
+        jdbcTemplate.update("UPDATE users SET is_enabled = FALSE WHERE username = 'user'");
+
+        assertThat(userDetailsService.loadUserByUsername("user").isEnabled()).isFalse();
+        assertThat(userRepository.findByLoginWithRoles("user@example.com")).get()
+                .extracting(User::isEnabled).isEqualTo(false);
+    }
+
+    @Test
+    void roleChangeFromAnotherInstanceIsSeenByTheNextAuthenticatedRequest() {
+        UserDetails before = userDetailsService.loadUserByUsername("admin");
+        assertThat(before.getAuthorities()).extracting(GrantedAuthority::getAuthority).contains("ROLE_ADMIN");
+        Long adminId = ((User) before).getId();
+        Long adminRoleId = jdbcTemplate.queryForObject("SELECT id FROM roles WHERE name = 'ROLE_ADMIN'", Long.class);
+
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id = ? AND role_id = ?", adminId, adminRoleId);
+        try {
+            assertThat(userDetailsService.loadUserByUsername("admin").getAuthorities())
+                    .extracting(GrantedAuthority::getAuthority).doesNotContain("ROLE_ADMIN");
+        } finally {
+            jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", adminId, adminRoleId);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.authsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An export must not hold on to the rows it has written. Retained heap is sampled early and late in
+ * one export of a large table; rows kept by the export (a list, managed entities, a buffered writer)
+ * would show up as growth between the two samples. The table lives in its own database so the other
+ * test contexts do not index it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exporttest",
+        "spring.jpa.show-sql=false",
+        "users.search.resync-interval-ms=3600000",
+        "users.search.reconcile-interval-ms=3600000"
+})
+class UserExportServiceTest {
+
+    private static final int USERS = 150_000;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void retainedHeapDoesNotGrowWithTheRowsExported() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, first_name, last_name, "
+                + "created_at, updated_at, version, is_enabled, is_account_non_expired, is_account_non_locked, "
+                + "is_credentials_non_expired) "
+                + "SELECT 1000000 + x, 'export' || x, 'export' || x || '@example.com', 'x', "
+                + "'First' || x, 'Last' || x, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0, TRUE, TRUE, TRUE, TRUE "
+                + "FROM SYSTEM_RANGE(1, " + USERS + ")");
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) "
+                + "SELECT 1000000 + x, (SELECT id FROM roles WHERE name = 'ROLE_USER') FROM SYSTEM_RANGE(1, " + USERS + ")");
+
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(20_000, USERS - 10_000);
+        long rows = userExportService.export(UserExportService.Format.NDJSON, out);
+
+        assertThat(rows).isGreaterThanOrEqualTo(USERS);
+        assertThat(out.bytes).isGreaterThan(20L * 1024 * 1024);
+        assertThat(out.earlyHeap).isPositive();
+        assertThat(out.lateHeap).isPositive();
+        // Holding the 120,000 rows between the samples would retain about 50 MB
+        assertThat(out.lateHeap - out.earlyHeap).as("heap retained across 120,000 exported rows")
+                .isLessThan(8L * 1024 * 1024);
+    }
+
+    /** Counts rows by their newline and samples the heap after a full collection at two rows. */
+    private static final class HeapSamplingOutputStream extends OutputStream {
+
+        private final long earlyRow;
+        private final long lateRow;
+
+        private long rows;
+        private long bytes;
+        private long earlyHeap;
+        private long lateHeap;
+
+        HeapSamplingOutputStream(long earlyRow, long lateRow) {
+            this.earlyRow = earlyRow;
+            this.lateRow = lateRow;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    rows++;
+                    if (rows == earlyRow) {
+                        earlyHeap = retainedHeap();
+                    } else if (rows == lateRow) {
+                        lateHeap = retainedHeap();
+                    }
+                }
+            }
+        }
+
+        private static long retainedHeap() {
+            System.gc();
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+}
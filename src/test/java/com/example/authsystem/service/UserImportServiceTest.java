@@ -0,0 +1,199 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.dto.response.UserImportResponse;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.UserRepository;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs in a database of its own; statements and JDBC batches executed on the test thread are
+ * counted by {@link StatementCounter}, which Hibernate attaches to every session.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:importtest",
+        "spring.jpa.properties.hibernate.session.events.auto="
+                + "com.example.authsystem.service.UserImportServiceTest$StatementCounter"})
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void startCounting() {
+        StatementCounter.start();
+    }
+
+    @AfterEach
+    void stopCounting() {
+        StatementCounter.stop();
+    }
+
+    @Test
+    void chunkIsInsertedWithJdbcBatches() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            rows.add(row("batch" + i, "First" + i));
+        }
+
+        UserImportResponse report = importNdjson(rows);
+        int statements = StatementCounter.statements();
+        int batches = StatementCounter.batches();
+
+        assertThat(report.getImported()).isEqualTo(120);
+        assertThat(report.getFailed()).isZero();
+        // 120 users and 120 role links in batches of 50: three batches each
+        assertThat(batches).isEqualTo(6);
+        // The role lookup, the two existence checks and at most three sequence calls; no single-row INSERTs
+        assertThat(statements).isLessThanOrEqualTo(6);
+        assertThat(userRepository.existsByUsername("batch0")).isTrue();
+        assertThat(userRepository.existsByUsername("batch119")).isTrue();
+    }
+
+    @Test
+    void rowRejectedAtFlushFailsAloneAndTheRestOfItsChunkIsImported() throws Exception {
+        // first_name is VARCHAR(255) and not validated up front, so only the database rejects it
+        String ndjson = String.join("\n",
+                row("import_ok1", "x".repeat(10)),
+                "null",
+                row("import_long", "x".repeat(300)),
+                row("import_ok2", "y".repeat(10)));
+
+        UserImportResponse report = userImportService.importUsers(UserImportService.Format.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(UserImportResponse.RowError::getLine).containsExactly(2L, 3L);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Expected a JSON object");
+        assertThat(report.getErrors().get(1).getMessage()).startsWith("Rejected by the database: ");
+        assertThat(userRepository.existsByUsername("import_ok1")).isTrue();
+        assertThat(userRepository.existsByUsername("import_ok2")).isTrue();
+        assertThat(userRepository.existsByUsername("import_long")).isFalse();
+    }
+
+    @Test
+    void onlyWellFormedBcryptHashesAreAcceptedPreEncoded() throws Exception {
+        String hash = new BCryptPasswordEncoder(4).encode("hashed123");
+
+        UserImportResponse report = importNdjson(List.of(
+                rowWithPassword("pre_noop", "{noop}plain123"),
+                rowWithPassword("pre_sha", "{sha256}0123456789abcdef"),
+                rowWithPassword("pre_broken", "{bcrypt}$2a$10$tooshort"),
+                rowWithPassword("pre_ok", "{bcrypt}" + hash)));
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(UserImportResponse.RowError::getMessage).containsExactly(
+                "Unsupported password encoder; only {bcrypt} hashes can be imported",
+                "Unsupported password encoder; only {bcrypt} hashes can be imported",
+                "Malformed bcrypt hash");
+        User imported = userRepository.findByUsername("pre_ok").orElseThrow();
+        // Stored as given, not hashed a second time
+        assertThat(imported.getPassword()).isEqualTo(hash);
+        assertThat(passwordEncoder.matches("hashed123", imported.getPassword())).isTrue();
+        assertThat(userRepository.existsByUsername("pre_noop")).isFalse();
+    }
+
+    @Test
+    void duplicatesWithinAChunkKeepTheFirstRow() throws Exception {
+        UserImportResponse report = importNdjson(List.of(
+                row("dup_first", "First"),
+                row("dup_first", "Second"),
+                "{\"username\":\"dup_other\",\"email\":\"dup_first@example.com\",\"password\":\"password1\"}",
+                row("dup_last", "Last")));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(UserImportResponse.RowError::getLine).containsExactly(2L, 3L);
+        assertThat(report.getErrors()).extracting(UserImportResponse.RowError::getMessage)
+                .containsExactly("Username is already taken!", "Email is already in use!");
+        assertThat(userRepository.findByUsername("dup_first").orElseThrow().getFirstName()).isEqualTo("First");
+        assertThat(userRepository.existsByUsername("dup_other")).isFalse();
+        assertThat(userRepository.existsByUsername("dup_last")).isTrue();
+    }
+
+    @Test
+    void duplicatesOfExistingUsersAreRejected() throws Exception {
+        UserImportResponse report = importNdjson(List.of(
+                "{\"username\":\"user\",\"email\":\"someone-new@example.com\",\"password\":\"password1\"}",
+                "{\"username\":\"existing_new\",\"email\":\"admin@example.com\",\"password\":\"password1\"}",
+                row("existing_ok", "Fresh")));
+
+        assertThat(report.getImported()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(UserImportResponse.RowError::getMessage)
+                .containsExactly("Username is already taken!", "Email is already in use!");
+        assertThat(userRepository.existsByUsername("existing_new")).isFalse();
+        assertThat(userRepository.findByUsername("user").orElseThrow().getEmail()).isEqualTo("user@example.com");
+        assertThat(userRepository.existsByUsername("existing_ok")).isTrue();
+    }
+
+    private UserImportResponse importNdjson(List<String> rows) throws Exception {
+        byte[] body = String.join("\n", rows).getBytes(StandardCharsets.UTF_8);
+        return userImportService.importUsers(UserImportService.Format.NDJSON, new ByteArrayInputStream(body));
+    }
+
+    private static String row(String username, String firstName) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\","
+                + "\"password\":\"password1\",\"firstName\":\"" + firstName + "\"}";
+    }
+
+    private static String rowWithPassword(String username, String password) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\","
+                + "\"password\":\"" + password + "\"}";
+    }
+
+    /** Counts single statements and JDBC batches executed on the thread that started counting. */
+    public static class StatementCounter implements SessionEventListener {
+
+        private static final ThreadLocal<int[]> COUNTS = new ThreadLocal<>();
+
+        static void start() {
+            COUNTS.set(new int[2]);
+        }
+
+        static void stop() {
+            COUNTS.remove();
+        }
+
+        static int statements() {
+            return COUNTS.get()[0];
+        }
+
+        static int batches() {
+            return COUNTS.get()[1];
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            int[] counts = COUNTS.get();
+            if (counts != null) {
+                counts[0]++;
+            }
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            int[] counts = COUNTS.get();
+            if (counts != null) {
+                counts[1]++;
+            }
+        }
+    }
+}
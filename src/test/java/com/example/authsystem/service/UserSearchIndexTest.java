@@ -0,0 +1,98 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes that never pass through this node's commit hooks, as if another node had made them,
+ * reach the index only through the periodic resync. The schedules are pushed out of the way so
+ * that each pass in these tests is one the test triggered itself.
+ */
+@SpringBootTest(properties = {"users.search.resync-interval-ms=3600000", "users.search.reconcile-interval-ms=3600000"})
+class UserSearchIndexTest {
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        ReflectionTestUtils.setField(userSearchIndex, "maxCandidates", 10000);
+        created.forEach(userRepository::deleteById);
+        created.clear();
+        userSearchIndex.reconcileDeletions();
+    }
+
+    @Test
+    void resyncPicksUpUsersChangedOnAnotherNode() {
+        Long id = save("resynced", "Before");
+        jdbcTemplate.update("UPDATE users SET first_name = ?, updated_at = ? WHERE id = ?",
+                "Zebediah", LocalDateTime.now(), id);
+        assertThat(userSearchIndex.search("zebediah", 0, 10).ids()).isEmpty();
+
+        userSearchIndex.resync();
+
+        assertThat(userSearchIndex.search("zebediah", 0, 10).ids()).containsExactly(id);
+        assertThat(userSearchIndex.search("resynced", 0, 10).ids()).containsExactly(id);
+    }
+
+    @Test
+    void reconcileDropsUsersDeletedOnAnotherNode() {
+        Long id = save("vanishing", null);
+        userSearchIndex.resync();
+        assertThat(userSearchIndex.search("vanishing", 0, 10).ids()).containsExactly(id);
+
+        userRepository.deleteById(id);
+        created.remove(id);
+        userSearchIndex.reconcileDeletions();
+
+        assertThat(userSearchIndex.search("vanishing", 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void truncatedCandidatesAreReported() {
+        save("crowded1", null);
+        save("crowded2", null);
+        save("crowded3", null);
+        userSearchIndex.resync();
+
+        assertThat(userService.searchUsers("crowded", 0, 10).isTruncated()).isFalse();
+        assertThat(userService.searchUsers("crowded", 0, 10).getTotal()).isEqualTo(3);
+
+        ReflectionTestUtils.setField(userSearchIndex, "maxCandidates", 2);
+
+        assertThat(userService.searchUsers("crowded", 0, 10).isTruncated()).isTrue();
+        assertThat(userService.searchUsers("crowded", 0, 10).getTotal()).isEqualTo(2);
+        assertThat(userService.searchUsers("crowded1", 0, 10).isTruncated()).isFalse();
+    }
+
+    private Long save(String username, String firstName) {
+        User user = new User(username, username + "@example.com", "{noop}secret");
+        user.setFirstName(firstName);
+        Long id = userRepository.save(user).getId();
+        created.add(id);
+        return id;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.authsystem.service;
+
+import com.example.authsystem.config.ShardContext;
+import com.example.authsystem.config.ShardingProperties;
+import com.example.authsystem.entity.Role;
+import com.example.authsystem.entity.User;
+import com.example.authsystem.repository.RoleRepository;
+import com.example.authsystem.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Users placed while the deployment had a different shard set must still be found once the ring
+ * has changed. The previous deployment is simulated by a router over fewer shards.
+ */
+@SpringBootTest
+@ActiveProfiles("shards")
+class UserShardLookupTest {
+
+    @Autowired
+    private UserShardRouter shardRouter;
+
+    @Autowired
+    private UserDirectoryService userDirectoryService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ShardingProperties shardingProperties;
+
+    @AfterEach
+    void clearShard() {
+        ShardContext.clear();
+    }
+
+    @Test
+    void usersPlacedUnderThePreviousShardSetAreStillFound() {
+        UserShardRouter previousRouter = routerWithShards(shardingProperties.getShards().subList(0, 1));
+        String username = IntStream.range(0, 1000)
+                .mapToObj(i -> "moved" + i)
+                .filter(name -> previousRouter.shardForNewUser(name) != shardRouter.shardForNewUser(name))
+                .findFirst()
+                .orElseThrow();
+        int placedOn = previousRouter.shardForNewUser(username);
+        shardRouter.runInShard(placedOn, false, () -> {
+            userDirectoryService.register(username, username + "@example.com", placedOn);
+            User user = new User(username, username + "@example.com", passwordEncoder.encode("secret123"));
+            user.setRoles(Set.of(roleRepository.findByName(Role.RoleName.ROLE_USER).orElseThrow()));
+            userRepository.save(user);
+        });
+
+        User loaded = (User) userDetailsService.loadUserByUsername(username);
+        assertThat(shardRouter.shardForUserId(loaded.getId())).isEqualTo(placedOn);
+        assertThat(userService.getUserByUsername(username).getId()).isEqualTo(loaded.getId());
+
+        userService.changePassword(username, "secret123", "secret456");
+        assertThat(passwordEncoder.matches("secret456", userService.getUserById(loaded.getId()).getPassword()))
+                .isTrue();
+    }
+
+    private UserShardRouter routerWithShards(List<ShardingProperties.Shard> shards) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        properties.setVirtualNodes(shardingProperties.getVirtualNodes());
+        properties.setShards(shards);
+        UserShardRouter router = new UserShardRouter();
+        ReflectionTestUtils.setField(router, "properties", properties);
+        ReflectionTestUtils.setField(router, "transactionManager", transactionManager);
+        router.init();
+        return router;
+    }
+}